@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,4 +22,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     @Query("SELECT u.id FROM User u WHERE u.companyId = :companyId AND u.managerId = :managerId")
     List<Long> findIdsByCompanyIdAndManagerId(@Param("companyId") Long companyId, @Param("managerId") Long managerId);
+
+    @Query("SELECT u FROM User u JOIN FETCH u.groupe WHERE u.id IN :ids")
+    List<User> findAllWithGroupeByIdIn(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -45,6 +45,8 @@ public interface UserService {
 
     ResponseEntity<?> getTeamEvaluationParticipant(Long userId);
 
+    ResponseEntity<?> getTeamEvaluationParticipants(Set<Long> userIds);
+
     ResponseEntity<?> fetchCampaignEvaluationParticipants(List<Long> participantIds);
 
     ResponseEntity<?> getUserRole(Long userId);
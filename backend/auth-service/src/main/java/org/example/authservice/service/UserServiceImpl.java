@@ -453,6 +453,27 @@ public class UserServiceImpl implements UserService {
         return ResponseEntity.ok(teamEvaluationDetailsForUserDto);
     }
 
+    @Override
+    public ResponseEntity<?> getTeamEvaluationParticipants(Set<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return ResponseEntity.ok(Collections.emptyList());
+        }
+        List<TeamEvaluationDetailsForUserDto> participants = userRepository.findAllWithGroupeByIdIn(userIds)
+                .stream()
+                .map(user -> TeamEvaluationDetailsForUserDto.builder()
+                        .id(user.getId())
+                        .name(user.getFirstName() + " " + user.getLastName())
+                        .firstName(user.getFirstName())
+                        .lastName(user.getLastName())
+                        .position(user.getPosition())
+                        .groupe(user.getGroupe().getName())
+                        .cin(user.getCin())
+                        .cnss(user.getSocialSecurityNumber())
+                        .build())
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(participants);
+    }
+
     @Transactional
     @Override
     public ResponseEntity<?> fetchCampaignEvaluationParticipants(List<Long> participantIds) {
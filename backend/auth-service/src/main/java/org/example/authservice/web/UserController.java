@@ -118,6 +118,11 @@ public class UserController {
         return userService.getTeamEvaluationParticipant(userId);
     }
 
+    @PostMapping("/get/team-evaluation-participants")
+    public ResponseEntity<?> getTeamEvaluationParticipants(@RequestBody Set<Long> userIds) {
+        return userService.getTeamEvaluationParticipants(userIds);
+    }
+
     @PostMapping("/get/participants")
     public ResponseEntity<?> getParticipants(@RequestBody List<Long> participantIds) {
         return userService.fetchCampaignEvaluationParticipants(participantIds);
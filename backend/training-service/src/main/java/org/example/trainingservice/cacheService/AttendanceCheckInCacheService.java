@@ -0,0 +1,42 @@
+package org.example.trainingservice.cacheService;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.trainingservice.dto.plan.attendance.AttendanceCheckInTarget;
+import org.example.trainingservice.repository.plan.attendance.AttendanceRecordRepository;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Enregistrements d'une liste de présence par participant, pour le pointage par QR code :
+ * lors du pointage de toute une salle, aucune lecture des enregistrements n'est nécessaire par participant.
+ * La clé est l'identifiant de la liste et non le token : une liste régénérée sous le même token
+ * a un nouvel identifiant, donc aucune instance ne peut pointer vers les anciens enregistrements.
+ * Invalidé à l'enregistrement et à la suppression des listes de présence.
+ */
+@Service
+@Slf4j
+public class AttendanceCheckInCacheService {
+    public static final String CACHE_NAME = "attendanceCheckIns";
+
+    private final AttendanceRecordRepository attendanceRecordRepository;
+
+    public AttendanceCheckInCacheService(AttendanceRecordRepository attendanceRecordRepository) {
+        this.attendanceRecordRepository = attendanceRecordRepository;
+    }
+
+    @Cacheable(value = CACHE_NAME, key = "#attendanceListId")
+    @Transactional(readOnly = true)
+    public AttendanceCheckInTarget getTarget(UUID attendanceListId) {
+        log.info("Loading attendance check-in target for list {}", attendanceListId);
+        Map<Long, UUID> recordIdsByUserId = new HashMap<>();
+        for (Object[] row : attendanceRecordRepository.findUserIdAndRecordIdByAttendanceListId(attendanceListId)) {
+            recordIdsByUserId.put((Long) row[0], (UUID) row[1]);
+        }
+        return new AttendanceCheckInTarget(attendanceListId, recordIdsByUserId);
+    }
+}
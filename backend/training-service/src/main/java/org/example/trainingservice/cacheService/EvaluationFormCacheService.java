@@ -0,0 +1,113 @@
+package org.example.trainingservice.cacheService;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.trainingservice.dto.evaluation.QuestionnaireDefinition;
+import org.example.trainingservice.dto.plan.f4.EvaluationFormTemplate;
+import org.example.trainingservice.dto.plan.f4.QuestionDto;
+import org.example.trainingservice.dto.plan.f4.QuestionnaireDto;
+import org.example.trainingservice.dto.plan.f4.TrainingInfoDto;
+import org.example.trainingservice.enums.GroupeEvaluationStatusEnums;
+import org.example.trainingservice.repository.plan.evaluation.GroupeEvaluationRepo;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Formulaires F4 des évaluations de groupe : lors du scan d'un QR code par toute une classe,
+ * le formulaire commun (statut, libellé, groupe, questionnaire converti) est construit une fois par évaluation,
+ * seul le token reste lu à chaque scan.
+ * Le formulaire est invalidé localement à la modification de l'évaluation, du groupe, de la formation
+ * ou du questionnaire ; le TTL court borne l'obsolescence entre instances.
+ * Le chargement est atomique par clé : une rafale de scans ne construit le formulaire qu'une fois.
+ */
+@Service
+@Slf4j
+public class EvaluationFormCacheService {
+    public static final String CACHE_NAME = "evaluationForms";
+    public static final String TEMPLATE_CACHE_NAME = "evaluationFormTemplates";
+
+    private final GroupeEvaluationRepo groupeEvaluationRepo;
+    private final QuestionnaireDefinitionCacheService questionnaireDefinitionCacheService;
+    private final Cache cache;
+    private final Cache templateCache;
+
+    public EvaluationFormCacheService(GroupeEvaluationRepo groupeEvaluationRepo, QuestionnaireDefinitionCacheService questionnaireDefinitionCacheService, CacheManager cacheManager) {
+        this.groupeEvaluationRepo = groupeEvaluationRepo;
+        this.questionnaireDefinitionCacheService = questionnaireDefinitionCacheService;
+        this.cache = cacheManager.getCache(CACHE_NAME);
+        this.templateCache = cacheManager.getCache(TEMPLATE_CACHE_NAME);
+    }
+
+    /**
+     * Formulaire commun de l'évaluation, null si elle n'existe pas. Le modèle est immuable et partagé entre les scans.
+     */
+    @Transactional(readOnly = true)
+    public EvaluationFormTemplate getFormTemplate(UUID groupeEvaluationId) {
+        return templateCache.get(groupeEvaluationId, () -> loadFormTemplate(groupeEvaluationId));
+    }
+
+    private EvaluationFormTemplate loadFormTemplate(UUID groupeEvaluationId) {
+        log.debug("Loading F4 form template for groupe evaluation {}.", groupeEvaluationId);
+        List<Object[]> rows = groupeEvaluationRepo.findFormHeaderById(groupeEvaluationId);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Object[] header = rows.get(0);
+
+        QuestionnaireDefinition questionnaire = questionnaireDefinitionCacheService.getRequired((UUID) header[3]);
+        QuestionnaireDto questionnaireDto = cache.get(questionnaire.getId() + ":" + questionnaire.getVersion(),
+                () -> convertQuestionnaireToDto(questionnaire));
+
+        return new EvaluationFormTemplate(
+                groupeEvaluationId,
+                (GroupeEvaluationStatusEnums) header[0],
+                (String) header[1],
+                (String) header[2],
+                getTrainingInfo(header),
+                questionnaireDto
+        );
+    }
+
+    private TrainingInfoDto getTrainingInfo(Object[] header) {
+        if (header[4] != null) {
+            return TrainingInfoDto.builder()
+                    .groupName((String) header[4])
+                    .trainingTheme((String) header[5])
+                    .location((String) header[6])
+                    .city((String) header[7])
+                    .build();
+        }
+
+        return TrainingInfoDto.builder()
+                .groupName("Groupe de formation")
+                .trainingTheme("Formation")
+                .location("")
+                .city("")
+                .build();
+    }
+
+    private QuestionnaireDto convertQuestionnaireToDto(QuestionnaireDefinition questionnaire) {
+        List<QuestionDto> questionDtos = questionnaire.getQuestions().stream()
+                .map(question -> QuestionDto.builder()
+                        .questionId(question.getId())
+                        .type(question.getType())
+                        .text(question.getText())
+                        .comment(question.getComment())
+                        .options(question.getOptions())
+                        .levels(question.getLevels())
+                        .required(true) // Toutes les questions sont obligatoires selon vos préférences
+                        .build())
+                .toList();
+
+        return QuestionnaireDto.builder()
+                .questionnaireId(questionnaire.getId())
+                .title(questionnaire.getTitle())
+                .description(questionnaire.getDescription())
+                .questions(questionDtos)
+                .build();
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.trainingservice.cacheService;
+
+import org.example.trainingservice.dto.plan.synthesisFile.EvaluationSyntheseDto;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Synthèses des évaluations de groupe, par identifiant d'évaluation.
+ * Invalidées explicitement à l'enregistrement, la soumission ou la suppression de réponses,
+ * à la modification ou la suppression de l'évaluation, et aux modifications de groupes, formations et questionnaires.
+ * Le TTL borne l'obsolescence entre instances et pour le nom de l'entreprise (autre service).
+ * L'entrée en cache n'est jamais exposée : chaque appelant reçoit sa propre copie.
+ */
+@Service
+public class EvaluationSyntheseCacheService {
+    public static final String CACHE_NAME = "evaluationSynthese";
+
+    private final Cache cache;
+
+    public EvaluationSyntheseCacheService(CacheManager cacheManager) {
+        this.cache = cacheManager.getCache(CACHE_NAME);
+    }
+
+    /**
+     * Synthèse en cache, calculée par loader si absente. Une exception du loader n'est pas mise en cache.
+     */
+    public EvaluationSyntheseDto get(UUID groupeEvaluationId, Supplier<EvaluationSyntheseDto> loader) {
+        try {
+            return copyOf(cache.get(groupeEvaluationId, loader::get));
+        } catch (Cache.ValueRetrievalException e) {
+            throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+        }
+    }
+
+    /**
+     * Invalide la synthèse immédiatement et, dans une transaction, à nouveau après le commit :
+     * une lecture concurrente avant le commit ne peut pas laisser en cache une synthèse sans les nouvelles réponses.
+     */
+    public void evict(UUID groupeEvaluationId) {
+        if (groupeEvaluationId == null) {
+            return;
+        }
+        cache.evict(groupeEvaluationId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.evict(groupeEvaluationId);
+                }
+            });
+        }
+    }
+
+    public void evictAll(Collection<UUID> groupeEvaluationIds) {
+        groupeEvaluationIds.stream().filter(Objects::nonNull).distinct().forEach(this::evict);
+    }
+
+    private EvaluationSyntheseDto copyOf(EvaluationSyntheseDto synthese) {
+        return synthese.toBuilder()
+                .generationDate(synthese.getGenerationDate() != null ? new Date(synthese.getGenerationDate().getTime()) : null)
+                .questionStats(synthese.getQuestionStats() == null ? null : synthese.getQuestionStats().stream()
+                        .map(stats -> stats.toBuilder()
+                                .optionPercentages(stats.getOptionPercentages() != null
+                                        ? new LinkedHashMap<>(stats.getOptionPercentages()) : null)
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+}
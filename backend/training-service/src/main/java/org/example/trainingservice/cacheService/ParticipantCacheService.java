@@ -0,0 +1,55 @@
+package org.example.trainingservice.cacheService;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.trainingservice.client.users.AuthServiceClient;
+import org.example.trainingservice.dto.evaluation.TeamEvaluationDetailsForUserDto;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.annotation.RequestScope;
+
+import java.util.*;
+
+/**
+ * Résout les participants d'une évaluation en un seul appel groupé à l'auth-service.
+ * Les résultats sont mémorisés pour la durée de la requête HTTP.
+ */
+@Service
+@RequestScope
+@Slf4j
+public class ParticipantCacheService {
+    private final AuthServiceClient authServiceClient;
+    private final Map<Long, TeamEvaluationDetailsForUserDto> participantsById = new HashMap<>();
+
+    public ParticipantCacheService(AuthServiceClient authServiceClient) {
+        this.authServiceClient = authServiceClient;
+    }
+
+    /**
+     * Retourne les détails des participants demandés, indexés par ID.
+     * Seuls les IDs pas encore connus pour cette requête sont demandés à l'auth-service.
+     * Un participant introuvable est absent de la map.
+     */
+    public Map<Long, TeamEvaluationDetailsForUserDto> getParticipants(Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Set<Long> missingIds = new HashSet<>(userIds);
+        missingIds.removeAll(participantsById.keySet());
+        if (!missingIds.isEmpty()) {
+            log.info("Fetching {} participants from auth-service.", missingIds.size());
+            List<TeamEvaluationDetailsForUserDto> participants = authServiceClient.getTeamEvaluationParticipants(missingIds);
+            if (participants != null) {
+                participants.forEach(participant -> participantsById.put(participant.getId(), participant));
+            }
+        }
+
+        Map<Long, TeamEvaluationDetailsForUserDto> result = new HashMap<>();
+        userIds.forEach(userId -> {
+            TeamEvaluationDetailsForUserDto participant = participantsById.get(userId);
+            if (participant != null) {
+                result.put(userId, participant);
+            }
+        });
+        return result;
+    }
+}
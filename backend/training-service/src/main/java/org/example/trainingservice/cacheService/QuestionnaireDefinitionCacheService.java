@@ -0,0 +1,69 @@
+package org.example.trainingservice.cacheService;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.trainingservice.dto.evaluation.QuestionnaireDefinition;
+import org.example.trainingservice.entity.campaign.Questionnaire;
+import org.example.trainingservice.repository.evaluation.QuestionnaireRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Cache des définitions de questionnaires, indexé par (id, version).
+ * La version est relue à chaque accès (une ligne de la table questionnaire) : une modification faite
+ * par une autre instance rend l'entrée obsolète sans message d'invalidation.
+ */
+@Service
+@Slf4j
+public class QuestionnaireDefinitionCacheService {
+    public static final String CACHE_NAME = "questionnaireDefinitions";
+
+    private final QuestionnaireRepository questionnaireRepository;
+    private final Cache cache;
+
+    public QuestionnaireDefinitionCacheService(QuestionnaireRepository questionnaireRepository, CacheManager cacheManager) {
+        this.questionnaireRepository = questionnaireRepository;
+        this.cache = cacheManager.getCache(CACHE_NAME);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<QuestionnaireDefinition> get(UUID questionnaireId) {
+        if (questionnaireId == null) {
+            return Optional.empty();
+        }
+        Optional<Long> version = questionnaireRepository.findDefinitionVersionById(questionnaireId);
+        if (version.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(cache.get(key(questionnaireId, version.get()), () -> load(questionnaireId, version.get())));
+    }
+
+    public QuestionnaireDefinition getRequired(UUID questionnaireId) {
+        return get(questionnaireId)
+                .orElseThrow(() -> new RuntimeException("Questionnaire non trouvé avec ID: " + questionnaireId));
+    }
+
+    /**
+     * À appeler avant d'enregistrer une modification : incrémente la version et retire l'entrée locale.
+     */
+    public void invalidate(Questionnaire questionnaire) {
+        long currentVersion = questionnaire.getDefinitionVersion() != null ? questionnaire.getDefinitionVersion() : 0L;
+        cache.evict(key(questionnaire.getId(), currentVersion));
+        questionnaire.setDefinitionVersion(currentVersion + 1);
+    }
+
+    private QuestionnaireDefinition load(UUID questionnaireId, Long version) {
+        log.debug("Loading questionnaire definition {} (version {}).", questionnaireId, version);
+        Questionnaire questionnaire = questionnaireRepository.findByIdWithQuestions(questionnaireId)
+                .orElseThrow(() -> new RuntimeException("Questionnaire non trouvé avec ID: " + questionnaireId));
+        return QuestionnaireDefinition.from(questionnaire, version);
+    }
+
+    private String key(UUID questionnaireId, Long version) {
+        return questionnaireId + ":" + version;
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.trainingservice.cacheService;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.trainingservice.dto.plan.UserTrainingHistoryDto;
+import org.example.trainingservice.repository.plan.TrainingGroupeRepository;
+import org.example.trainingservice.utils.TrainingGroupeUtilMethods;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Historique de formation par participant : les formations terminées ne changent plus,
+ * le résultat est donc mis en cache et invalidé lors des transitions de statut
+ * (mise à jour nocturne), des modifications de dates ou de participants d'un groupe,
+ * et des modifications ou suppressions de formations. Le TTL court borne l'obsolescence entre instances.
+ * L'entrée en cache n'est jamais exposée : chaque appelant reçoit une copie non modifiable.
+ */
+@Service
+@Slf4j
+public class UserTrainingHistoryCacheService {
+    public static final String CACHE_NAME = "userTrainingHistory";
+
+    private final TrainingGroupeRepository trainingGroupeRepository;
+    private final Cache cache;
+
+    public UserTrainingHistoryCacheService(TrainingGroupeRepository trainingGroupeRepository, CacheManager cacheManager) {
+        this.trainingGroupeRepository = trainingGroupeRepository;
+        this.cache = cacheManager.getCache(CACHE_NAME);
+    }
+
+    @Transactional(readOnly = true)
+    public List<UserTrainingHistoryDto> getHistory(Long companyId, Long userId) {
+        List<UserTrainingHistoryDto> history = cache.get(companyId + ":" + userId, () -> load(companyId, userId));
+        return history.stream()
+                .map(entry -> UserTrainingHistoryDto.builder()
+                        .year(entry.getYear())
+                        .theme(entry.getTheme())
+                        .dates(entry.getDates())
+                        .build())
+                .toList();
+    }
+
+    private List<UserTrainingHistoryDto> load(Long companyId, Long userId) {
+        log.info("Loading training history for userId: {} in company: {}", userId, companyId);
+        return TrainingGroupeUtilMethods.mapSessionRows(
+                trainingGroupeRepository.findUserTrainingHistoryRows(companyId, userId),
+                (row, dates) -> UserTrainingHistoryDto.builder()
+                        .year((Integer) row[1])
+                        .theme((String) row[2])
+                        .dates(dates)
+                        .build());
+    }
+}
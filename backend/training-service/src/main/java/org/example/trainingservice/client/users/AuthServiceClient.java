@@ -26,6 +26,9 @@ public interface AuthServiceClient {
     @GetMapping("/api/users/get/participant/{userId}")
     TeamEvaluationDetailsForUserDto getParticipant(@PathVariable Long userId);
 
+    @PostMapping("/api/users/get/team-evaluation-participants")
+    List<TeamEvaluationDetailsForUserDto> getTeamEvaluationParticipants(@RequestBody Set<Long> userIds);
+
     @PostMapping("/api/users/get/participants")
     List<Participant> getParticipants(@RequestBody List<Long> participantIds);
 
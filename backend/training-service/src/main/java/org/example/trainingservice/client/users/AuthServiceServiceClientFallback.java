@@ -31,6 +31,12 @@ public class AuthServiceServiceClientFallback implements AuthServiceClient {
         return null;
     }
 
+    @Override
+    public List<TeamEvaluationDetailsForUserDto> getTeamEvaluationParticipants(Set<Long> userIds) {
+        log.error("Error while calling getTeamEvaluationParticipants");
+        return List.of();
+    }
+
     @Override
     public List<Participant> getParticipants(List<Long> participantIds) {
         log.error("Error while calling getParticipants");
@@ -18,6 +18,36 @@ public class CacheConfig {
         cacheManager.setCaffeine(Caffeine.newBuilder()
                 .maximumSize(100)
                 .expireAfterWrite(Duration.ofDays(1)));
+        // Synthèses d'évaluation : invalidées explicitement, le TTL borne l'obsolescence entre instances et le nom d'entreprise
+        cacheManager.registerCustomCache("evaluationSynthese", Caffeine.newBuilder()
+                .maximumSize(500)
+                .expireAfterWrite(Duration.ofHours(1))
+                .build());
+        // Définitions de questionnaires : plus nombreuses, clé versionnée donc pas besoin d'expiration courte
+        cacheManager.registerCustomCache("questionnaireDefinitions", Caffeine.newBuilder()
+                .maximumSize(1000)
+                .expireAfterAccess(Duration.ofHours(12))
+                .build());
+        // Questionnaires des formulaires F4 : clé versionnée, partagés entre les évaluations d'un même questionnaire
+        cacheManager.registerCustomCache("evaluationForms", Caffeine.newBuilder()
+                .maximumSize(500)
+                .expireAfterAccess(Duration.ofHours(12))
+                .build());
+        // Formulaires F4 par évaluation : invalidés localement aux modifications, TTL court entre instances
+        cacheManager.registerCustomCache("evaluationFormTemplates", Caffeine.newBuilder()
+                .maximumSize(500)
+                .expireAfterWrite(Duration.ofMinutes(5))
+                .build());
+        // Pointage par QR code : liste -> enregistrements ; une liste régénérée change d'identifiant, le TTL ne borne que la mémoire
+        cacheManager.registerCustomCache("attendanceCheckIns", Caffeine.newBuilder()
+                .maximumSize(500)
+                .expireAfterWrite(Duration.ofMinutes(5))
+                .build());
+        // Historique de formation par participant : invalidé localement aux écritures, TTL court entre instances
+        cacheManager.registerCustomCache("userTrainingHistory", Caffeine.newBuilder()
+                .maximumSize(5000)
+                .expireAfterWrite(Duration.ofMinutes(15))
+                .build());
         return cacheManager;
     }
 
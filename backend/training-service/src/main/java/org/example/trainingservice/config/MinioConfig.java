@@ -4,6 +4,7 @@ import io.minio.MinioClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 
 @Configuration
 public class MinioConfig {
@@ -20,16 +21,38 @@ public class MinioConfig {
     @Value("${minio.secret-key}")
     private String secretKey;
 
+    // Adresse de MinIO vue par le navigateur (URLs présignées) ; par défaut, la même que "minio.endpoint"
+    @Value("${minio.public-endpoint:${minio.endpoint}}")
+    private String publicEndpoint;
+
+    @Value("${minio.region:us-east-1}")
+    private String region;
+
     /**
      * Crée un "Bean" MinioClient.
      * Spring va gérer cet objet et vous pourrez l'injecter
      * n'importe où avec @Autowired.
      */
     @Bean
+    @Primary
     public MinioClient minioClient() {
         return MinioClient.builder()
                 .endpoint(endpoint)
                 .credentials(accessKey, secretKey)
                 .build();
     }
+
+    /**
+     * Client dédié à la signature des URLs présignées : la signature inclut l'hôte,
+     * elle doit donc être calculée avec l'adresse publique. La région est fixée
+     * pour que la signature ne nécessite aucun appel réseau vers cette adresse.
+     */
+    @Bean
+    public MinioClient minioPresignClient() {
+        return MinioClient.builder()
+                .endpoint(publicEndpoint)
+                .region(region)
+                .credentials(accessKey, secretKey)
+                .build();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,103 @@
+package org.example.trainingservice.dto.evaluation;
+
+import lombok.Getter;
+import org.example.trainingservice.entity.campaign.Question;
+import org.example.trainingservice.entity.campaign.Questionnaire;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Définition immuable d'un questionnaire (questions, options, niveaux) partagée via le cache.
+ * Construite une fois par version du questionnaire : les lectures ne touchent plus les tables de questions.
+ */
+@Getter
+public final class QuestionnaireDefinition {
+    private final UUID id;
+    private final Long version;
+    private final Long companyId;
+    private final String title;
+    private final String description;
+    private final String type;
+    private final LocalDate creationDate;
+    private final List<QuestionDefinition> questions;
+    private final Map<UUID, Integer> questionIndex;
+
+    private QuestionnaireDefinition(Questionnaire questionnaire, Long version) {
+        this.id = questionnaire.getId();
+        this.version = version;
+        this.companyId = questionnaire.getCompanyId();
+        this.title = questionnaire.getTitle();
+        this.description = questionnaire.getDescription();
+        this.type = questionnaire.getType();
+        this.creationDate = questionnaire.getCreationDate();
+
+        List<QuestionDefinition> definitions = new ArrayList<>();
+        Map<UUID, Integer> index = new HashMap<>();
+        if (questionnaire.getQuestions() != null) {
+            for (Question question : questionnaire.getQuestions()) {
+                index.put(question.getId(), definitions.size());
+                definitions.add(new QuestionDefinition(question));
+            }
+        }
+        this.questions = Collections.unmodifiableList(definitions);
+        this.questionIndex = Collections.unmodifiableMap(index);
+    }
+
+    public static QuestionnaireDefinition from(Questionnaire questionnaire, Long version) {
+        return new QuestionnaireDefinition(questionnaire, version);
+    }
+
+    public int getQuestionCount() {
+        return questions.size();
+    }
+
+    /**
+     * Position de la question dans le questionnaire, -1 si elle n'en fait pas partie.
+     */
+    public int indexOf(UUID questionId) {
+        return questionIndex.getOrDefault(questionId, -1);
+    }
+
+    public Optional<QuestionDefinition> getQuestion(UUID questionId) {
+        int index = indexOf(questionId);
+        return index >= 0 ? Optional.of(questions.get(index)) : Optional.empty();
+    }
+
+    public Optional<QuestionDefinition> findQuestionByText(String text) {
+        return questions.stream().filter(question -> Objects.equals(text, question.getText())).findFirst();
+    }
+
+    @Getter
+    public static final class QuestionDefinition {
+        private final UUID id;
+        private final Long companyId;
+        private final String type;
+        private final String text;
+        private final String comment;
+        private final List<String> options;
+        private final List<String> levels;
+        private final Integer ratingValue;
+        private final Integer scoreValue;
+
+        private QuestionDefinition(Question question) {
+            this.id = question.getId();
+            this.companyId = question.getCompanyId();
+            this.type = question.getType();
+            this.text = question.getText();
+            this.comment = question.getComment();
+            this.options = copyOf(question.getOptions());
+            this.levels = copyOf(question.getLevels());
+            this.ratingValue = question.getRatingValue();
+            this.scoreValue = question.getScoreValue();
+        }
+
+        /**
+         * Copie non modifiable qui conserve les éléments null éventuellement présents en base
+         * (List.copyOf les refuse et ferait échouer le chargement du questionnaire).
+         */
+        private static List<String> copyOf(List<String> values) {
+            return values != null ? Collections.unmodifiableList(new ArrayList<>(values)) : null;
+        }
+    }
+}
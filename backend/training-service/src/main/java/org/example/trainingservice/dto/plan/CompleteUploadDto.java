@@ -0,0 +1,8 @@
+package org.example.trainingservice.dto.plan;
+
+import lombok.Data;
+
+@Data
+public class CompleteUploadDto {
+    private String objectKey; // Clé renvoyée lors de la demande d'URL présignée
+}
@@ -0,0 +1,25 @@
+package org.example.trainingservice.dto.plan;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.trainingservice.enums.GroupeStatusEnums;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupSessionPeriodDto {
+    private Long groupId;
+    private String groupName;
+    private UUID trainingId;
+    private String theme;
+    private String location;
+    private LocalDate firstSessionDate;
+    private LocalDate lastSessionDate;
+    private GroupeStatusEnums status;
+}
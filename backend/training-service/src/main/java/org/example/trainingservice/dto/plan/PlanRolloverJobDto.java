@@ -0,0 +1,29 @@
+package org.example.trainingservice.dto.plan;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.trainingservice.enums.PlanRolloverStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlanRolloverJobDto {
+    private UUID jobId;
+    private UUID sourcePlanId;
+    private UUID targetPlanId;
+    private Integer targetYear;
+    private PlanRolloverStatus status;
+    private int totalTrainings;
+    private int copiedTrainings;
+    private int copiedGroups;
+    private int progress;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,9 @@
+package org.example.trainingservice.dto.plan;
+
+import lombok.Data;
+
+@Data
+public class PresignedUploadRequestDto {
+    private String category; // "ocf", "invoice" ou "cancellation-notice"
+    private String fileName;
+}
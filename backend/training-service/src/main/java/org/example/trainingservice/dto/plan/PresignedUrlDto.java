@@ -0,0 +1,19 @@
+package org.example.trainingservice.dto.plan;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresignedUrlDto {
+    private String objectKey;
+    private String url;
+    private String method; // "PUT" pour l'envoi, "GET" pour le téléchargement
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,66 @@
+package org.example.trainingservice.dto.plan;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.trainingservice.enums.TrainingStatusEnum;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Ligne de la liste des formations d'un plan, construite directement par la requête JPQL (projection).
+ * Les compteurs de groupes et le budget sont agrégés en SQL ; les dates des groupes sont chargées ensuite pour la page seule.
+ */
+@Data
+@NoArgsConstructor
+public class TrainingListItemDto {
+    private UUID id;
+
+    private String theme;
+
+    private String creationDate;
+
+    private String type;
+
+    private Boolean csf;
+
+    private String domainName;
+
+    private String status;
+
+    private long groupCount;
+
+    private long draftGroupCount;
+
+    private long plannedGroupCount;
+
+    private long inProgressGroupCount;
+
+    private long completedGroupCount;
+
+    private long cancelledGroupCount;
+
+    // Somme des prix des groupes non annulés
+    private Double budget;
+
+    private List<GetAllTrainingDto.GroupDatesDto> groupDates;
+
+    public TrainingListItemDto(UUID id, String theme, String creationDate, String type, Boolean csf, String domainName,
+                               TrainingStatusEnum status, Long groupCount, Long draftGroupCount, Long plannedGroupCount,
+                               Long inProgressGroupCount, Long completedGroupCount, Long cancelledGroupCount, Double budget) {
+        this.id = id;
+        this.theme = theme;
+        this.creationDate = creationDate;
+        this.type = type;
+        this.csf = csf;
+        this.domainName = domainName;
+        this.status = status != null ? status.getDescription() : null;
+        this.groupCount = groupCount != null ? groupCount : 0;
+        this.draftGroupCount = draftGroupCount != null ? draftGroupCount : 0;
+        this.plannedGroupCount = plannedGroupCount != null ? plannedGroupCount : 0;
+        this.inProgressGroupCount = inProgressGroupCount != null ? inProgressGroupCount : 0;
+        this.completedGroupCount = completedGroupCount != null ? completedGroupCount : 0;
+        this.cancelledGroupCount = cancelledGroupCount != null ? cancelledGroupCount : 0;
+        this.budget = budget;
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.trainingservice.dto.plan.attendance;
+
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Vue minimale d'une liste de présence pour le pointage par QR code :
+ * identifiant d'enregistrement de chaque participant.
+ * Immuable, partagée entre les requêtes via le cache.
+ */
+@Getter
+public class AttendanceCheckInTarget {
+    private final UUID attendanceListId;
+    private final Map<Long, UUID> recordIdsByUserId;
+
+    public AttendanceCheckInTarget(UUID attendanceListId, Map<Long, UUID> recordIdsByUserId) {
+        this.attendanceListId = attendanceListId;
+        this.recordIdsByUserId = Map.copyOf(recordIdsByUserId);
+    }
+
+    public UUID getRecordId(Long userId) {
+        return userId != null ? recordIdsByUserId.get(userId) : null;
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.trainingservice.dto.plan.f4;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.example.trainingservice.enums.GroupeEvaluationStatusEnums;
+
+import java.util.UUID;
+
+/**
+ * Partie commune du formulaire F4 d'une évaluation de groupe (formation, questionnaire),
+ * construite une fois puis complétée par le token et le participant à chaque scan.
+ */
+@Getter
+@AllArgsConstructor
+public class EvaluationFormTemplate {
+    private final UUID groupeEvaluationId;
+    private final GroupeEvaluationStatusEnums status;
+    private final String evaluationLabel;
+    private final String evaluationType;
+    private final TrainingInfoDto training;
+    private final QuestionnaireDto questionnaire;
+
+    public EvaluationFormDto render(String token, ParticipantInfoDto participant) {
+        return EvaluationFormDto.builder()
+                .token(token)
+                .groupeEvaluationId(groupeEvaluationId)
+                .evaluationLabel(evaluationLabel)
+                .evaluationType(evaluationType)
+                .participant(participant)
+                .training(training)
+                .questionnaire(questionnaire)
+                .build();
+    }
+}
@@ -5,12 +5,14 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = @Index(name = "idx_campaign_evaluation_company", columnList = "company_id"))
 @Data
 @Builder
 @NoArgsConstructor
@@ -30,15 +32,19 @@ public class CampaignEvaluation {
     private String status;
 
     @ElementCollection
+    @BatchSize(size = 50)
     private List<Long> departmentIds;
 
     @ElementCollection
+    @BatchSize(size = 50)
     private List<Long> siteIds;
 
     @ElementCollection
+    @BatchSize(size = 50)
     private List<Long> participantIds;
 
     @ManyToMany
+    @BatchSize(size = 50)
     @JoinTable(
             name = "campaign_questionnaire",
             joinColumns = @JoinColumn(name = "campaign_id"),
@@ -0,0 +1,75 @@
+package org.example.trainingservice.entity.campaign;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.trainingservice.enums.EvaluationSource;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Progression d'un utilisateur sur un questionnaire pour une évaluation (campagne ou évaluation de groupe).
+ * Maintenue à chaque écriture de réponses pour que les tableaux de bord lisent une ligne
+ * au lieu de recompter toutes les réponses. Écrite par upsert (INSERT ... ON CONFLICT) sur la clé unique.
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "evaluation_progress",
+        indexes = {
+                @Index(name = "idx_evaluation_progress_questionnaire_user",
+                        columnList = "questionnaire_id, user_id"),
+                @Index(name = "idx_evaluation_progress_evaluation_id",
+                        columnList = "evaluation_id")
+        },
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_evaluation_progress_user_questionnaire_source_evaluation",
+                        columnNames = {"user_id", "questionnaire_id", "evaluation_source", "evaluation_id"})
+        })
+public class EvaluationProgress {
+    /**
+     * Identifiant d'évaluation des réponses qui n'en portent pas : la clé unique ne peut pas contenir NULL.
+     */
+    public static final UUID NO_EVALUATION = new UUID(0L, 0L);
+
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    private Long companyId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "questionnaire_id", nullable = false)
+    private UUID questionnaireId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "evaluation_source", nullable = false, length = 30)
+    private EvaluationSource evaluationSource;
+
+    // campaignEvaluationId OU groupeEvaluationId, NO_EVALUATION à défaut
+    @Column(name = "evaluation_id", nullable = false)
+    private UUID evaluationId;
+
+    private int answeredCount;
+
+    private int totalQuestions;
+
+    private int progress;
+
+    private String status;
+
+    private Boolean isSentToManager;
+
+    private Boolean isSentToAdmin;
+
+    private LocalDate startDate;
+
+    private LocalDate lastModifiedDate;
+}
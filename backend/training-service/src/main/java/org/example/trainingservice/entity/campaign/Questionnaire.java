@@ -38,4 +38,7 @@ public class Questionnaire {
 
     private Boolean defaultQuestionnaire;
 
+    // Incrémentée à chaque modification : sert de clé au cache des définitions
+    private Long definitionVersion;
+
 }
\ No newline at end of file
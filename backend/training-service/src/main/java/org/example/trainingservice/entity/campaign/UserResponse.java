@@ -5,7 +5,10 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.example.trainingservice.enums.AnswerType;
 import org.example.trainingservice.enums.EvaluationSource;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -35,6 +38,10 @@ public class UserResponse {
 
     private String responseType; // Type de la question
 
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private AnswerType answerType; // Code du type, dérivé de responseType
+
     @Column(columnDefinition = "TEXT")
     private String textResponse; // Pour les questions de type texte
 
@@ -44,8 +51,9 @@ public class UserResponse {
 
     private Integer ratingResponse; // Pour les questions de type notation
 
-    @ElementCollection
-    private List<String> multipleChoiceResponse; // Pour les questions de type checkbox et réponses multiples
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "multiple_choice_answers", columnDefinition = "jsonb")
+    private List<String> multipleChoiceResponse; // Pour les questions de type checkbox et réponses multiples (stocké en JSON dans la ligne)
 
     private String singleChoiceResponse; // Pour les questions à réponse unique
 
@@ -63,4 +71,17 @@ public class UserResponse {
 
     @Enumerated(EnumType.STRING)
     private EvaluationSource evaluationSource;
+
+    @PrePersist
+    @PreUpdate
+    private void syncAnswerType() {
+        answerType = AnswerType.fromDescription(responseType);
+    }
+
+    /**
+     * Type de réponse, y compris pour les lignes pas encore migrées.
+     */
+    public AnswerType resolveAnswerType() {
+        return answerType != null ? answerType : AnswerType.fromDescription(responseType);
+    }
 }
\ No newline at end of file
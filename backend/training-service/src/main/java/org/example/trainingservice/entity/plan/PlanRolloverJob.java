@@ -0,0 +1,64 @@
+package org.example.trainingservice.entity.plan;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.trainingservice.enums.PlanRolloverStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Reconduction d'un plan dans l'exercice suivant, exécutée en tâche de fond.
+ * La ligne sert de suivi de progression (formations et groupes copiés) ; updatedAt est le heartbeat
+ * de l'exécution, un job actif sans heartbeat récent est considéré comme interrompu.
+ * Une seule reconduction active par plan source (index unique partiel créé au démarrage).
+ */
+@Entity
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "plan_rollover_job",
+        indexes = {
+                @Index(name = "idx_plan_rollover_job_company_source", columnList = "company_id, source_plan_id"),
+                @Index(name = "idx_plan_rollover_job_status", columnList = "status")
+        })
+public class PlanRolloverJob {
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @Column(name = "company_id", nullable = false)
+    private Long companyId;
+
+    @Column(name = "source_plan_id", nullable = false)
+    private UUID sourcePlanId;
+
+    private UUID targetPlanId;
+
+    private Integer targetYear;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private PlanRolloverStatus status;
+
+    private int totalTrainings;
+
+    private int copiedTrainings;
+
+    private int copiedGroups;
+
+    @Column(length = 1000)
+    private String errorMessage;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    private LocalDateTime updatedAt;
+}
@@ -17,7 +17,9 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "formations")
+@Table(name = "formations", indexes = {
+        @Index(name = "idx_formations_plan_company", columnList = "plan_id, company_id")
+})
 public class Training {
     @Id
     @GeneratedValue
@@ -10,16 +10,27 @@ import org.example.trainingservice.enums.GroupeStatusEnums;
 import org.example.trainingservice.enums.InvitationStatusEnum;
 import org.example.trainingservice.enums.TrainingType;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_training_groupe_company_status", columnList = "company_id, status"),
+        @Index(name = "idx_training_groupe_training", columnList = "training_id"),
+        @Index(name = "idx_training_groupe_company_first_session", columnList = "company_id, first_session_date"),
+        @Index(name = "idx_training_groupe_company_last_session", columnList = "company_id, last_session_date")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+// Colonnes reprises dans l'INSERT ... SELECT de TrainingGroupeRepository.promoteNeedGroupes : à tenir à jour
 public class TrainingGroupe {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -67,6 +78,22 @@ public class TrainingGroupe {
 
     private List<String> dates;
 
+    // Première et dernière séance, dérivées de "dates" (mise à jour nocturne des statuts en requêtes ensemblistes)
+    private LocalDate firstSessionDate;
+
+    private LocalDate lastSessionDate;
+
+    // Séances typées (une ligne par date), alimentées à partir de "dates" pour les requêtes par période
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "training_groupe_session",
+            joinColumns = @JoinColumn(name = "training_groupe_id"),
+            indexes = @Index(name = "idx_training_groupe_session_date", columnList = "session_date, training_groupe_id"))
+    @Column(name = "session_date", nullable = false)
+    @OrderBy
+    @Builder.Default
+    @ToString.Exclude
+    private Set<LocalDate> sessionDates = new LinkedHashSet<>();
+
     private String morningStartTime;
 
     private String morningEndTime;
@@ -118,6 +145,65 @@ public class TrainingGroupe {
     @Builder.Default
     private List<TrainingInvitation> invitations = new ArrayList<>();
 
+    /**
+     * Remplace les dates du groupe et synchronise les séances typées.
+     */
+    public void setDates(List<String> dates) {
+        this.dates = dates;
+        syncSessionDates();
+    }
+
+    /**
+     * Alimente les séances lors de la création (les entités construites via le builder ne passent pas par setDates).
+     */
+    @PrePersist
+    public void syncSessionDates() {
+        TreeSet<LocalDate> parsed = parseDates(dates);
+        if (sessionDates == null) {
+            sessionDates = new LinkedHashSet<>();
+        }
+        if (!sessionDates.equals(parsed)) {
+            sessionDates.clear();
+            sessionDates.addAll(parsed);
+        }
+        applySessionBounds(parsed);
+    }
+
+    /**
+     * Recalcule les dates de première et dernière séance à partir de "dates" (format ISO yyyy-MM-dd).
+     * Les valeurs illisibles sont ignorées.
+     */
+    @PreUpdate
+    public void refreshSessionDates() {
+        applySessionBounds(parseDates(dates));
+    }
+
+    private void applySessionBounds(TreeSet<LocalDate> parsed) {
+        this.firstSessionDate = parsed.isEmpty() ? null : parsed.first();
+        this.lastSessionDate = parsed.isEmpty() ? null : parsed.last();
+    }
+
+    /**
+     * Statut à afficher : dérivé des dates de séances, sans modifier le statut enregistré
+     */
+    public GroupeStatusEnums computeStatus(LocalDate today) {
+        return status != null ? status.resolve(firstSessionDate, lastSessionDate, today) : null;
+    }
+
+    private static TreeSet<LocalDate> parseDates(List<String> dates) {
+        TreeSet<LocalDate> parsed = new TreeSet<>();
+        if (dates != null) {
+            for (String date : dates) {
+                try {
+                    parsed.add(LocalDate.parse(date));
+                } catch (DateTimeParseException | NullPointerException e) {
+                    // Date invalide : ignorée
+                }
+            }
+        }
+        return parsed;
+    }
+
     // Méthodes utilitaires pour la gestion des invitations
     public void addInvitation(TrainingInvitation invitation) {
         invitations.add(invitation);
@@ -17,7 +17,13 @@ import java.util.UUID;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "groupe_evaluation")
+@Table(name = "groupe_evaluation",
+        indexes = {
+                @Index(name = "idx_groupe_evaluation_company_status",
+                        columnList = "company_id, status"),
+                @Index(name = "idx_groupe_evaluation_questionnaire",
+                        columnList = "questionnaire_id")
+        })
 public class GroupeEvaluation {
     @Id
     @GeneratedValue
@@ -48,5 +54,12 @@ public class GroupeEvaluation {
 
     // Participants du groupe d'évaluation
     @ElementCollection
+    @CollectionTable(name = "groupe_evaluation_participant_ids",
+            joinColumns = @JoinColumn(name = "groupe_evaluation_id"),
+            indexes = {
+                    @Index(name = "idx_groupe_evaluation_participant",
+                            columnList = "participant_ids, groupe_evaluation_id")
+            })
+    @Column(name = "participant_ids")
     private List<Long> participantIds;
 }
\ No newline at end of file
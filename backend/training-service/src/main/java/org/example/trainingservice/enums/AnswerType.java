@@ -0,0 +1,35 @@
+package org.example.trainingservice.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum AnswerType {
+    SCORE("Score"),
+    RATING("Notation"),
+    TEXT("Texte"),
+    COMMENT("Commentaire"),
+    MULTIPLE_CHOICE("Réponse multiple"),
+    SINGLE_CHOICE("Réponse unique"),
+    LEVEL("Evaluation");
+
+    private final String description;
+
+    AnswerType(String description) {
+        this.description = description;
+    }
+
+    /**
+     * Retrouve le type à partir du libellé de question ("Score", "Réponse unique", ...), null si inconnu.
+     */
+    public static AnswerType fromDescription(String description) {
+        if (description == null) {
+            return null;
+        }
+        for (AnswerType type : values()) {
+            if (type.description.equals(description)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
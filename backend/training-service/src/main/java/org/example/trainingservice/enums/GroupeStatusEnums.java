@@ -2,6 +2,8 @@ package org.example.trainingservice.enums;
 
 import lombok.Getter;
 
+import java.time.LocalDate;
+
 @Getter
 public enum GroupeStatusEnums {
     DRAFT("Brouillon"),
@@ -19,9 +21,26 @@ public enum GroupeStatusEnums {
 
     /**
      * Vérifie si le statut peut être automatiquement mis à jour
-     * DRAFT reste DRAFT jusqu'à validation manuelle
+     * Seuls PLANNED et IN_PROGRESS suivent les dates (DRAFT, APPROVED, COMPLETED et CANCELLED restent en l'état)
      */
     public boolean canBeAutoUpdated() {
-        return this != DRAFT;
+        return this == PLANNED || this == IN_PROGRESS;
+    }
+
+    /**
+     * Statut effectif à la date donnée, calculé sans persistance (même règle que la mise à jour nocturne).
+     * Un groupe planifié ou en cours sans séance datée est considéré comme planifié.
+     */
+    public GroupeStatusEnums resolve(LocalDate firstSessionDate, LocalDate lastSessionDate, LocalDate today) {
+        if (!canBeAutoUpdated()) {
+            return this;
+        }
+        if (firstSessionDate == null || lastSessionDate == null) {
+            return PLANNED;
+        }
+        if (lastSessionDate.isBefore(today)) {
+            return COMPLETED;
+        }
+        return firstSessionDate.isAfter(today) ? PLANNED : IN_PROGRESS;
     }
 }
\ No newline at end of file
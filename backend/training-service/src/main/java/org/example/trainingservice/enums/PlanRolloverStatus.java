@@ -0,0 +1,17 @@
+package org.example.trainingservice.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum PlanRolloverStatus {
+    PENDING("En attente"),
+    RUNNING("En cours"),
+    COMPLETED("Terminée"),
+    FAILED("Échouée");
+
+    private final String description;
+
+    PlanRolloverStatus(String description) {
+        this.description = description;
+    }
+}
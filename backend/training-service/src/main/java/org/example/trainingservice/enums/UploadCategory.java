@@ -0,0 +1,36 @@
+package org.example.trainingservice.enums;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * Catégories de fichiers pouvant être envoyés directement vers MinIO (URL présignée).
+ * Le préfixe sert de dossier dans la clé d'objet : {companyId}/{prefix}/...
+ */
+@Getter
+public enum UploadCategory {
+    OCF("ocf"),
+    GROUPE_INVOICE("invoice"),
+    CANCELLATION_NOTICE("cancellation-notice");
+
+    private final String prefix;
+
+    UploadCategory(String prefix) {
+        this.prefix = prefix;
+    }
+
+    /**
+     * Recherche une catégorie par son préfixe ou son nom.
+     *
+     * @param value Le préfixe (par exemple, "invoice") ou le nom de la constante.
+     * @return La catégorie correspondante.
+     * @throws IllegalArgumentException si aucune catégorie ne correspond.
+     */
+    public static UploadCategory fromValue(String value) {
+        return Arrays.stream(UploadCategory.values())
+                .filter(category -> category.prefix.equalsIgnoreCase(value) || category.name().equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Catégorie de fichier inconnue : " + value));
+    }
+}
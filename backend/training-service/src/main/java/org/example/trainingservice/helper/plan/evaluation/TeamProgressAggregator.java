@@ -0,0 +1,205 @@
+package org.example.trainingservice.helper.plan.evaluation;
+
+import lombok.Getter;
+import org.example.trainingservice.dto.evaluation.QuestionnaireDefinition;
+import org.example.trainingservice.entity.campaign.UserResponse;
+import org.example.trainingservice.enums.AnswerType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Agrège en une seule passe les réponses d'une équipe pour un questionnaire.
+ * Les réponses sont regroupées par utilisateur, puis progression, statut et indicateurs d'envoi
+ * sont calculés ensemble : O(U + R) au lieu de re-filtrer toutes les réponses pour chaque membre.
+ */
+public class TeamProgressAggregator {
+    public static final String STATUS_PENDING = "En attente";
+    public static final String STATUS_IN_PROGRESS = "En cours";
+    public static final String STATUS_DONE = "Terminé";
+    public static final String SENT_DRAFT = "Brouillon";
+    public static final String SENT_DONE = "Terminée";
+
+    private final List<Long> memberIds;
+    private final Map<Long, UserProgress> progressByUser;
+
+    private TeamProgressAggregator(List<Long> memberIds, Map<Long, UserProgress> progressByUser) {
+        this.memberIds = memberIds;
+        this.progressByUser = progressByUser;
+    }
+
+    /**
+     * @param questionnaire Le questionnaire (le nombre de questions sert de dénominateur).
+     * @param responses     Toutes les réponses de l'équipe pour ce questionnaire.
+     * @param memberIds     Les membres de l'équipe concernés.
+     */
+    public static TeamProgressAggregator aggregate(QuestionnaireDefinition questionnaire, List<UserResponse> responses, List<Long> memberIds) {
+        List<Long> members = memberIds != null ? memberIds : List.of();
+        Map<Long, UserProgress> progressByUser = new HashMap<>(Math.max(16, members.size() * 2));
+        members.forEach(userId -> progressByUser.put(userId, new UserProgress()));
+
+        int totalQuestions = questionnaire != null ? questionnaire.getQuestionCount() : 0;
+        UUID questionnaireId = questionnaire != null ? questionnaire.getId() : null;
+
+        if (responses != null) {
+            for (UserResponse response : responses) {
+                UserProgress progress = progressByUser.get(response.getUserId());
+                if (progress != null) {
+                    progress.accept(response, questionnaireId);
+                }
+            }
+        }
+        progressByUser.values().forEach(progress -> progress.complete(totalQuestions));
+
+        return new TeamProgressAggregator(members, progressByUser);
+    }
+
+    /**
+     * Indique si une réponse contient une valeur pour son type de question.
+     */
+    public static boolean isAnswered(UserResponse userResponse) {
+        AnswerType answerType = userResponse.resolveAnswerType();
+        if (answerType == null) {
+            return false;
+        }
+        return switch (answerType) {
+            case SCORE -> userResponse.getScoreResponse() != null;
+            case RATING -> userResponse.getRatingResponse() != null;
+            case TEXT -> userResponse.getTextResponse() != null;
+            case COMMENT -> userResponse.getCommentResponse() != null;
+            case MULTIPLE_CHOICE -> userResponse.getMultipleChoiceResponse() != null
+                    && !userResponse.getMultipleChoiceResponse().isEmpty();
+            case SINGLE_CHOICE -> userResponse.getSingleChoiceResponse() != null;
+            case LEVEL -> userResponse.getSingleLevelChoiceResponse() != null;
+        };
+    }
+
+    /**
+     * Statut correspondant à une progression en pourcentage ; partagé avec la progression enregistrée.
+     */
+    public static String statusOf(int progress) {
+        if (progress == 100) {
+            return STATUS_DONE;
+        }
+        return progress > 0 ? STATUS_IN_PROGRESS : STATUS_PENDING;
+    }
+
+    public UserProgress forUser(Long userId) {
+        return progressByUser.getOrDefault(userId, UserProgress.EMPTY);
+    }
+
+    /**
+     * Moyenne arrondie des progressions individuelles.
+     */
+    public int getGlobalProgress() {
+        if (memberIds.isEmpty()) {
+            return 0;
+        }
+        long sum = 0;
+        for (Long userId : memberIds) {
+            sum += forUser(userId).getProgress();
+        }
+        return (int) Math.round((double) sum / memberIds.size());
+    }
+
+    /**
+     * "Terminé" si tous ont terminé, "En cours" si au moins un est en cours, sinon "En attente".
+     */
+    public String getGlobalStatus() {
+        if (memberIds.isEmpty()) {
+            return STATUS_PENDING;
+        }
+        boolean allDone = true;
+        boolean anyInProgress = false;
+        for (Long userId : memberIds) {
+            String status = forUser(userId).getStatus();
+            allDone &= STATUS_DONE.equals(status);
+            anyInProgress |= STATUS_IN_PROGRESS.equals(status);
+        }
+        if (allDone) {
+            return STATUS_DONE;
+        }
+        return anyInProgress ? STATUS_IN_PROGRESS : STATUS_PENDING;
+    }
+
+    /**
+     * "Terminée" si chaque membre a des réponses toutes envoyées au manager, sinon "Brouillon".
+     */
+    public String getGlobalIsSentToManager() {
+        return !memberIds.isEmpty() && memberIds.stream().allMatch(userId -> forUser(userId).isAllSentToManager())
+                ? SENT_DONE : SENT_DRAFT;
+    }
+
+    /**
+     * "Terminée" si chaque membre a des réponses toutes envoyées à l'admin, sinon "Brouillon".
+     */
+    public String getGlobalIsSentToAdmin() {
+        return !memberIds.isEmpty() && memberIds.stream().allMatch(userId -> forUser(userId).isAllSentToAdmin())
+                ? SENT_DONE : SENT_DRAFT;
+    }
+
+    /**
+     * Résultat agrégé pour un utilisateur.
+     */
+    @Getter
+    public static class UserProgress {
+        static final UserProgress EMPTY = new UserProgress();
+
+        private final List<UserResponse> responses = new ArrayList<>();
+        private int answeredCount;
+        private int progress;
+        private String status = STATUS_PENDING;
+        private boolean allSentToManager = true;
+        private boolean allSentToAdmin = true;
+
+        private void accept(UserResponse response, UUID questionnaireId) {
+            responses.add(response);
+            allSentToManager &= Boolean.TRUE.equals(response.getIsSentToManager());
+            allSentToAdmin &= Boolean.TRUE.equals(response.getIsSentToAdmin());
+            if ((questionnaireId == null || questionnaireId.equals(response.getQuestionnaireId())) && isAnswered(response)) {
+                answeredCount++;
+            }
+        }
+
+        private void complete(int totalQuestions) {
+            progress = totalQuestions > 0 ? (answeredCount * 100) / totalQuestions : 0;
+            status = statusOf(progress);
+        }
+
+        public boolean hasResponses() {
+            return !responses.isEmpty();
+        }
+
+        public boolean isAllSentToManager() {
+            return hasResponses() && allSentToManager;
+        }
+
+        public boolean isAllSentToAdmin() {
+            return hasResponses() && allSentToAdmin;
+        }
+
+        /**
+         * Statut d'envoi individuel à l'admin : "Terminée" ou "Brouillon".
+         */
+        public String getSentToAdminStatus() {
+            return isAllSentToAdmin() ? SENT_DONE : SENT_DRAFT;
+        }
+
+        /**
+         * Indicateur d'envoi au manager de la première réponse (comportement historique des écrans).
+         */
+        public Boolean getFirstIsSentToManager() {
+            return hasResponses() ? responses.get(0).getIsSentToManager() : Boolean.FALSE;
+        }
+
+        /**
+         * Indicateur d'envoi à l'admin de la première réponse (comportement historique des écrans).
+         */
+        public Boolean getFirstIsSentToAdmin() {
+            return hasResponses() ? responses.get(0).getIsSentToAdmin() : Boolean.FALSE;
+        }
+    }
+}
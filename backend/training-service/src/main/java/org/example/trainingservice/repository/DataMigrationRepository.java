@@ -0,0 +1,9 @@
+package org.example.trainingservice.repository;
+
+import org.example.trainingservice.entity.DataMigration;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DataMigrationRepository extends JpaRepository<DataMigration, String> {
+}
@@ -2,8 +2,19 @@ package org.example.trainingservice.repository;
 
 import org.example.trainingservice.entity.Groupe;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+
 @Repository
 public interface GroupeRepository extends JpaRepository<Groupe, Long> {
-}
\ No newline at end of file
+    /**
+     * Suppression en une requête des groupes des besoins transformés en formations
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Groupe g WHERE g.need.id IN :needIds")
+    int deleteByNeedIdIn(@Param("needIds") Collection<Long> needIds);
+}
@@ -4,7 +4,11 @@ import org.example.trainingservice.entity.Need;
 import org.example.trainingservice.enums.NeedSource;
 import org.example.trainingservice.enums.NeedStatusEnums;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,4 +20,17 @@ public interface NeedRepository extends JpaRepository<Need, Long> {
     Optional<Need> findByIdAndCompanyId(Long id, Long companyId);
 
     List<Need> findAllByCompanyIdAndStatus(Long companyId, NeedStatusEnums status);
+
+    /**
+     * Besoins avec leurs groupes et formateurs, en une requête (transformation en formations)
+     */
+    @Query("SELECT DISTINCT n FROM Need n LEFT JOIN FETCH n.groupes g LEFT JOIN FETCH g.trainer WHERE n.id IN :ids")
+    List<Need> findAllWithGroupesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Suppression en une requête (les groupes doivent être supprimés avant, cf. GroupeRepository.deleteByNeedIdIn)
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Need n WHERE n.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -4,6 +4,8 @@ import org.example.trainingservice.entity.TrainerForTrainingGroupe;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +13,6 @@ public interface TrainerForTrainingGroupeRepository extends JpaRepository<Traine
     TrainerForTrainingGroupe findByEmail(String email);
 
     Optional<TrainerForTrainingGroupe> findByNameAndEmail(String externalTrainerName, String externalTrainerEmail);
+
+    List<TrainerForTrainingGroupe> findByNameIn(Collection<String> names);
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 package org.example.trainingservice.repository.evaluation;
 
 import org.example.trainingservice.entity.campaign.CampaignEvaluation;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -16,6 +19,18 @@ public interface CampaignEvaluationRepository extends JpaRepository<CampaignEval
 
     List<CampaignEvaluation> findByParticipantIdsContainsAndStatus(Long userId, String status);
 
+    List<CampaignEvaluation> findAllByCompanyId(Long companyId);
+
+    Page<CampaignEvaluation> findAllByCompanyId(Long companyId, Pageable pageable);
+
+    Page<CampaignEvaluation> findAllByCompanyIdAndTitleContainingIgnoreCase(Long companyId, String title, Pageable pageable);
+
+    @Modifying
+    @Query(value = "UPDATE campaign_evaluation ce SET company_id = (" +
+            "SELECT MIN(q.company_id) FROM campaign_questionnaire cq JOIN questionnaire q ON q.id = cq.questionnaire_id " +
+            "WHERE cq.campaign_id = ce.id) WHERE ce.company_id IS NULL", nativeQuery = true)
+    int backfillCompanyIdFromQuestionnaires();
+
     @Query("SELECT DISTINCT ce FROM CampaignEvaluation ce JOIN ce.participantIds pid WHERE pid IN :participantIds AND ce.status = :status")
     List<CampaignEvaluation> findByAnyParticipantIdInAndStatus(@Param("participantIds") Collection<Long> participantIds, @Param("status") String status);
 }
\ No newline at end of file
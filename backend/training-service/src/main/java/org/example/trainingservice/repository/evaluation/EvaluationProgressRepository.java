@@ -0,0 +1,66 @@
+package org.example.trainingservice.repository.evaluation;
+
+import org.example.trainingservice.entity.campaign.EvaluationProgress;
+import org.example.trainingservice.enums.EvaluationSource;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface EvaluationProgressRepository extends JpaRepository<EvaluationProgress, UUID> {
+    Optional<EvaluationProgress> findByUserIdAndQuestionnaireIdAndEvaluationSourceAndEvaluationId(
+            Long userId, UUID questionnaireId, EvaluationSource source, UUID evaluationId);
+
+    List<EvaluationProgress> findByUserIdAndQuestionnaireId(Long userId, UUID questionnaireId);
+
+    /**
+     * Création ou mise à jour atomique de la ligne (user, questionnaire, source, évaluation) :
+     * des soumissions concurrentes ne peuvent pas violer la clé unique.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO evaluation_progress (id, company_id, user_id, questionnaire_id, evaluation_source, evaluation_id, " +
+            "    answered_count, total_questions, progress, status, is_sent_to_manager, is_sent_to_admin, start_date, last_modified_date) " +
+            "VALUES (:#{#p.id}, :#{#p.companyId}, :#{#p.userId}, :#{#p.questionnaireId}, :#{#p.evaluationSource.name()}, :#{#p.evaluationId}, " +
+            "    :#{#p.answeredCount}, :#{#p.totalQuestions}, :#{#p.progress}, :#{#p.status}, :#{#p.isSentToManager}, :#{#p.isSentToAdmin}, " +
+            "    :#{#p.startDate}, :#{#p.lastModifiedDate}) " +
+            "ON CONFLICT (user_id, questionnaire_id, evaluation_source, evaluation_id) DO UPDATE SET " +
+            "    company_id = EXCLUDED.company_id, answered_count = EXCLUDED.answered_count, " +
+            "    total_questions = EXCLUDED.total_questions, progress = EXCLUDED.progress, status = EXCLUDED.status, " +
+            "    is_sent_to_manager = EXCLUDED.is_sent_to_manager, is_sent_to_admin = EXCLUDED.is_sent_to_admin, " +
+            "    start_date = EXCLUDED.start_date, last_modified_date = EXCLUDED.last_modified_date", nativeQuery = true)
+    int upsert(@Param("p") EvaluationProgress progress);
+
+    @Modifying
+    @Query("DELETE FROM EvaluationProgress p WHERE p.userId = :userId AND p.questionnaireId = :questionnaireId")
+    void deleteByUserIdAndQuestionnaireId(@Param("userId") Long userId, @Param("questionnaireId") UUID questionnaireId);
+
+    @Modifying
+    @Query("DELETE FROM EvaluationProgress p WHERE p.evaluationId = :evaluationId")
+    void deleteByEvaluationId(@Param("evaluationId") UUID evaluationId);
+
+    /**
+     * Réponses valides par questionnaire et par utilisateur, toutes sources confondues : [questionnaireId, userId, sum].
+     */
+    @Query("SELECT p.questionnaireId, p.userId, SUM(p.answeredCount) FROM EvaluationProgress p " +
+            "WHERE p.questionnaireId IN :questionnaireIds AND p.userId IN :userIds " +
+            "GROUP BY p.questionnaireId, p.userId")
+    List<Object[]> sumAnsweredCountGroupByQuestionnaireAndUser(@Param("questionnaireIds") Collection<UUID> questionnaireIds,
+                                                               @Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Couples [userId, questionnaireId] ayant des réponses sans ligne de progression (reprise des données existantes).
+     */
+    @Query("SELECT DISTINCT ur.userId, ur.questionnaireId FROM UserResponse ur " +
+            "WHERE ur.evaluationSource IS NOT NULL AND NOT EXISTS (" +
+            "SELECT 1 FROM EvaluationProgress p WHERE p.userId = ur.userId " +
+            "AND p.questionnaireId = ur.questionnaireId AND p.evaluationSource = ur.evaluationSource " +
+            "AND p.evaluationId = COALESCE(ur.campaignEvaluationId, ur.groupeEvaluationId, :noEvaluation))")
+    List<Object[]> findUserQuestionnairePairsWithoutProgress(@Param("noEvaluation") UUID noEvaluation);
+}
@@ -2,11 +2,22 @@ package org.example.trainingservice.repository.evaluation;
 
 import org.example.trainingservice.entity.campaign.Question;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface QuestionRepository extends JpaRepository<Question, UUID> {
     void deleteByQuestionnaireId(UUID id);
+
+    /**
+     * Nombre de questions par questionnaire : [questionnaireId, count].
+     */
+    @Query("SELECT q.questionnaire.id, COUNT(q) FROM Question q " +
+            "WHERE q.questionnaire.id IN :questionnaireIds GROUP BY q.questionnaire.id")
+    List<Object[]> countGroupByQuestionnaireId(@Param("questionnaireIds") Collection<UUID> questionnaireIds);
 }
\ No newline at end of file
@@ -48,4 +48,13 @@ public interface QuestionnaireRepository extends JpaRepository<Questionnaire, UU
      */
     @Query("SELECT q FROM Questionnaire q LEFT JOIN FETCH q.questions WHERE q.companyId = :companyId AND q.id = :id")
     Optional<Questionnaire> findByCompanyIdAndIdWithQuestions(Long companyId, UUID id);
+
+    @Query("SELECT q FROM Questionnaire q LEFT JOIN FETCH q.questions WHERE q.id = :id")
+    Optional<Questionnaire> findByIdWithQuestions(UUID id);
+
+    /**
+     * Version de la définition, lue sans charger les questions (0 pour les questionnaires jamais modifiés).
+     */
+    @Query("SELECT COALESCE(q.definitionVersion, 0) FROM Questionnaire q WHERE q.id = :id")
+    Optional<Long> findDefinitionVersionById(UUID id);
 }
\ No newline at end of file
@@ -3,6 +3,9 @@ package org.example.trainingservice.repository.evaluation;
 import org.example.trainingservice.entity.campaign.UserResponse;
 import org.example.trainingservice.enums.EvaluationSource;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Collection;
@@ -34,7 +37,53 @@ public interface UserResponseRepository extends JpaRepository<UserResponse, UUID
 
     List<UserResponse> findByGroupeEvaluationIdIn(Collection<UUID> groupeEvaluationIds);
 
+    List<UserResponse> findByGroupeEvaluationIdInAndUserIdIn(Collection<UUID> groupeEvaluationIds, Collection<Long> userIds);
+
     List<UserResponse> findByUserIdAndEvaluationSource(Long userId, EvaluationSource source);
 
     List<UserResponse> findByGroupeEvaluationId(UUID groupeEvaluationId);
+
+    /*
+     * Migration du stockage des réponses (ancienne table user_response_multiple_choice_response -> colonne JSON)
+     */
+    @Query(value = "SELECT to_regclass('user_response_multiple_choice_response') IS NOT NULL", nativeQuery = true)
+    boolean legacyMultipleChoiceTableExists();
+
+    @Modifying
+    @Query(value = "UPDATE user_response ur SET multiple_choice_answers = legacy.answers " +
+            "FROM (SELECT m.user_response_id, jsonb_agg(m.multiple_choice_response) AS answers " +
+            "      FROM user_response_multiple_choice_response m GROUP BY m.user_response_id) legacy " +
+            "WHERE legacy.user_response_id = ur.id AND ur.multiple_choice_answers IS NULL", nativeQuery = true)
+    int migrateLegacyMultipleChoiceAnswers();
+
+    /**
+     * Ancienne table renommée une fois copiée : la reprise ne peut plus se rejouer (table à supprimer manuellement)
+     */
+    @Modifying
+    @Query(value = "ALTER TABLE IF EXISTS user_response_multiple_choice_response " +
+            "RENAME TO user_response_multiple_choice_response_migrated", nativeQuery = true)
+    void renameLegacyMultipleChoiceTable();
+
+    @Modifying
+    @Query(value = "UPDATE user_response SET answer_type = CASE response_type " +
+            "WHEN 'Score' THEN 'SCORE' WHEN 'Notation' THEN 'RATING' WHEN 'Texte' THEN 'TEXT' " +
+            "WHEN 'Commentaire' THEN 'COMMENT' WHEN 'Réponse multiple' THEN 'MULTIPLE_CHOICE' " +
+            "WHEN 'Réponse unique' THEN 'SINGLE_CHOICE' WHEN 'Evaluation' THEN 'LEVEL' END " +
+            "WHERE answer_type IS NULL AND response_type IN ('Score', 'Notation', 'Texte', 'Commentaire', " +
+            "    'Réponse multiple', 'Réponse unique', 'Evaluation')", nativeQuery = true)
+    int backfillAnswerTypes();
+
+    @Query("SELECT COUNT(DISTINCT r.userId) FROM UserResponse r " +
+            "WHERE r.groupeEvaluationId = :groupeEvaluationId AND r.userId IN :userIds")
+    long countDistinctRespondents(@Param("groupeEvaluationId") UUID groupeEvaluationId,
+                                  @Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Nombre de réponses par question et par choix : [questionId, singleChoiceResponse, count].
+     */
+    @Query("SELECT r.questionId, r.singleChoiceResponse, COUNT(r) FROM UserResponse r " +
+            "WHERE r.groupeEvaluationId = :groupeEvaluationId AND r.userId IN :userIds " +
+            "GROUP BY r.questionId, r.singleChoiceResponse")
+    List<Object[]> countChoicesByQuestion(@Param("groupeEvaluationId") UUID groupeEvaluationId,
+                                          @Param("userIds") Collection<Long> userIds);
 }
\ No newline at end of file
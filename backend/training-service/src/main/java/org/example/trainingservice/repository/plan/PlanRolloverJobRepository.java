@@ -0,0 +1,81 @@
+package org.example.trainingservice.repository.plan;
+
+import org.example.trainingservice.entity.plan.PlanRolloverJob;
+import org.example.trainingservice.enums.PlanRolloverStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface PlanRolloverJobRepository extends JpaRepository<PlanRolloverJob, UUID> {
+    Optional<PlanRolloverJob> findByIdAndCompanyId(UUID id, Long companyId);
+
+    /**
+     * Reconduction active dont le heartbeat est récent
+     */
+    @Query("SELECT COUNT(j) > 0 FROM PlanRolloverJob j WHERE j.sourcePlanId = :sourcePlanId " +
+            "AND j.status IN :statuses AND j.updatedAt >= :aliveAfter")
+    boolean existsLiveJob(@Param("sourcePlanId") UUID sourcePlanId,
+                          @Param("statuses") Collection<PlanRolloverStatus> statuses,
+                          @Param("aliveAfter") LocalDateTime aliveAfter);
+
+    /**
+     * Reconductions actives sans heartbeat récent (instance arrêtée ou bloquée)
+     */
+    @Query("SELECT j FROM PlanRolloverJob j WHERE j.status IN :statuses " +
+            "AND (j.updatedAt IS NULL OR j.updatedAt < :before)")
+    List<PlanRolloverJob> findStaleJobs(@Param("statuses") Collection<PlanRolloverStatus> statuses,
+                                        @Param("before") LocalDateTime before);
+
+    /**
+     * Prise en charge du job par l'exécuteur : échoue si le job a été abandonné entre-temps
+     */
+    @Modifying
+    @Query("UPDATE PlanRolloverJob j SET j.status = org.example.trainingservice.enums.PlanRolloverStatus.RUNNING, " +
+            "j.startedAt = :now, j.updatedAt = :now " +
+            "WHERE j.id = :jobId AND j.status = org.example.trainingservice.enums.PlanRolloverStatus.PENDING")
+    int claim(@Param("jobId") UUID jobId, @Param("now") LocalDateTime now);
+
+    /**
+     * Progression et heartbeat après chaque lot copié ; 0 si le job n'est plus en cours
+     */
+    @Modifying
+    @Query("UPDATE PlanRolloverJob j SET j.copiedTrainings = j.copiedTrainings + :trainings, " +
+            "j.copiedGroups = j.copiedGroups + :groups, j.updatedAt = :now " +
+            "WHERE j.id = :jobId AND j.status = org.example.trainingservice.enums.PlanRolloverStatus.RUNNING")
+    int incrementProgress(@Param("jobId") UUID jobId,
+                          @Param("trainings") int trainings,
+                          @Param("groups") int groups,
+                          @Param("now") LocalDateTime now);
+
+    /**
+     * Passage en échec d'un job encore actif dont le heartbeat est antérieur à :before
+     */
+    @Modifying
+    @Query("UPDATE PlanRolloverJob j SET j.status = org.example.trainingservice.enums.PlanRolloverStatus.FAILED, " +
+            "j.errorMessage = :message, j.finishedAt = :now, j.updatedAt = :now " +
+            "WHERE j.id = :jobId AND j.status IN :statuses AND (j.updatedAt IS NULL OR j.updatedAt < :before)")
+    int fail(@Param("jobId") UUID jobId,
+             @Param("statuses") Collection<PlanRolloverStatus> statuses,
+             @Param("before") LocalDateTime before,
+             @Param("message") String message,
+             @Param("now") LocalDateTime now);
+
+    /**
+     * Une seule reconduction active par plan source (index partiel, non exprimable via @Index, créé au démarrage)
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "CREATE UNIQUE INDEX IF NOT EXISTS uk_plan_rollover_job_active_source " +
+            "ON plan_rollover_job (source_plan_id) WHERE status IN ('PENDING', 'RUNNING')", nativeQuery = true)
+    void createActiveSourcePlanUniqueIndex();
+}
@@ -3,47 +3,216 @@ package org.example.trainingservice.repository.plan;
 import org.example.trainingservice.entity.plan.TrainingGroupe;
 import org.example.trainingservice.enums.GroupeStatusEnums;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
 @Repository
 public interface TrainingGroupeRepository extends JpaRepository<TrainingGroupe, Long> {
-    // À ajouter dans TrainingGroupeRepository.java
+    /**
+     * Planning d'un participant : une ligne par séance (id du groupe, thème, date de séance ou null), en une requête.
+     * array_contains est rendu en "user_group_ids @> array[...]" et utilise l'index GIN idx_training_groupe_user_group_ids.
+     * Le statut est évalué à la date du jour (dernière séance non passée), sans attendre la mise à jour nocturne.
+     */
+    @Query("SELECT g.id, t.theme, d FROM TrainingGroupe g JOIN g.training t LEFT JOIN g.sessionDates d " +
+            "WHERE g.companyId = :companyId " +
+            "AND array_contains(g.userGroupIds, :userId) " +
+            "AND g.status IN (org.example.trainingservice.enums.GroupeStatusEnums.PLANNED, " +
+            "                 org.example.trainingservice.enums.GroupeStatusEnums.IN_PROGRESS) " +
+            "AND (g.lastSessionDate IS NULL OR g.lastSessionDate >= CURRENT_DATE) " +
+            "ORDER BY g.id DESC, d")
+    List<Object[]> findUserPlanningRows(@Param("companyId") Long companyId, @Param("userId") Long userId);
 
     /**
-     * Requête native PostgreSQL optimisée pour les arrays bigint[]
-     * Retourne directement les entités avec mapping automatique
+     * Historique d'un participant : une ligne par séance (id du groupe, exercice du plan, thème, date de séance ou null).
      */
-    @Query(value = "SELECT tg.* FROM training_groupe tg " +
-            "WHERE tg.company_id = :companyId " +
-            "AND tg.user_group_ids IS NOT NULL " +
-            "AND :userId = ANY(tg.user_group_ids) " +
-            "AND tg.status IN ('PLANNED', 'IN_PROGRESS') " +
-            "ORDER BY tg.id DESC",
-            nativeQuery = true)
-    List<TrainingGroupe> findByCompanyIdAndUserGroupIdsContainingNative(
-            @Param("companyId") Long companyId,
-            @Param("userId") Long userId
-    );
-
-    @Query(value = "SELECT tg.* FROM training_groupe tg " +
-            "WHERE tg.company_id = :companyId " +
-            "AND tg.user_group_ids IS NOT NULL " +
-            "AND :userId = ANY(tg.user_group_ids) " +
-            "AND tg.status IN ('COMPLETED', 'CANCELLED') " +
-            "ORDER BY tg.id DESC",
-            nativeQuery = true)
-    List<TrainingGroupe> findTrainingGroupeCompleted(
-            @Param("companyId") Long companyId,
-            @Param("userId") Long userId
-    );
+    @Query("SELECT g.id, p.year, t.theme, d FROM TrainingGroupe g JOIN g.training t JOIN t.plan p LEFT JOIN g.sessionDates d " +
+            "WHERE g.companyId = :companyId " +
+            "AND array_contains(g.userGroupIds, :userId) " +
+            "AND (g.status IN (org.example.trainingservice.enums.GroupeStatusEnums.COMPLETED, " +
+            "                  org.example.trainingservice.enums.GroupeStatusEnums.CANCELLED) " +
+            "     OR (g.status IN (org.example.trainingservice.enums.GroupeStatusEnums.PLANNED, " +
+            "                      org.example.trainingservice.enums.GroupeStatusEnums.IN_PROGRESS) " +
+            "         AND g.lastSessionDate < CURRENT_DATE)) " +
+            "ORDER BY g.id DESC, d")
+    List<Object[]> findUserTrainingHistoryRows(@Param("companyId") Long companyId, @Param("userId") Long userId);
 
     /**
      * Trouve tous les groupes avec les statuts spécifiés
      * Utilisé pour la mise à jour automatique (exclut DRAFT)
      */
     List<TrainingGroupe> findByStatusIn(List<GroupeStatusEnums> statuses);
-}
\ No newline at end of file
+
+    /**
+     * Entreprises ayant au moins un groupe dans les statuts donnés (découpage de la mise à jour nocturne)
+     */
+    @Query("SELECT DISTINCT g.companyId FROM TrainingGroupe g WHERE g.status IN :statuses AND g.companyId IS NOT NULL")
+    List<Long> findCompanyIdsByStatusIn(@Param("statuses") List<GroupeStatusEnums> statuses);
+
+    /**
+     * Groupes dont la dernière séance est passée -> COMPLETED
+     */
+    @Modifying
+    @Query("UPDATE TrainingGroupe g SET g.status = org.example.trainingservice.enums.GroupeStatusEnums.COMPLETED " +
+            "WHERE g.companyId = :companyId AND g.status IN :statuses AND g.lastSessionDate < :today")
+    int markCompleted(@Param("companyId") Long companyId,
+                      @Param("statuses") List<GroupeStatusEnums> statuses,
+                      @Param("today") LocalDate today);
+
+    /**
+     * Groupes dont la période de séances inclut aujourd'hui -> IN_PROGRESS
+     */
+    @Modifying
+    @Query("UPDATE TrainingGroupe g SET g.status = org.example.trainingservice.enums.GroupeStatusEnums.IN_PROGRESS " +
+            "WHERE g.companyId = :companyId " +
+            "AND g.status = org.example.trainingservice.enums.GroupeStatusEnums.PLANNED " +
+            "AND g.firstSessionDate <= :today AND g.lastSessionDate >= :today")
+    int markInProgress(@Param("companyId") Long companyId, @Param("today") LocalDate today);
+
+    /**
+     * Groupes en cours dont les séances ont été déplacées dans le futur ou supprimées -> PLANNED
+     * (même règle que GroupeStatusEnums.resolve : sans séance datée, un groupe est planifié)
+     */
+    @Modifying
+    @Query("UPDATE TrainingGroupe g SET g.status = org.example.trainingservice.enums.GroupeStatusEnums.PLANNED " +
+            "WHERE g.companyId = :companyId " +
+            "AND g.status = org.example.trainingservice.enums.GroupeStatusEnums.IN_PROGRESS " +
+            "AND (g.firstSessionDate IS NULL OR g.lastSessionDate IS NULL OR g.firstSessionDate > :today)")
+    int markPlanned(@Param("companyId") Long companyId, @Param("today") LocalDate today);
+
+    /**
+     * Reprise des données : première et dernière séance des groupes existants (dates ISO uniquement)
+     */
+    @Modifying
+    @Query(value = "UPDATE training_groupe tg SET first_session_date = s.first_date, last_session_date = s.last_date " +
+            "FROM (SELECT g.id, MIN(d::date) AS first_date, MAX(d::date) AS last_date " +
+            "      FROM training_groupe g, unnest(g.dates) AS d " +
+            "      WHERE g.first_session_date IS NULL AND d ~ '^[0-9]{4}-[0-9]{2}-[0-9]{2}$' " +
+            "      GROUP BY g.id) s " +
+            "WHERE tg.id = s.id", nativeQuery = true)
+    int backfillSessionDates();
+
+    /**
+     * Reprise des données : une ligne de séance par date ISO pour les groupes qui n'en ont pas encore
+     */
+    @Modifying
+    @Query(value = "INSERT INTO training_groupe_session (training_groupe_id, session_date) " +
+            "SELECT DISTINCT g.id, d::date FROM training_groupe g, unnest(g.dates) AS d " +
+            "WHERE d ~ '^[0-9]{4}-[0-9]{2}-[0-9]{2}$' " +
+            "AND NOT EXISTS (SELECT 1 FROM training_groupe_session s WHERE s.training_groupe_id = g.id)",
+            nativeQuery = true)
+    int backfillSessions();
+
+    /**
+     * Groupes d'une entreprise ayant au moins une séance dans la période [from, to]
+     */
+    @Query("SELECT DISTINCT g FROM TrainingGroupe g JOIN FETCH g.training JOIN g.sessionDates d " +
+            "WHERE g.companyId = :companyId AND d BETWEEN :from AND :to " +
+            "ORDER BY g.firstSessionDate, g.id")
+    List<TrainingGroupe> findWithSessionsBetween(@Param("companyId") Long companyId,
+                                                 @Param("from") LocalDate from,
+                                                 @Param("to") LocalDate to);
+
+    /**
+     * Index GIN sur les participants (non exprimable via @Index, créé au démarrage)
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "CREATE INDEX IF NOT EXISTS idx_training_groupe_user_group_ids " +
+            "ON training_groupe USING GIN (user_group_ids)", nativeQuery = true)
+    void createUserGroupIdsGinIndex();
+
+    /**
+     * Transformation ensembliste des groupes de besoins en groupes de formation (INSERT ... SELECT) :
+     * needIds[i] est transformé en la formation trainingIds[i]. Le formateur est rattaché par nom et email,
+     * le statut APPROVED devient PLANNED, et les séances typées sont créées dans la même requête.
+     * Retourne le nombre de séances créées.
+     * La liste des colonnes reprend le mapping de TrainingGroupe (hors id, séances et relations inverses) :
+     * tout champ persistant ajouté à l'entité doit y être ajouté, sinon il reste NULL pour les groupes promus.
+     * TrainingGroupeRepositoryTest compare les deux listes ; NeedPromotionBenchmarkTest mesure ce chemin
+     * contre l'ancienne copie entité par entité (500 besoins de 5 groupes, PostgreSQL via Testcontainers).
+     */
+    @Modifying
+    @Query(value = "WITH mapping AS ( " +
+            "    SELECT m.need_id, CAST(m.training_id AS uuid) AS training_id " +
+            "    FROM unnest(CAST(:needIds AS bigint[]), CAST(:trainingIds AS text[])) AS m(need_id, training_id) " +
+            "), inserted AS ( " +
+            "    INSERT INTO training_groupe (training_id, ocf_id, company_id, name, start_date, end_date, " +
+            "        participant_count, day_count, price, training_type, training_provider, internal_trainer_id, " +
+            "        trainer_name, site_ids, department_ids, location, city, dates, morning_start_time, " +
+            "        morning_end_time, afternoon_start_time, afternoon_end_time, user_group_ids, target_audience, " +
+            "        manager_count, employee_count, worker_count, temporary_worker_count, comment, status, " +
+            "        trainer_id, is_all_fields_filled, first_session_date, last_session_date) " +
+            "    SELECT m.training_id, g.ocf_id, g.company_id, g.name, g.start_date, g.end_date, " +
+            "        g.participant_count, g.day_count, g.price, g.training_type, g.training_provider, g.internal_trainer_id, " +
+            "        g.trainer_name, g.site_ids, g.department_ids, g.location, g.city, g.dates, g.morning_start_time, " +
+            "        g.morning_end_time, g.afternoon_start_time, g.afternoon_end_time, g.user_group_ids, g.target_audience, " +
+            "        g.manager_count, g.employee_count, g.worker_count, g.temporary_worker_count, g.comment, " +
+            "        CASE WHEN g.status = 'APPROVED' THEN 'PLANNED' ELSE g.status END, " +
+            "        (SELECT tft.id FROM trainer t JOIN trainer_for_training_groupe tft " +
+            "             ON tft.name = t.name AND tft.email IS NOT DISTINCT FROM t.email " +
+            "         WHERE t.id = g.trainer_id ORDER BY tft.id LIMIT 1), " +
+            "        COALESCE(g.is_all_fields_filled, false), " +
+            "        (SELECT MIN(d::date) FROM unnest(g.dates) AS d WHERE d ~ '^[0-9]{4}-[0-9]{2}-[0-9]{2}$'), " +
+            "        (SELECT MAX(d::date) FROM unnest(g.dates) AS d WHERE d ~ '^[0-9]{4}-[0-9]{2}-[0-9]{2}$') " +
+            "    FROM groupe g JOIN mapping m ON m.need_id = g.need_id " +
+            "    ORDER BY g.id " +
+            "    RETURNING id, dates " +
+            ") " +
+            "INSERT INTO training_groupe_session (training_groupe_id, session_date) " +
+            "SELECT DISTINCT i.id, d::date FROM inserted i, unnest(i.dates) AS d WHERE d ~ '^[0-9]{4}-[0-9]{2}-[0-9]{2}$'",
+            nativeQuery = true)
+    int promoteNeedGroupes(@Param("needIds") Long[] needIds, @Param("trainingIds") String[] trainingIds);
+
+    /**
+     * Groupes des formations données, avec leur formation (création des invitations)
+     */
+    @Query("SELECT g FROM TrainingGroupe g JOIN FETCH g.training WHERE g.training.id IN :trainingIds")
+    List<TrainingGroupe> findWithTrainingByTrainingIdIn(@Param("trainingIds") Collection<UUID> trainingIds);
+
+    /**
+     * Reconduction : copie ensembliste des groupes des formations sourceTrainingIds[i] vers targetTrainingIds[i].
+     * Dates, séances, OCF et statut (DRAFT) sont réinitialisés ; factures et invitations ne sont pas copiées.
+     * Les autres colonnes de TrainingGroupe sont toutes listées (TrainingGroupeRepositoryTest vérifie la liste).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO training_groupe (training_id, company_id, name, participant_count, day_count, price, " +
+            "    training_type, training_provider, internal_trainer_id, trainer_name, site_ids, department_ids, location, " +
+            "    city, morning_start_time, morning_end_time, afternoon_start_time, afternoon_end_time, user_group_ids, " +
+            "    target_audience, manager_count, employee_count, worker_count, temporary_worker_count, comment, status, " +
+            "    trainer_id, is_all_fields_filled) " +
+            "SELECT CAST(m.target_id AS uuid), g.company_id, g.name, g.participant_count, g.day_count, g.price, " +
+            "    g.training_type, g.training_provider, g.internal_trainer_id, g.trainer_name, g.site_ids, g.department_ids, g.location, " +
+            "    g.city, g.morning_start_time, g.morning_end_time, g.afternoon_start_time, g.afternoon_end_time, g.user_group_ids, " +
+            "    g.target_audience, g.manager_count, g.employee_count, g.worker_count, g.temporary_worker_count, g.comment, 'DRAFT', " +
+            "    g.trainer_id, false " +
+            "FROM training_groupe g " +
+            "JOIN unnest(CAST(:sourceTrainingIds AS text[]), CAST(:targetTrainingIds AS text[])) AS m(source_id, target_id) " +
+            "  ON g.training_id = CAST(m.source_id AS uuid) " +
+            "ORDER BY g.id",
+            nativeQuery = true)
+    int copyGroupesToTrainings(@Param("sourceTrainingIds") String[] sourceTrainingIds,
+                               @Param("targetTrainingIds") String[] targetTrainingIds);
+
+    /**
+     * Dates des groupes des formations d'une page de la liste : (id formation, id groupe, nom, dates).
+     * Filtré sur les dates saisies et non sur firstSessionDate, qui reste NULL pour les dates hors format ISO.
+     */
+    @Query("SELECT g.training.id, g.id, g.name, g.dates FROM TrainingGroupe g " +
+            "WHERE g.training.id IN :trainingIds AND g.dates IS NOT NULL ORDER BY g.id")
+    List<Object[]> findGroupDatesByTrainingIdIn(@Param("trainingIds") Collection<UUID> trainingIds);
+
+    /**
+     * Suppression des groupes des formations d'un plan (annulation d'une reconduction échouée)
+     */
+    @Modifying
+    @Query("DELETE FROM TrainingGroupe g WHERE g.training.id IN (SELECT t.id FROM Training t WHERE t.plan.id = :planId)")
+    int deleteByPlanId(@Param("planId") UUID planId);
+}
@@ -1,7 +1,12 @@
 package org.example.trainingservice.repository.plan;
 
+import org.example.trainingservice.dto.plan.TrainingListItemDto;
 import org.example.trainingservice.entity.plan.Training;
+import org.example.trainingservice.enums.TrainingStatusEnum;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -12,14 +17,86 @@ import java.util.UUID;
 
 @Repository
 public interface TrainingRepository extends JpaRepository<Training, UUID> {
-    List<Training> findByPlanId(UUID planId);
+    String LIST_FILTER = "WHERE t.plan.id = :planId AND t.companyId = :companyId " +
+            "AND (:status IS NULL OR t.status = :status) " +
+            "AND (:siteId IS NULL OR array_contains(t.siteIds, :siteId)) " +
+            "AND (:domainId IS NULL OR t.domainId = :domainId) " +
+            "AND (:csf IS NULL OR t.csf = :csf) " +
+            "AND (:search IS NULL OR LOWER(t.theme) LIKE LOWER(CONCAT('%', :search, '%'))) ";
+
+    String ACTIVE_GROUP = "g.status IN (org.example.trainingservice.enums.GroupeStatusEnums.PLANNED, " +
+            "org.example.trainingservice.enums.GroupeStatusEnums.IN_PROGRESS)";
 
-    @Query("SELECT t FROM Training t LEFT JOIN FETCH t.groupes g WHERE t.plan.id = :planId")
-    List<Training> findByPlanIdWithGroupes(@Param("planId") UUID planId);
+    List<Training> findByPlanId(UUID planId);
 
     Optional<Training> findByIdAndCompanyId(UUID id, Long companyId);
 
     // Méthode de repository optimisée à ajouter dans TrainingRepository
     @Query("SELECT t FROM Training t LEFT JOIN FETCH t.groupes WHERE t.id = :id")
     Optional<Training> findByIdWithGroupes(@Param("id") UUID id);
-}
\ No newline at end of file
+
+    /**
+     * Liste des formations d'un plan en projection, sans charger les entités ni leurs groupes.
+     * Compteurs par statut effectif des groupes (même règle que GroupeStatusEnums.resolve, évaluée à CURRENT_DATE) et budget agrégés en SQL.
+     * Le budget exclut les groupes annulés.
+     */
+    @Query(value = "SELECT new org.example.trainingservice.dto.plan.TrainingListItemDto(" +
+            "t.id, t.theme, t.creationDate, t.type, t.csf, t.domainName, t.status, COUNT(g), " +
+            "SUM(CASE WHEN g.status = org.example.trainingservice.enums.GroupeStatusEnums.DRAFT THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN " + ACTIVE_GROUP + " AND (g.firstSessionDate IS NULL OR g.lastSessionDate IS NULL " +
+            "    OR g.firstSessionDate > CURRENT_DATE) THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN " + ACTIVE_GROUP + " AND g.firstSessionDate <= CURRENT_DATE " +
+            "    AND g.lastSessionDate >= CURRENT_DATE THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN g.status = org.example.trainingservice.enums.GroupeStatusEnums.COMPLETED " +
+            "    OR (" + ACTIVE_GROUP + " AND g.lastSessionDate < CURRENT_DATE) THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN g.status = org.example.trainingservice.enums.GroupeStatusEnums.CANCELLED THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN g.status IS NULL OR g.status <> org.example.trainingservice.enums.GroupeStatusEnums.CANCELLED THEN g.price END)) " +
+            "FROM Training t LEFT JOIN t.groupes g " +
+            LIST_FILTER +
+            "GROUP BY t.id",
+            countQuery = "SELECT COUNT(t) FROM Training t " + LIST_FILTER)
+    Page<TrainingListItemDto> findListItems(@Param("planId") UUID planId,
+                                            @Param("companyId") Long companyId,
+                                            @Param("status") TrainingStatusEnum status,
+                                            @Param("siteId") Long siteId,
+                                            @Param("domainId") Long domainId,
+                                            @Param("csf") Boolean csf,
+                                            @Param("search") String search,
+                                            Pageable pageable);
+
+    @Query("SELECT t.id FROM Training t WHERE t.plan.id = :planId ORDER BY t.id")
+    List<UUID> findIdsByPlanId(@Param("planId") UUID planId);
+
+    /**
+     * Reconduction : copie ensembliste des formations sourceIds[i] sous les identifiants targetIds[i] dans le plan cible.
+     * Statut, date de souhait et complétude sont réinitialisés.
+     * Toutes les colonnes de Training sont listées (TrainingGroupeRepositoryTest vérifie la liste).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO formations (id, company_id, strategic_axe_id, strategic_axe_name, site_ids, site_names, " +
+            "    department_ids, department_names, domain_id, domain_name, qualification_id, qualification_name, theme, " +
+            "    number_of_day, type, number_of_group, objective, content, csf, csf_planifie, creation_date, source, status, " +
+            "    exercice, wish_date, requester_id, requester_name, approver_id, learning_mode, questionnaire, plan_id, " +
+            "    is_all_fields_filled) " +
+            "SELECT CAST(m.target_id AS uuid), f.company_id, f.strategic_axe_id, f.strategic_axe_name, f.site_ids, f.site_names, " +
+            "    f.department_ids, f.department_names, f.domain_id, f.domain_name, f.qualification_id, f.qualification_name, f.theme, " +
+            "    f.number_of_day, f.type, f.number_of_group, f.objective, f.content, f.csf, f.csf_planifie, " +
+            "    to_char(CURRENT_DATE, 'YYYY-MM-DD'), f.source, 'NOT_PLANNED', " +
+            "    :targetYear, NULL, f.requester_id, f.requester_name, f.approver_id, f.learning_mode, f.questionnaire, " +
+            "    CAST(:targetPlanId AS uuid), false " +
+            "FROM formations f " +
+            "JOIN unnest(CAST(:sourceIds AS text[]), CAST(:targetIds AS text[])) AS m(source_id, target_id) " +
+            "  ON f.id = CAST(m.source_id AS uuid)",
+            nativeQuery = true)
+    int copyTrainingsToPlan(@Param("sourceIds") String[] sourceIds,
+                            @Param("targetIds") String[] targetIds,
+                            @Param("targetPlanId") String targetPlanId,
+                            @Param("targetYear") Integer targetYear);
+
+    /**
+     * Suppression des formations d'un plan (annulation d'une reconduction échouée)
+     */
+    @Modifying
+    @Query("DELETE FROM Training t WHERE t.plan.id = :planId")
+    int deleteByPlanId(@Param("planId") UUID planId);
+}
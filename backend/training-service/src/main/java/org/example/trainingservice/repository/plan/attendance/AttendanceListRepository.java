@@ -22,6 +22,12 @@ public interface AttendanceListRepository extends JpaRepository<AttendanceList,
      */
     Optional<AttendanceList> findByQrCodeToken(@Param("qrCodeToken") String qrCodeToken);
 
+    /**
+     * Couple (id, date) de la liste courante d'un token QR, pour le pointage
+     */
+    @Query("SELECT al.id, al.attendanceDate FROM AttendanceList al WHERE al.qrCodeToken = :qrCodeToken")
+    List<Object[]> findIdAndAttendanceDateByQrCodeToken(@Param("qrCodeToken") String qrCodeToken);
+
     /**
      * Trouver une liste existante pour un groupe/date/type spécifique
      * (utilisé pour vérifier les doublons avant création)
@@ -39,6 +45,13 @@ public interface AttendanceListRepository extends JpaRepository<AttendanceList,
             @Param("groupId") Long groupId
     );
 
+    /**
+     * Récupérer les listes de présence d'un groupe par date croissante (export ZIP)
+     */
+    List<AttendanceList> findByTrainingGroupeIdOrderByAttendanceDateAsc(
+            @Param("groupId") Long groupId
+    );
+
     /**
      * Récupérer les listes de présence d'un groupe avec pagination
      */
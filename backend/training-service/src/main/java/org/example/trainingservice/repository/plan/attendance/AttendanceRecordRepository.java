@@ -25,6 +25,29 @@ public interface AttendanceRecordRepository extends JpaRepository<AttendanceReco
     Optional<AttendanceRecord> findByAttendanceList_IdAndUserId(UUID attendanceListId, Long userId);
 
 
+    /**
+     * Couples (userId, id) des enregistrements d'une liste, pour le pointage par QR code
+     */
+    @Query("SELECT ar.userId, ar.id FROM AttendanceRecord ar WHERE ar.attendanceList.id = :attendanceListId")
+    List<Object[]> findUserIdAndRecordIdByAttendanceListId(@Param("attendanceListId") UUID attendanceListId);
+
+    /**
+     * Identifiants encore présents parmi ceux fournis (contrôle des pointages écrits par lot)
+     */
+    @Query("SELECT ar.id FROM AttendanceRecord ar WHERE ar.id IN :recordIds")
+    List<UUID> findIdsByIdIn(@Param("recordIds") List<UUID> recordIds);
+
+    /**
+     * Enregistrement courant d'un participant pour un token QR, après régénération éventuelle de la liste
+     */
+    @Query("SELECT ar.id FROM AttendanceRecord ar " +
+            "WHERE ar.attendanceList.qrCodeToken = :qrCodeToken " +
+            "AND ar.userId = :userId")
+    Optional<UUID> findIdByQrCodeTokenAndUserId(
+            @Param("qrCodeToken") String qrCodeToken,
+            @Param("userId") Long userId
+    );
+
     /**
      * Récupérer tous les enregistrements d'une liste de présence
      */
@@ -1,9 +1,13 @@
 package org.example.trainingservice.repository.plan.evaluation;
 
 import org.example.trainingservice.entity.plan.evaluation.GroupeEvaluation;
+import org.example.trainingservice.enums.GroupeEvaluationStatusEnums;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -11,4 +15,50 @@ import java.util.UUID;
 public interface GroupeEvaluationRepo extends JpaRepository<GroupeEvaluation, UUID> {
     List<GroupeEvaluation> findAllByTrainingIdAndGroupeId(UUID trainingId, Long groupeId);
 
-}
\ No newline at end of file
+    /**
+     * Trouve les évaluations de groupe d'une entreprise auxquelles participe un utilisateur.
+     * Passe par l'index de la table groupe_evaluation_participant_ids au lieu de charger toutes les évaluations.
+     */
+    @Query("SELECT DISTINCT ge FROM GroupeEvaluation ge JOIN ge.participantIds pid " +
+            "WHERE ge.companyId = :companyId AND ge.status = :status AND pid = :participantId")
+    List<GroupeEvaluation> findByCompanyIdAndStatusAndParticipantId(@Param("companyId") Long companyId,
+                                                                   @Param("status") GroupeEvaluationStatusEnums status,
+                                                                   @Param("participantId") Long participantId);
+
+    /**
+     * Trouve les évaluations de groupe d'une entreprise auxquelles participe au moins un des utilisateurs (équipe).
+     */
+    @Query("SELECT DISTINCT ge FROM GroupeEvaluation ge JOIN ge.participantIds pid " +
+            "WHERE ge.companyId = :companyId AND ge.status = :status AND pid IN :participantIds")
+    List<GroupeEvaluation> findByCompanyIdAndStatusAndAnyParticipantIdIn(@Param("companyId") Long companyId,
+                                                                        @Param("status") GroupeEvaluationStatusEnums status,
+                                                                        @Param("participantIds") Collection<Long> participantIds);
+
+    /**
+     * Trouve les évaluations de groupe d'une entreprise pour un questionnaire auxquelles participe au moins un des utilisateurs.
+     */
+    @Query("SELECT DISTINCT ge FROM GroupeEvaluation ge JOIN ge.participantIds pid " +
+            "WHERE ge.companyId = :companyId AND ge.questionnaire.id = :questionnaireId AND pid IN :participantIds")
+    List<GroupeEvaluation> findByCompanyIdAndQuestionnaireIdAndAnyParticipantIdIn(@Param("companyId") Long companyId,
+                                                                                 @Param("questionnaireId") UUID questionnaireId,
+                                                                                 @Param("participantIds") Collection<Long> participantIds);
+
+    /**
+     * Retourne les couples [groupeEvaluationId, participantId] restreints aux utilisateurs donnés,
+     * pour éviter de charger la collection participantIds de chaque évaluation.
+     */
+    @Query("SELECT ge.id, pid FROM GroupeEvaluation ge JOIN ge.participantIds pid " +
+            "WHERE ge.id IN :groupeEvaluationIds AND pid IN :participantIds")
+    List<Object[]> findParticipantPairsByIdInAndParticipantIdIn(@Param("groupeEvaluationIds") Collection<UUID> groupeEvaluationIds,
+                                                                @Param("participantIds") Collection<Long> participantIds);
+
+    /**
+     * En-tête du formulaire F4, mis en cache par évaluation (EvaluationFormCacheService) : [status, label, type, questionnaireId,
+     * nom du groupe, thème de la formation, lieu, ville].
+     */
+    @Query("SELECT ge.status, ge.label, ge.type, q.id, g.name, t.theme, g.location, g.city " +
+            "FROM GroupeEvaluation ge LEFT JOIN ge.questionnaire q " +
+            "LEFT JOIN TrainingGroupe g ON g.id = ge.groupeId LEFT JOIN g.training t " +
+            "WHERE ge.id = :groupeEvaluationId")
+    List<Object[]> findFormHeaderById(@Param("groupeEvaluationId") UUID groupeEvaluationId);
+}
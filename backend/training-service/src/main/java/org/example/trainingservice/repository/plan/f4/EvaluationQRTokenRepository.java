@@ -2,6 +2,7 @@ package org.example.trainingservice.repository.plan.f4;
 
 import org.example.trainingservice.entity.plan.f4.EvaluationQRToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -19,6 +20,15 @@ public interface EvaluationQRTokenRepository extends JpaRepository<EvaluationQRT
      */
     Optional<EvaluationQRToken> findByToken(@Param("token") String token);
 
+    /**
+     * Réclamer un token à usage unique : ne met à jour la ligne que s'il n'est ni utilisé ni expiré.
+     * Retourne 1 pour la soumission gagnante, 0 sinon (déjà utilisé, expiré ou réclamé en parallèle).
+     */
+    @Modifying
+    @Query("UPDATE EvaluationQRToken t SET t.isUsed = true, t.usedDate = :now " +
+            "WHERE t.token = :token AND t.isUsed = false AND t.expiryDate > :now")
+    int claimToken(@Param("token") String token, @Param("now") LocalDateTime now);
+
     /**
      * Trouver un token par participant et évaluation de groupe
      */
@@ -65,7 +75,9 @@ public interface EvaluationQRTokenRepository extends JpaRepository<EvaluationQRT
     List<EvaluationQRToken> findExpiredTokens(@Param("now") LocalDateTime now);
 
     /**
-     * Supprimer les tokens d'une évaluation de groupe
+     * Supprimer les tokens d'une évaluation de groupe (un seul DELETE, sans charger les entités)
      */
-    void deleteByGroupeEvaluationId(@Param("groupeEvaluationId") UUID groupeEvaluationId);
+    @Modifying
+    @Query("DELETE FROM EvaluationQRToken t WHERE t.groupeEvaluationId = :groupeEvaluationId")
+    int deleteByGroupeEvaluationId(@Param("groupeEvaluationId") UUID groupeEvaluationId);
 }
\ No newline at end of file
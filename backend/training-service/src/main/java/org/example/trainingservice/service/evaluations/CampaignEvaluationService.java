@@ -12,6 +12,8 @@ public interface CampaignEvaluationService {
 
     ResponseEntity<?> getAllCampaignEvaluation();
 
+    ResponseEntity<?> getAllCampaignEvaluationPaginated(int page, int size, String sortBy, String sortDirection, String search);
+
     ResponseEntity<?> getCampaignEvaluationEditDetails(UUID id);
 
     ResponseEntity<?> updateCampaignEvaluation(UUID id, UpdateCampaignEvaluationDto updateCampaignEvaluationDto);
@@ -1,20 +1,29 @@
 package org.example.trainingservice.service.evaluations;
 
 import lombok.extern.slf4j.Slf4j;
+import org.example.trainingservice.cacheService.EvaluationSyntheseCacheService;
 import org.example.trainingservice.client.company.CompanyServiceClient;
 import org.example.trainingservice.client.users.AuthServiceClient;
 import org.example.trainingservice.dto.evaluation.*;
-import org.example.trainingservice.dto.need.DepartmentDto;
-import org.example.trainingservice.dto.need.SiteDto;
+import org.example.trainingservice.dto.plan.PlanPagedResponse;
 import org.example.trainingservice.entity.campaign.CampaignEvaluation;
 import org.example.trainingservice.entity.campaign.Questionnaire;
 import org.example.trainingservice.entity.campaign.UserResponse;
 import org.example.trainingservice.repository.evaluation.CampaignEvaluationRepository;
+import org.example.trainingservice.repository.evaluation.QuestionRepository;
 import org.example.trainingservice.repository.evaluation.QuestionnaireRepository;
 import org.example.trainingservice.repository.evaluation.UserResponseRepository;
 import org.example.trainingservice.utils.EvaluationUtilMethods;
+import org.example.trainingservice.utils.SecurityUtils;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.*;
@@ -22,23 +31,34 @@ import java.util.*;
 @Service
 @Slf4j
 public class CampaignEvaluationServiceImpl implements CampaignEvaluationService {
+    private static final Set<String> LIST_SORT_FIELDS = Set.of("title", "creationDate", "modificationDate", "status");
+
     private final CampaignEvaluationRepository campaignEvaluationRepository;
     private final QuestionnaireRepository questionnaireRepository;
+    private final QuestionRepository questionRepository;
     private final CompanyServiceClient companyServiceClient;
     private final UserResponseRepository userResponseRepository;
     private final AuthServiceClient authServiceClient;
+    private final EvaluationProgressService evaluationProgressService;
+    private final EvaluationSyntheseCacheService evaluationSyntheseCacheService;
 
     public CampaignEvaluationServiceImpl(
             CampaignEvaluationRepository campaignEvaluationRepository,
             QuestionnaireRepository questionnaireRepository,
+            QuestionRepository questionRepository,
             CompanyServiceClient companyServiceClient,
             UserResponseRepository userResponseRepository,
-            AuthServiceClient authServiceClient) {
+            AuthServiceClient authServiceClient,
+            EvaluationProgressService evaluationProgressService,
+            EvaluationSyntheseCacheService evaluationSyntheseCacheService) {
         this.campaignEvaluationRepository = campaignEvaluationRepository;
         this.questionnaireRepository = questionnaireRepository;
+        this.questionRepository = questionRepository;
         this.companyServiceClient = companyServiceClient;
         this.userResponseRepository = userResponseRepository;
         this.authServiceClient = authServiceClient;
+        this.evaluationProgressService = evaluationProgressService;
+        this.evaluationSyntheseCacheService = evaluationSyntheseCacheService;
     }
 
     @Override
@@ -51,6 +71,7 @@ public class CampaignEvaluationServiceImpl implements CampaignEvaluationService
                 .departmentIds(dto.getDepartmentIds())
                 .participantIds(dto.getParticipantIds())
                 .questionnaires(questionnaires)
+                .companyId(SecurityUtils.getCurrentCompanyId())
                 .creationDate(LocalDate.now())
                 .instructions(dto.getInstructions())
                 .status("Brouillon")
@@ -62,106 +83,169 @@ public class CampaignEvaluationServiceImpl implements CampaignEvaluationService
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ResponseEntity<?> getAllCampaignEvaluation() {
-        log.info("Fetching all campaign evaluations.");
-        Set<GetAllCampaignEvaluationDto> getAllCampaignEvaluationDtos = new HashSet<>();
-
-        campaignEvaluationRepository.findAll().forEach(campaignEvaluation -> {
-            List<String> siteNames = companyServiceClient.getSitesByIds(campaignEvaluation.getSiteIds()).stream().map(SiteDto::getLabel).toList();
-            List<String> departmentNames = companyServiceClient.getDepartmentsByIds(campaignEvaluation.getDepartmentIds()).stream().map(DepartmentDto::getName).toList();
-            List<String> questionnaireNames = campaignEvaluation.getQuestionnaires().stream().map(Questionnaire::getTitle).toList();
-
-            /*******************/
-            // Mappage initial vers le DTO
-            // 1. Récupérer les IDs des participants
-            List<Long> participantIds = campaignEvaluation.getParticipantIds();
-            int numParticipants = (participantIds != null) ? participantIds.size() : 0;
-
-            // 2. Calculer le nombre total de questions uniques et récupérer les IDs des questionnaires
-            List<Questionnaire> questionnaires = campaignEvaluation.getQuestionnaires();
-            int totalUniqueQuestionsInCampaign = 0;
-            List<UUID> questionnaireIdsForCampaign = new ArrayList<>();
-
-            if (questionnaires != null) {
-                for (Questionnaire questionnaire : questionnaires) {
-                    if (questionnaire != null) {
-                        questionnaireIdsForCampaign.add(questionnaire.getId());
-                        // Assurez-vous que questionnaire.getQuestions() retourne la liste des questions de l'entité Questionnaire
-                        if (questionnaire.getQuestions() != null) {
-                            totalUniqueQuestionsInCampaign += questionnaire.getQuestions().size();
-                        }
-                    }
-                }
+        Long companyId = SecurityUtils.getCurrentCompanyId();
+        log.info("Fetching all campaign evaluations for company {}.", companyId);
+
+        List<GetAllCampaignEvaluationDto> getAllCampaignEvaluationDtos =
+                mapToAllCampaignEvaluationDtos(campaignEvaluationRepository.findAllByCompanyId(companyId));
+
+        log.info("Returning {} campaign evaluations.", getAllCampaignEvaluationDtos.size());
+        return ResponseEntity.ok().body(getAllCampaignEvaluationDtos);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResponseEntity<?> getAllCampaignEvaluationPaginated(int page, int size, String sortBy, String sortDirection, String search) {
+        try {
+            Long companyId = SecurityUtils.getCurrentCompanyId();
+            if (companyId == null) {
+                log.warn("Tentative d'accès aux campagnes sans ID d'entreprise valide");
+                return ResponseEntity.badRequest().build();
             }
 
-            int progress = 0;
-
-            // Si aucun participant ou aucune question, la progression est de 0.
-            if (numParticipants == 0 || totalUniqueQuestionsInCampaign == 0) {
-                progress = 0;
-            } else {
-                // 3. Calculer le nombre total de réponses attendues
-                long totalExpectedQuestionInstancesToAnswer = (long) numParticipants * totalUniqueQuestionsInCampaign;
-
-                int numberOfValidResponses = 0;
-
-                // S'assurer qu'il y a des participants et des IDs de questionnaire avant de requêter
-                if (!questionnaireIdsForCampaign.isEmpty()) {
-                    // 4. Récupérer les réponses des utilisateurs pour cette campagne
-                    List<UserResponse> relevantUserResponses = userResponseRepository.findByQuestionnaireIdInAndUserIdIn(questionnaireIdsForCampaign, participantIds);
-
-                    if (relevantUserResponses != null) {
-                        // 5. Compter les réponses complétées
-                        for (UserResponse userResponse : relevantUserResponses) {
-                            switch (userResponse.getResponseType()) {
-                                case "Score":
-                                    if (userResponse.getScoreResponse() != null) numberOfValidResponses++;
-                                    break;
-                                case "Notation":
-                                    if (userResponse.getRatingResponse() != null) numberOfValidResponses++;
-                                    break;
-                                case "Texte":
-                                    if (userResponse.getTextResponse() != null) numberOfValidResponses++;
-                                    break;
-                                case "Commentaire":
-                                    if (userResponse.getCommentResponse() != null) numberOfValidResponses++;
-                                    break;
-                                case "Réponse multiple":
-                                    if (userResponse.getMultipleChoiceResponse() != null && !userResponse.getMultipleChoiceResponse().isEmpty())
-                                        numberOfValidResponses++;
-                                    break;
-                                case "Réponse unique":
-                                    if (userResponse.getSingleChoiceResponse() != null) numberOfValidResponses++;
-                                    break;
-                                case "Evaluation":
-                                    if (userResponse.getSingleLevelChoiceResponse() != null) numberOfValidResponses++;
-                                    break;
-                                default:
-                                    // Pas de log ici pour ne pas surcharger, sauf si c'est un type vraiment inattendu
-                                    break;
-                            }
-                        }
-                    }
-                }
+            Sort.Direction direction = "DESC".equalsIgnoreCase(sortDirection)
+                    ? Sort.Direction.DESC
+                    : Sort.Direction.ASC;
+            // Tri limité aux champs connus : une propriété inconnue ferait échouer la requête
+            String sortField = LIST_SORT_FIELDS.contains(sortBy) ? sortBy : "creationDate";
+            Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortField).and(Sort.by("id")));
+
+            Page<CampaignEvaluation> campaignPage = search != null && !search.trim().isEmpty()
+                    ? campaignEvaluationRepository.findAllByCompanyIdAndTitleContainingIgnoreCase(companyId, search, pageable)
+                    : campaignEvaluationRepository.findAllByCompanyId(companyId, pageable);
+
+            PlanPagedResponse<GetAllCampaignEvaluationDto> response = new PlanPagedResponse<>(
+                    mapToAllCampaignEvaluationDtos(campaignPage.getContent()),
+                    campaignPage.getNumber(),
+                    campaignPage.getSize(),
+                    campaignPage.getTotalElements(),
+                    campaignPage.getTotalPages(),
+                    campaignPage.isLast(),
+                    campaignPage.isFirst()
+            );
+
+            log.debug("Récupération réussie de {} campagne(s) sur {} pour l'entreprise {}",
+                    response.getContent().size(), campaignPage.getTotalElements(), companyId);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Erreur lors de la récupération des campagnes pour l'entreprise: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
 
-                // 6. Calculer le pourcentage de progression
-                if (totalExpectedQuestionInstancesToAnswer > 0) {
-                    progress = (int) ((numberOfValidResponses * 100L) / totalExpectedQuestionInstancesToAnswer);
-                }
+    /**
+     * Convertit une liste (ou une page) de campagnes en DTOs.
+     * Sites et départements sont résolus en un seul appel chacun pour toute la liste,
+     * et la progression provient d'une seule requête groupée sur evaluation_progress.
+     */
+    private List<GetAllCampaignEvaluationDto> mapToAllCampaignEvaluationDtos(List<CampaignEvaluation> campaignEvaluations) {
+        if (campaignEvaluations.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // 1. Collecter tous les identifiants référencés par la liste
+        Set<Long> allSiteIds = new HashSet<>();
+        Set<Long> allDepartmentIds = new HashSet<>();
+        Set<UUID> allQuestionnaireIds = new HashSet<>();
+        Set<Long> allParticipantIds = new HashSet<>();
+        for (CampaignEvaluation campaignEvaluation : campaignEvaluations) {
+            if (campaignEvaluation.getSiteIds() != null) allSiteIds.addAll(campaignEvaluation.getSiteIds());
+            if (campaignEvaluation.getDepartmentIds() != null) allDepartmentIds.addAll(campaignEvaluation.getDepartmentIds());
+            if (campaignEvaluation.getParticipantIds() != null) allParticipantIds.addAll(campaignEvaluation.getParticipantIds());
+            if (campaignEvaluation.getQuestionnaires() != null) {
+                campaignEvaluation.getQuestionnaires().stream()
+                        .filter(Objects::nonNull)
+                        .forEach(questionnaire -> allQuestionnaireIds.add(questionnaire.getId()));
+            }
+        }
+
+        // 2. Résolution groupée des libellés
+        Map<Long, String> siteLabels = new HashMap<>();
+        if (!allSiteIds.isEmpty()) {
+            companyServiceClient.getSitesByIds(new ArrayList<>(allSiteIds))
+                    .forEach(site -> siteLabels.put(site.getId(), site.getLabel()));
+        }
+        Map<Long, String> departmentNames = new HashMap<>();
+        if (!allDepartmentIds.isEmpty()) {
+            companyServiceClient.getDepartmentsByIds(new ArrayList<>(allDepartmentIds))
+                    .forEach(department -> departmentNames.put(department.getId(), department.getName()));
+        }
+
+        // 3. Réponses valides par questionnaire et par participant, et nombre de questions, en une requête chacun
+        Map<UUID, Map<Long, Long>> answeredCounts =
+                evaluationProgressService.getAnsweredCounts(allQuestionnaireIds, allParticipantIds);
+        Map<UUID, Long> questionCounts = new HashMap<>();
+        if (!allQuestionnaireIds.isEmpty()) {
+            for (Object[] row : questionRepository.countGroupByQuestionnaireId(allQuestionnaireIds)) {
+                questionCounts.put((UUID) row[0], (Long) row[1]);
             }
-            /*******************/
+        }
 
+        List<GetAllCampaignEvaluationDto> dtos = new ArrayList<>(campaignEvaluations.size());
+        for (CampaignEvaluation campaignEvaluation : campaignEvaluations) {
+            List<String> siteNames = resolveNames(campaignEvaluation.getSiteIds(), siteLabels);
+            List<String> departmentNameList = resolveNames(campaignEvaluation.getDepartmentIds(), departmentNames);
+            List<Questionnaire> questionnaires = campaignEvaluation.getQuestionnaires() != null
+                    ? campaignEvaluation.getQuestionnaires().stream().filter(Objects::nonNull).toList()
+                    : List.of();
+            List<String> questionnaireNames = questionnaires.stream().map(Questionnaire::getTitle).toList();
 
             GetAllCampaignEvaluationDto getAllCampaignEvaluationDto = EvaluationUtilMethods.mapToAllCampaignEvaluationDto(campaignEvaluation);
             getAllCampaignEvaluationDto.setSite(!siteNames.isEmpty() ? String.join(",", siteNames) : null);
-            getAllCampaignEvaluationDto.setDepartment(!departmentNames.isEmpty() ? String.join(",", departmentNames) : null);
+            getAllCampaignEvaluationDto.setDepartment(!departmentNameList.isEmpty() ? String.join(",", departmentNameList) : null);
             getAllCampaignEvaluationDto.setQuestionnaire(!questionnaireNames.isEmpty() ? String.join(",", questionnaireNames) : null);
-            getAllCampaignEvaluationDto.setProgress(progress);
-            getAllCampaignEvaluationDtos.add(getAllCampaignEvaluationDto);
-        });
+            getAllCampaignEvaluationDto.setProgress(calculateCampaignProgress(campaignEvaluation.getParticipantIds(), questionnaires, questionCounts, answeredCounts));
+            dtos.add(getAllCampaignEvaluationDto);
+        }
+        return dtos;
+    }
 
-        log.info("Returning {} campaign evaluations.", getAllCampaignEvaluationDtos.size());
-        return ResponseEntity.ok().body(getAllCampaignEvaluationDtos);
+    private List<String> resolveNames(List<Long> ids, Map<Long, String> namesById) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return ids.stream().map(namesById::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Progression = réponses valides / (participants x questions de la campagne).
+     */
+    private int calculateCampaignProgress(List<Long> participantIds, List<Questionnaire> questionnaires,
+                                          Map<UUID, Long> questionCounts, Map<UUID, Map<Long, Long>> answeredCounts) {
+        int numParticipants = participantIds != null ? participantIds.size() : 0;
+        long totalUniqueQuestionsInCampaign = questionnaires.stream()
+                .mapToLong(questionnaire -> questionCounts.getOrDefault(questionnaire.getId(), 0L))
+                .sum();
+
+        // Si aucun participant ou aucune question, la progression est de 0.
+        if (numParticipants == 0 || totalUniqueQuestionsInCampaign == 0) {
+            return 0;
+        }
+
+        long numberOfValidResponses = 0;
+        for (Questionnaire questionnaire : questionnaires) {
+            Map<Long, Long> countsByUser = answeredCounts.getOrDefault(questionnaire.getId(), Map.of());
+            for (Long participantId : participantIds) {
+                numberOfValidResponses += countsByUser.getOrDefault(participantId, 0L);
+            }
+        }
+
+        long totalExpectedQuestionInstancesToAnswer = numParticipants * totalUniqueQuestionsInCampaign;
+        return (int) ((numberOfValidResponses * 100L) / totalExpectedQuestionInstancesToAnswer);
+    }
+
+    /**
+     * Reprise des données : les campagnes créées sans companyId héritent de celui de leurs questionnaires.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillMissingCompanyIds() {
+        int updated = campaignEvaluationRepository.backfillCompanyIdFromQuestionnaires();
+        if (updated > 0) {
+            log.info("Backfilled companyId for {} campaign evaluations.", updated);
+        }
     }
 
     @Override
@@ -286,6 +370,8 @@ public class CampaignEvaluationServiceImpl implements CampaignEvaluationService
     public ResponseEntity<?> deleteUserResponse(Long participantId, UUID questionnaireId) {
         List<UserResponse> byUserIdAndQuestionnaireId = userResponseRepository.findByUserIdAndQuestionnaireId(participantId, questionnaireId);
         userResponseRepository.deleteAll(byUserIdAndQuestionnaireId);
+        evaluationSyntheseCacheService.evictAll(byUserIdAndQuestionnaireId.stream().map(UserResponse::getGroupeEvaluationId).toList());
+        evaluationProgressService.delete(participantId, questionnaireId);
         return ResponseEntity.ok().build();
     }
 }
\ No newline at end of file
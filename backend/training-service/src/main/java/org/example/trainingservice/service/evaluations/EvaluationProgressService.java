@@ -0,0 +1,23 @@
+package org.example.trainingservice.service.evaluations;
+
+import org.example.trainingservice.dto.evaluation.QuestionnaireDefinition;
+import org.example.trainingservice.entity.campaign.EvaluationProgress;
+import org.example.trainingservice.entity.campaign.UserResponse;
+import org.example.trainingservice.enums.EvaluationSource;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public interface EvaluationProgressService {
+    void refresh(Long userId, QuestionnaireDefinition questionnaire, List<UserResponse> userResponses);
+
+    EvaluationProgress getProgress(Long userId, QuestionnaireDefinition questionnaire, EvaluationSource source, UUID evaluationId);
+
+    void delete(Long userId, UUID questionnaireId);
+
+    void deleteByEvaluationId(UUID evaluationId);
+
+    Map<UUID, Map<Long, Long>> getAnsweredCounts(Collection<UUID> questionnaireIds, Collection<Long> userIds);
+}
@@ -0,0 +1,201 @@
+package org.example.trainingservice.service.evaluations;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.trainingservice.cacheService.QuestionnaireDefinitionCacheService;
+import org.example.trainingservice.dto.evaluation.QuestionnaireDefinition;
+import org.example.trainingservice.entity.DataMigration;
+import org.example.trainingservice.entity.campaign.EvaluationProgress;
+import org.example.trainingservice.entity.campaign.UserResponse;
+import org.example.trainingservice.enums.EvaluationSource;
+import org.example.trainingservice.helper.plan.evaluation.TeamProgressAggregator;
+import org.example.trainingservice.repository.DataMigrationRepository;
+import org.example.trainingservice.repository.evaluation.EvaluationProgressRepository;
+import org.example.trainingservice.repository.evaluation.UserResponseRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class EvaluationProgressServiceImpl implements EvaluationProgressService {
+    private static final String BACKFILL_MIGRATION = "evaluation_progress_backfill";
+
+    private final EvaluationProgressRepository evaluationProgressRepository;
+    private final DataMigrationRepository dataMigrationRepository;
+    private final UserResponseRepository userResponseRepository;
+    private final QuestionnaireDefinitionCacheService questionnaireDefinitionCacheService;
+
+    public EvaluationProgressServiceImpl(EvaluationProgressRepository evaluationProgressRepository, DataMigrationRepository dataMigrationRepository, UserResponseRepository userResponseRepository, QuestionnaireDefinitionCacheService questionnaireDefinitionCacheService) {
+        this.evaluationProgressRepository = evaluationProgressRepository;
+        this.dataMigrationRepository = dataMigrationRepository;
+        this.userResponseRepository = userResponseRepository;
+        this.questionnaireDefinitionCacheService = questionnaireDefinitionCacheService;
+    }
+
+    /**
+     * Recalcule la progression d'un utilisateur sur un questionnaire, pour chaque (source, évaluation)
+     * présente dans les réponses. Les réponses fournies doivent être TOUTES les réponses de l'utilisateur pour ce questionnaire.
+     */
+    @Override
+    @Transactional
+    public void refresh(Long userId, QuestionnaireDefinition questionnaire, List<UserResponse> userResponses) {
+        if (userId == null || questionnaire == null || userResponses == null || userResponses.isEmpty()) {
+            return;
+        }
+
+        Map<EvaluationSource, Map<UUID, List<UserResponse>>> responsesByEvaluation = userResponses.stream()
+                .filter(response -> response.getEvaluationSource() != null)
+                .collect(Collectors.groupingBy(UserResponse::getEvaluationSource,
+                        Collectors.groupingBy(EvaluationProgressServiceImpl::evaluationIdOf)));
+
+        responsesByEvaluation.forEach((source, responsesById) -> responsesById.forEach((evaluationId, responses) -> {
+            EvaluationProgress progress = newProgress(userId, questionnaire.getId(), source, evaluationId);
+            applyResponses(progress, questionnaire, responses);
+            evaluationProgressRepository.upsert(progress);
+        }));
+    }
+
+    /**
+     * Retourne la progression enregistrée. Si elle n'existe pas encore (réponses antérieures à la table),
+     * elle est calculée une fois à partir des réponses puis enregistrée.
+     */
+    @Override
+    @Transactional
+    public EvaluationProgress getProgress(Long userId, QuestionnaireDefinition questionnaire, EvaluationSource source, UUID evaluationId) {
+        int totalQuestions = questionnaire.getQuestionCount();
+        UUID key = evaluationId != null ? evaluationId : EvaluationProgress.NO_EVALUATION;
+
+        Optional<EvaluationProgress> existing = evaluationProgressRepository
+                .findByUserIdAndQuestionnaireIdAndEvaluationSourceAndEvaluationId(userId, questionnaire.getId(), source, key);
+        if (existing.isPresent()) {
+            EvaluationProgress progress = existing.get();
+            // Le questionnaire a été modifié depuis le dernier calcul
+            if (progress.getTotalQuestions() != totalQuestions) {
+                progress.setTotalQuestions(totalQuestions);
+                updateProgressAndStatus(progress);
+            }
+            return progress;
+        }
+
+        List<UserResponse> responses = userResponseRepository
+                .findByUserIdAndQuestionnaireIdAndEvaluationSource(userId, questionnaire.getId(), source).stream()
+                .filter(response -> key.equals(evaluationIdOf(response)))
+                .toList();
+        EvaluationProgress progress = newProgress(userId, questionnaire.getId(), source, key);
+        applyResponses(progress, questionnaire, responses);
+        if (!responses.isEmpty()) {
+            evaluationProgressRepository.upsert(progress);
+        }
+        return progress;
+    }
+
+    @Override
+    @Transactional
+    public void delete(Long userId, UUID questionnaireId) {
+        evaluationProgressRepository.deleteByUserIdAndQuestionnaireId(userId, questionnaireId);
+    }
+
+    @Override
+    @Transactional
+    public void deleteByEvaluationId(UUID evaluationId) {
+        evaluationProgressRepository.deleteByEvaluationId(evaluationId);
+    }
+
+    @Override
+    public Map<UUID, Map<Long, Long>> getAnsweredCounts(Collection<UUID> questionnaireIds, Collection<Long> userIds) {
+        if (questionnaireIds == null || questionnaireIds.isEmpty() || userIds == null || userIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<UUID, Map<Long, Long>> answeredCounts = new HashMap<>();
+        for (Object[] row : evaluationProgressRepository.sumAnsweredCountGroupByQuestionnaireAndUser(questionnaireIds, userIds)) {
+            answeredCounts.computeIfAbsent((UUID) row[0], questionnaireId -> new HashMap<>())
+                    .put((Long) row[1], ((Number) row[2]).longValue());
+        }
+        return answeredCounts;
+    }
+
+    /**
+     * Reprise des données : crée les lignes de progression des réponses antérieures à la table.
+     * Exécutée une seule fois, la fin de la reprise est enregistrée dans data_migration.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillMissingProgress() {
+        if (dataMigrationRepository.existsById(BACKFILL_MIGRATION)) {
+            return;
+        }
+        List<Object[]> missingPairs = evaluationProgressRepository.findUserQuestionnairePairsWithoutProgress(EvaluationProgress.NO_EVALUATION);
+        if (!missingPairs.isEmpty()) {
+            log.info("Backfilling evaluation progress for {} user/questionnaire pairs.", missingPairs.size());
+        }
+
+        for (Object[] pair : missingPairs) {
+            Long userId = (Long) pair[0];
+            UUID questionnaireId = (UUID) pair[1];
+            questionnaireDefinitionCacheService.get(questionnaireId)
+                    .ifPresent(questionnaire -> refresh(userId, questionnaire,
+                            userResponseRepository.findByUserIdAndQuestionnaireId(userId, questionnaireId)));
+        }
+        dataMigrationRepository.save(DataMigration.builder()
+                .name(BACKFILL_MIGRATION)
+                .completedAt(LocalDateTime.now())
+                .build());
+    }
+
+    private static UUID evaluationIdOf(UserResponse response) {
+        if (response.getCampaignEvaluationId() != null) {
+            return response.getCampaignEvaluationId();
+        }
+        return response.getGroupeEvaluationId() != null ? response.getGroupeEvaluationId() : EvaluationProgress.NO_EVALUATION;
+    }
+
+    private static EvaluationProgress newProgress(Long userId, UUID questionnaireId, EvaluationSource source, UUID evaluationId) {
+        return EvaluationProgress.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .questionnaireId(questionnaireId)
+                .evaluationSource(source)
+                .evaluationId(evaluationId)
+                .build();
+    }
+
+    private void applyResponses(EvaluationProgress progress, QuestionnaireDefinition questionnaire, List<UserResponse> responses) {
+        int answeredCount = 0;
+        boolean allSentToManager = !responses.isEmpty();
+        boolean allSentToAdmin = !responses.isEmpty();
+        LocalDate startDate = null;
+
+        for (UserResponse response : responses) {
+            if (questionnaire.getId().equals(response.getQuestionnaireId()) && TeamProgressAggregator.isAnswered(response)) {
+                answeredCount++;
+            }
+            allSentToManager &= Boolean.TRUE.equals(response.getIsSentToManager());
+            allSentToAdmin &= Boolean.TRUE.equals(response.getIsSentToAdmin());
+            if (startDate == null) {
+                startDate = response.getStartDate();
+            }
+        }
+
+        progress.setCompanyId(!responses.isEmpty() ? responses.get(0).getCompanyId() : progress.getCompanyId());
+        progress.setAnsweredCount(answeredCount);
+        progress.setTotalQuestions(questionnaire.getQuestionCount());
+        progress.setIsSentToManager(allSentToManager);
+        progress.setIsSentToAdmin(allSentToAdmin);
+        progress.setStartDate(startDate);
+        progress.setLastModifiedDate(LocalDate.now());
+        updateProgressAndStatus(progress);
+    }
+
+    private void updateProgressAndStatus(EvaluationProgress progress) {
+        int value = progress.getTotalQuestions() > 0
+                ? (progress.getAnsweredCount() * 100) / progress.getTotalQuestions() : 0;
+        progress.setProgress(value);
+        progress.setStatus(TeamProgressAggregator.statusOf(value));
+    }
+}
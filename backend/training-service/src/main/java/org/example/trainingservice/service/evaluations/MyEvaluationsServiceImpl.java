@@ -1,11 +1,13 @@
 package org.example.trainingservice.service.evaluations;
 
 import lombok.extern.slf4j.Slf4j;
+import org.example.trainingservice.cacheService.EvaluationSyntheseCacheService;
+import org.example.trainingservice.cacheService.QuestionnaireDefinitionCacheService;
 import org.example.trainingservice.client.users.AuthServiceClient;
 import org.example.trainingservice.dto.evaluation.*;
 import org.example.trainingservice.entity.Need;
 import org.example.trainingservice.entity.campaign.CampaignEvaluation;
-import org.example.trainingservice.entity.campaign.Question;
+import org.example.trainingservice.entity.campaign.EvaluationProgress;
 import org.example.trainingservice.entity.campaign.Questionnaire;
 import org.example.trainingservice.entity.campaign.UserResponse;
 import org.example.trainingservice.entity.plan.evaluation.GroupeEvaluation;
@@ -26,14 +28,16 @@ import org.jetbrains.annotations.NotNull;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -45,8 +49,11 @@ public class MyEvaluationsServiceImpl implements MyEvaluationsService {
     private final AuthServiceClient authServiceClient;
     private final NeedRepository needRepository;
     private final GroupeEvaluationRepo groupeEvaluationRepo;
+    private final EvaluationProgressService evaluationProgressService;
+    private final QuestionnaireDefinitionCacheService questionnaireDefinitionCacheService;
+    private final EvaluationSyntheseCacheService evaluationSyntheseCacheService;
 
-    public MyEvaluationsServiceImpl(QuestionnaireRepository questionnaireRepository, CampaignEvaluationRepository campaignEvaluationRepository, UserResponseRepository userResponseRepository, QuestionRepository questionRepository, AuthServiceClient authServiceClient, NeedRepository needRepository, GroupeEvaluationRepo groupeEvaluationRepo) {
+    public MyEvaluationsServiceImpl(QuestionnaireRepository questionnaireRepository, CampaignEvaluationRepository campaignEvaluationRepository, UserResponseRepository userResponseRepository, QuestionRepository questionRepository, AuthServiceClient authServiceClient, NeedRepository needRepository, GroupeEvaluationRepo groupeEvaluationRepo, EvaluationProgressService evaluationProgressService, QuestionnaireDefinitionCacheService questionnaireDefinitionCacheService, EvaluationSyntheseCacheService evaluationSyntheseCacheService) {
         this.questionnaireRepository = questionnaireRepository;
         this.campaignEvaluationRepository = campaignEvaluationRepository;
         this.userResponseRepository = userResponseRepository;
@@ -54,6 +61,9 @@ public class MyEvaluationsServiceImpl implements MyEvaluationsService {
         this.authServiceClient = authServiceClient;
         this.needRepository = needRepository;
         this.groupeEvaluationRepo = groupeEvaluationRepo;
+        this.evaluationProgressService = evaluationProgressService;
+        this.questionnaireDefinitionCacheService = questionnaireDefinitionCacheService;
+        this.evaluationSyntheseCacheService = evaluationSyntheseCacheService;
     }
 
 //    @Override
@@ -200,20 +210,14 @@ public class MyEvaluationsServiceImpl implements MyEvaluationsService {
         List<CampaignEvaluation> campaignEvaluations = campaignEvaluationRepository
                 .findByParticipantIdsContainsAndStatus(userId, "Publiée");
 
-        // Récupérer tous les questionnaires des campagnes
-        List<Questionnaire> questionnaires = new ArrayList<>();
-        campaignEvaluations.forEach(campaignEvaluation -> {
-            questionnaires.addAll(campaignEvaluation.getQuestionnaires());
-        });
-
-        // Traiter chaque questionnaire
-        questionnaires.forEach(questionnaire -> {
-            MyEvaluationsDto dto = processQuestionnaireForUser(userId, questionnaire, EvaluationSource.CAMPAIGN);
+        // Traiter chaque questionnaire de chaque campagne (la progression est propre à la campagne)
+        campaignEvaluations.forEach(campaignEvaluation -> campaignEvaluation.getQuestionnaires().forEach(questionnaire -> {
+            MyEvaluationsDto dto = processQuestionnaireForUser(userId, questionnaire.getId(), EvaluationSource.CAMPAIGN, campaignEvaluation.getId());
             if (dto != null) {
                 dto.setCategory("Campagne"); // Identifier la source
                 campaignEvaluationDtos.add(dto);
             }
-        });
+        }));
 
         return campaignEvaluationDtos;
     }
@@ -222,17 +226,15 @@ public class MyEvaluationsServiceImpl implements MyEvaluationsService {
     private List<MyEvaluationsDto> getGroupeEvaluations(Long userId) {
         List<MyEvaluationsDto> groupeEvaluationDtos = new ArrayList<>();
 
-        // Récupérer toutes les GroupeEvaluation où l'utilisateur est participant
-        List<GroupeEvaluation> groupeEvaluations = groupeEvaluationRepo.findAll().stream()
-                .filter(ge -> ge.getParticipantIds() != null && ge.getParticipantIds().contains(userId))
-                .filter(ge -> ge.getStatus() == GroupeEvaluationStatusEnums.PUBLISHED) // Seulement les publiées
-                .toList();
+        // Récupérer les GroupeEvaluation publiées de l'entreprise où l'utilisateur est participant
+        List<GroupeEvaluation> groupeEvaluations = groupeEvaluationRepo.findByCompanyIdAndStatusAndParticipantId(
+                SecurityUtils.getCurrentCompanyId(), GroupeEvaluationStatusEnums.PUBLISHED, userId);
 
         // Traiter chaque GroupeEvaluation
         groupeEvaluations.forEach(groupeEvaluation -> {
             Questionnaire questionnaire = groupeEvaluation.getQuestionnaire();
             if (questionnaire != null) {
-                MyEvaluationsDto dto = processQuestionnaireForUser(userId, questionnaire, EvaluationSource.GROUPE_EVALUATION);
+                MyEvaluationsDto dto = processQuestionnaireForUser(userId, questionnaire.getId(), EvaluationSource.GROUPE_EVALUATION, groupeEvaluation.getId());
                 if (dto != null) {
                     dto.setCategory("Formation"); // Identifier la source
                     // Peut-être ajouter des infos spécifiques au groupe
@@ -246,16 +248,17 @@ public class MyEvaluationsServiceImpl implements MyEvaluationsService {
     }
 
     // MÉTHODE UTILITAIRE pour traiter un questionnaire pour un utilisateur (VERSION AVANCÉE)
-    private MyEvaluationsDto processQuestionnaireForUser(Long userId, Questionnaire questionnaire, EvaluationSource source) {
-        // Récupérer les réponses selon la source
-        List<UserResponse> userResponses = userResponseRepository
-                .findByUserIdAndQuestionnaireIdAndEvaluationSource(userId, questionnaire.getId(), source);
+    private MyEvaluationsDto processQuestionnaireForUser(Long userId, UUID questionnaireId, EvaluationSource source, UUID evaluationId) {
+        // Définition en cache : pas de lecture des tables de questions
+        QuestionnaireDefinition questionnaire = questionnaireDefinitionCacheService.get(questionnaireId).orElse(null);
+        if (questionnaire == null) {
+            return null;
+        }
 
-        // Calculer la progression et le statut (logique existante)
-        int totalQuestions = questionnaire.getQuestions().size();
-        int numberOfValidResponses = calculateValidResponses(userResponses);
+        // Lire la progression maintenue à chaque enregistrement de réponses
+        EvaluationProgress evaluationProgress = evaluationProgressService.getProgress(userId, questionnaire, source, evaluationId);
 
-        int progression = totalQuestions > 0 ? (numberOfValidResponses * 100) / totalQuestions : 0;
+        int progression = evaluationProgress.getProgress();
 
         String status = "En attente";
         LocalDate startDate = null;
@@ -263,16 +266,12 @@ public class MyEvaluationsServiceImpl implements MyEvaluationsService {
 
         if (progression > 0 && progression < 100) {
             status = "En cours";
-            if (!userResponses.isEmpty()) {
-                startDate = userResponses.get(0).getStartDate();
-                isEvaluationSent = determineIfEvaluationIsSent(userResponses.get(0), userId);
-            }
+            startDate = evaluationProgress.getStartDate();
+            isEvaluationSent = determineIfEvaluationIsSent(evaluationProgress, userId);
         } else if (progression == 100) {
             status = "Terminée";
-            if (!userResponses.isEmpty()) {
-                startDate = userResponses.get(0).getStartDate();
-                isEvaluationSent = determineIfEvaluationIsSent(userResponses.get(0), userId);
-            }
+            startDate = evaluationProgress.getStartDate();
+            isEvaluationSent = determineIfEvaluationIsSent(evaluationProgress, userId);
         }
 
         // Créer la liste des questions
@@ -295,7 +294,7 @@ public class MyEvaluationsServiceImpl implements MyEvaluationsService {
     }
 
     // NOUVELLE MÉTHODE pour déterminer si l'évaluation a été envoyée selon le rôle
-    private Boolean determineIfEvaluationIsSent(UserResponse userResponse, Long userId) {
+    private Boolean determineIfEvaluationIsSent(EvaluationProgress evaluationProgress, Long userId) {
         try {
             // Récupérer le rôle de l'utilisateur
             UserDto userDto = authServiceClient.getUserById(userId);
@@ -308,9 +307,9 @@ public class MyEvaluationsServiceImpl implements MyEvaluationsService {
 
             // Retourner le bon statut selon le rôle
             if ("Collaborateur".equals(userRole)) {
-                return userResponse.getIsSentToManager() != null ? userResponse.getIsSentToManager() : false;
+                return Boolean.TRUE.equals(evaluationProgress.getIsSentToManager());
             } else if ("Manager".equals(userRole)) {
-                return userResponse.getIsSentToAdmin() != null ? userResponse.getIsSentToAdmin() : false;
+                return Boolean.TRUE.equals(evaluationProgress.getIsSentToAdmin());
             } else {
                 log.warn("Rôle utilisateur '{}' non géré pour l'utilisateur {}.", userRole, userId);
                 return false;
@@ -321,81 +320,48 @@ public class MyEvaluationsServiceImpl implements MyEvaluationsService {
         }
     }
 
-    // MÉTHODE UTILITAIRE pour calculer les réponses valides (logique existante extraite)
-    private int calculateValidResponses(List<UserResponse> userResponses) {
-        int numberOfValidResponses = 0;
-
-        for (UserResponse userResponse : userResponses) {
-            switch (userResponse.getResponseType()) {
-                case "Score":
-                    if (userResponse.getScoreResponse() != null) numberOfValidResponses++;
-                    break;
-                case "Notation":
-                    if (userResponse.getRatingResponse() != null) numberOfValidResponses++;
-                    break;
-                case "Texte":
-                    if (userResponse.getTextResponse() != null) numberOfValidResponses++;
-                    break;
-                case "Commentaire":
-                    if (userResponse.getCommentResponse() != null) numberOfValidResponses++;
-                    break;
-                case "Réponse multiple":
-                    if (userResponse.getMultipleChoiceResponse() != null && !userResponse.getMultipleChoiceResponse().isEmpty()) {
-                        numberOfValidResponses++;
-                    }
-                    break;
-                case "Réponse unique":
-                    if (userResponse.getSingleChoiceResponse() != null) numberOfValidResponses++;
-                    break;
-                case "Evaluation":
-                    if (userResponse.getSingleLevelChoiceResponse() != null) numberOfValidResponses++;
-                    break;
-                default:
-                    log.warn("Type de réponse non géré : {}", userResponse.getResponseType());
-                    break;
-            }
-        }
-
-        return numberOfValidResponses;
-    }
-
     @Override
+    @Transactional
     public ResponseEntity<?> addUserResponse(UUID questionnaireId, List<AddUserResponseDto> addUserResponseDtos) {
-        Questionnaire questionnaire = questionnaireRepository.findById(questionnaireId)
+        QuestionnaireDefinition questionnaire = questionnaireDefinitionCacheService.get(questionnaireId)
                 .orElseThrow(() -> new RuntimeException("Questionnaire non trouvé"));
 
         // ÉTAPE CRITIQUE : Déterminer la source ET l'ID de l'évaluation
         EvaluationContext evaluationContext = determineEvaluationContext(questionnaireId, addUserResponseDtos.get(0).getUserId());
 
-        List<UserResponse> responsesToSave = new ArrayList<>();
-        int numberOfQuestions = questionnaire.getQuestions().size();
+        Long userId = addUserResponseDtos.get(0).getUserId();
+        int numberOfQuestions = questionnaire.getQuestionCount();
         int numberOfValidResponses = 0;
 
         log.info("Processing responses for questionnaire {} with source {} and context {}",
                 questionnaireId, evaluationContext.getSource(), evaluationContext.getEvaluationId());
 
+        // Une seule requête pour toutes les réponses existantes de l'utilisateur sur ce questionnaire
+        List<UserResponse> allUserResponses = userResponseRepository.findByUserIdAndQuestionnaireId(userId, questionnaireId);
+        Map<UUID, UserResponse> existingByQuestionId = new HashMap<>();
+        for (UserResponse response : allUserResponses) {
+            if (matchesEvaluationContext(response, evaluationContext)) {
+                existingByQuestionId.putIfAbsent(response.getQuestionId(), response);
+            }
+        }
+
+        List<UserResponse> responsesToSave = new ArrayList<>(addUserResponseDtos.size());
         for (AddUserResponseDto addUserResponseDto : addUserResponseDtos) {
             boolean hasValidResponse = validateResponse(addUserResponseDto);
             if (hasValidResponse) {
                 numberOfValidResponses++;
             }
 
-            // Vérifier si une réponse existe déjà
-            UserResponse existingResponse = findExistingUserResponse(
-                    addUserResponseDto.getUserId(),
-                    questionnaireId,
-                    addUserResponseDto.getQuestionId(),
-                    evaluationContext);
-
             int progression = (numberOfQuestions > 0) ? (numberOfValidResponses * 100) / numberOfQuestions : 0;
 
-            UserResponse.UserResponseBuilder builder;
-            if (existingResponse != null) {
-                builder = existingResponse.toBuilder()
-                        .lastModifiedDate(LocalDate.now())
-                        .progression(progression);
+            // Fusion en mémoire : mise à jour de l'entité gérée ou création
+            UserResponse userResponse = existingByQuestionId.get(addUserResponseDto.getQuestionId());
+            String previousStatus = "En attente";
+            if (userResponse != null) {
+                previousStatus = userResponse.getStatus();
+                userResponse.setLastModifiedDate(LocalDate.now());
             } else {
-                builder = UserResponse.builder()
+                userResponse = UserResponse.builder()
                         .userId(addUserResponseDto.getUserId())
                         .isSentToManager(false)
                         .isSentToAdmin(false)
@@ -403,36 +369,44 @@ public class MyEvaluationsServiceImpl implements MyEvaluationsService {
                         .questionnaireId(questionnaireId)
                         .questionId(addUserResponseDto.getQuestionId())
                         .startDate(LocalDate.now())
-                        .progression(progression)
                         .responseType(addUserResponseDto.getResponseType())
-                        .evaluationSource(evaluationContext.getSource()); // CRITIQUE
+                        .evaluationSource(evaluationContext.getSource()) // CRITIQUE
+                        .build();
 
                 // CRITIQUE : Définir les IDs selon la source
                 if (evaluationContext.getSource() == EvaluationSource.CAMPAIGN) {
-                    builder.campaignEvaluationId(evaluationContext.getEvaluationId());
+                    userResponse.setCampaignEvaluationId(evaluationContext.getEvaluationId());
                 } else {
-                    builder.groupeEvaluationId(evaluationContext.getEvaluationId());
+                    userResponse.setGroupeEvaluationId(evaluationContext.getEvaluationId());
                 }
+                existingByQuestionId.put(addUserResponseDto.getQuestionId(), userResponse);
+                allUserResponses.add(userResponse);
             }
+            userResponse.setProgression(progression);
 
             // Définir les valeurs de réponse selon le type
-            setResponseValues(builder, addUserResponseDto);
+            setResponseValues(userResponse, addUserResponseDto);
 
             // Définir le statut
             if (progression == 100) {
-                builder.status("Terminée");
+                userResponse.setStatus("Terminée");
             } else if (progression < 100 && progression > 0) {
-                builder.status("En cours");
+                userResponse.setStatus("En cours");
             } else {
-                builder.status(existingResponse != null ? existingResponse.getStatus() : "En attente");
+                userResponse.setStatus(previousStatus);
             }
 
-            responsesToSave.add(builder.build());
+            responsesToSave.add(userResponse);
         }
 
+        // Écriture groupée (hibernate.jdbc.batch_size)
         userResponseRepository.saveAll(responsesToSave);
+        evaluationSyntheseCacheService.evictAll(responsesToSave.stream().map(UserResponse::getGroupeEvaluationId).toList());
         log.info("Saved {} responses for evaluation context {}", responsesToSave.size(), evaluationContext);
 
+        // Mettre à jour la progression dans la même transaction, sans relire les réponses
+        evaluationProgressService.refresh(userId, questionnaire, allUserResponses);
+
         return ResponseEntity.ok("Réponses utilisateur enregistrées avec succès.");
     }
 
@@ -451,10 +425,8 @@ public class MyEvaluationsServiceImpl implements MyEvaluationsService {
         }
 
         // 2. Vérifier les GroupeEvaluation
-        List<GroupeEvaluation> groupeEvaluations = groupeEvaluationRepo.findAll().stream()
-                .filter(ge -> ge.getParticipantIds() != null && ge.getParticipantIds().contains(userId))
-                .filter(ge -> ge.getQuestionnaire() != null && ge.getQuestionnaire().getId().equals(questionnaireId))
-                .collect(Collectors.toList());
+        List<GroupeEvaluation> groupeEvaluations = groupeEvaluationRepo.findByCompanyIdAndQuestionnaireIdAndAnyParticipantIdIn(
+                SecurityUtils.getCurrentCompanyId(), questionnaireId, List.of(userId));
 
         if (!groupeEvaluations.isEmpty()) {
             GroupeEvaluation groupeEvaluation = groupeEvaluations.get(0); // Prendre le premier
@@ -470,24 +442,14 @@ public class MyEvaluationsServiceImpl implements MyEvaluationsService {
     }
 
 
-    private UserResponse findExistingUserResponse(Long userId, UUID questionnaireId, UUID questionId, EvaluationContext context) {
-        // Chercher d'abord par la méthode existante
-        Optional<UserResponse> existing = userResponseRepository.findByUserIdAndQuestionnaireIdAndQuestionId(
-                userId, questionnaireId, questionId);
-
-        if (existing.isPresent()) {
-            UserResponse response = existing.get();
-            // Vérifier si elle correspond au contexte
-            if (context.getSource() == EvaluationSource.CAMPAIGN &&
-                    (response.getCampaignEvaluationId() != null || response.getEvaluationSource() == EvaluationSource.CAMPAIGN)) {
-                return response;
-            } else if (context.getSource() == EvaluationSource.GROUPE_EVALUATION &&
-                    (response.getGroupeEvaluationId() != null || response.getEvaluationSource() == EvaluationSource.GROUPE_EVALUATION)) {
-                return response;
-            }
+    /**
+     * Indique si une réponse existante appartient au contexte d'évaluation courant.
+     */
+    private boolean matchesEvaluationContext(UserResponse response, EvaluationContext context) {
+        if (context.getSource() == EvaluationSource.CAMPAIGN) {
+            return response.getCampaignEvaluationId() != null || response.getEvaluationSource() == EvaluationSource.CAMPAIGN;
         }
-
-        return null;
+        return response.getGroupeEvaluationId() != null || response.getEvaluationSource() == EvaluationSource.GROUPE_EVALUATION;
     }
 
     // MÉTHODES UTILITAIRES pour la validation et l'assignation des valeurs
@@ -503,14 +465,14 @@ public class MyEvaluationsServiceImpl implements MyEvaluationsService {
         }
     }
 
-    private void setResponseValues(UserResponse.UserResponseBuilder builder, AddUserResponseDto dto) {
+    private void setResponseValues(UserResponse userResponse, AddUserResponseDto dto) {
         switch (dto.getResponseType()) {
-            case "Score": builder.scoreResponse(dto.getScoreResponse()); break;
-            case "Notation": builder.ratingResponse(dto.getRatingResponse()); break;
-            case "Texte": builder.textResponse(dto.getTextResponse()); break;
-            case "Commentaire": builder.commentResponse(dto.getCommentResponse()); break;
-            case "Réponse multiple": builder.multipleChoiceResponse(dto.getMultipleChoiceResponse()); break;
-            case "Réponse unique": builder.singleChoiceResponse(dto.getSingleChoiceResponse()); break;
+            case "Score": userResponse.setScoreResponse(dto.getScoreResponse()); break;
+            case "Notation": userResponse.setRatingResponse(dto.getRatingResponse()); break;
+            case "Texte": userResponse.setTextResponse(dto.getTextResponse()); break;
+            case "Commentaire": userResponse.setCommentResponse(dto.getCommentResponse()); break;
+            case "Réponse multiple": userResponse.setMultipleChoiceResponse(dto.getMultipleChoiceResponse()); break;
+            case "Réponse unique": userResponse.setSingleChoiceResponse(dto.getSingleChoiceResponse()); break;
         }
     }
 
@@ -556,6 +518,7 @@ public class MyEvaluationsServiceImpl implements MyEvaluationsService {
 //    }
 
     @Override
+    @Transactional
     public ResponseEntity<?> sendEvaluation(UUID questionnaireUuid, SendEvaluationDto sendEvaluationDto) {
         Long userId = sendEvaluationDto.getUserId();
 
@@ -609,6 +572,9 @@ public class MyEvaluationsServiceImpl implements MyEvaluationsService {
 
         if (requiresSave) {
             userResponseRepository.saveAll(userResponses);
+            evaluationSyntheseCacheService.evictAll(userResponses.stream().map(UserResponse::getGroupeEvaluationId).toList());
+            questionnaireDefinitionCacheService.get(questionnaireUuid)
+                    .ifPresent(questionnaire -> evaluationProgressService.refresh(userId, questionnaire, userResponses));
             // log.info("UserResponses mises à jour pour l'utilisateur {} et le questionnaire {}", userId, questionnaireUuid);
             System.out.println("UserResponses mises à jour pour l'utilisateur " + userId + " et le questionnaire " + questionnaireUuid);
         }
@@ -620,7 +586,7 @@ public class MyEvaluationsServiceImpl implements MyEvaluationsService {
             // log.info("L'utilisateur {} est un Manager. Tentative de création de Besoin pour le questionnaire {}.", userId, questionnaireUuid);
             System.out.println("L'utilisateur " + userId + " est un Manager. Tentative de création de Besoin pour le questionnaire " + questionnaireUuid + ".");
 
-            Optional<Questionnaire> questionnaireOpt = questionnaireRepository.findById(questionnaireUuid);
+            Optional<QuestionnaireDefinition> questionnaireOpt = questionnaireDefinitionCacheService.get(questionnaireUuid);
 
             if (questionnaireOpt.isEmpty()) {
                 // log.warn("Questionnaire non trouvé avec l'ID: {}. La création de Besoin est annulée pour l'utilisateur {}.", questionnaireUuid, userId);
@@ -629,14 +595,13 @@ public class MyEvaluationsServiceImpl implements MyEvaluationsService {
                 // Le message de retour final indiquera le succès partiel.
                 operationStatusMessage += " Cependant, le questionnaire n'a pas été trouvé pour la création de Besoin.";
             } else {
-                Questionnaire questionnaire = questionnaireOpt.get();
+                QuestionnaireDefinition questionnaire = questionnaireOpt.get();
                 if ("Récensement des besoins de formation".equals(questionnaire.getType())) {
                     // log.info("Le questionnaire '{}' est de type 'Récensement des besoins de formation'. Recherche de la question 'Thème'.", questionnaire.getTitle());
                     System.out.println("Le questionnaire '" + questionnaire.getTitle() + "' est de type 'Récensement des besoins de formation'. Recherche de la question 'Thème'.");
 
-                    Question themeQuestionDefinition = questionnaire.getQuestions().stream()
-                            .filter(q -> "Thème".equals(q.getText())) // Sensible à la casse et au texte exact
-                            .findFirst()
+                    QuestionnaireDefinition.QuestionDefinition themeQuestionDefinition = questionnaire
+                            .findQuestionByText("Thème") // Sensible à la casse et au texte exact
                             .orElse(null);
 
                     if (themeQuestionDefinition == null) {
@@ -739,10 +704,10 @@ public class MyEvaluationsServiceImpl implements MyEvaluationsService {
 
         List<GetUserResponsesDto> getUserResponsesDtos = new ArrayList<>();
 
-        Questionnaire questionnaire = questionnaireRepository.findById(questionnaireId).get();
+        QuestionnaireDefinition questionnaire = questionnaireDefinitionCacheService.getRequired(questionnaireId);
 
 
-        List<Question> questions = questionnaire.getQuestions();
+        List<QuestionnaireDefinition.QuestionDefinition> questions = questionnaire.getQuestions();
 
         List<QuestionDto> questionDtos = new ArrayList<>();
 
@@ -756,7 +721,7 @@ public class MyEvaluationsServiceImpl implements MyEvaluationsService {
         });
 
         // Récupérer le nombre total de questions du questionnaire
-        int totalQuestions = questionnaire.getQuestions().size();
+        int totalQuestions = questionnaire.getQuestionCount();
         int numberOfValidResponses = 0;
 
         // Compter le nombre de réponses valides
@@ -1,6 +1,9 @@
 package org.example.trainingservice.service.evaluations;
 
 import lombok.extern.slf4j.Slf4j;
+import org.example.trainingservice.cacheService.EvaluationFormCacheService;
+import org.example.trainingservice.cacheService.EvaluationSyntheseCacheService;
+import org.example.trainingservice.cacheService.QuestionnaireDefinitionCacheService;
 import org.example.trainingservice.dto.evaluation.*;
 import org.example.trainingservice.entity.campaign.Question;
 import org.example.trainingservice.entity.campaign.Questionnaire;
@@ -8,6 +11,8 @@ import org.example.trainingservice.repository.evaluation.QuestionRepository;
 import org.example.trainingservice.repository.evaluation.QuestionnaireRepository;
 import org.example.trainingservice.utils.EvaluationUtilMethods;
 import org.example.trainingservice.utils.SecurityUtils;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -22,10 +27,12 @@ import java.util.stream.Collectors;
 public class QuestionnaireServiceImpl implements QuestionnaireService {
     private final QuestionnaireRepository questionnaireRepository;
     private final QuestionRepository questionRepository;
+    private final QuestionnaireDefinitionCacheService questionnaireDefinitionCacheService;
 
-    public QuestionnaireServiceImpl(QuestionnaireRepository questionnaireRepository, QuestionRepository questionRepository) {
+    public QuestionnaireServiceImpl(QuestionnaireRepository questionnaireRepository, QuestionRepository questionRepository, QuestionnaireDefinitionCacheService questionnaireDefinitionCacheService) {
         this.questionnaireRepository = questionnaireRepository;
         this.questionRepository = questionRepository;
+        this.questionnaireDefinitionCacheService = questionnaireDefinitionCacheService;
     }
 
     @Override
@@ -148,6 +155,10 @@ public class QuestionnaireServiceImpl implements QuestionnaireService {
      */
     @Transactional
     @Override
+    @Caching(evict = {
+            @CacheEvict(value = EvaluationSyntheseCacheService.CACHE_NAME, allEntries = true),
+            @CacheEvict(value = EvaluationFormCacheService.TEMPLATE_CACHE_NAME, allEntries = true)
+    })
     public ResponseEntity<?> updateQuestionnaire(UUID questionnaireId, AddQuestionnaireDto questionnaireDto) {
         Long currentCompanyId = SecurityUtils.getCurrentCompanyId();
         if (currentCompanyId == null) {
@@ -184,6 +195,8 @@ public class QuestionnaireServiceImpl implements QuestionnaireService {
         }
         // Si questionsDtoList est null ou vide, la liste des questions du questionnaire sera vide.
 
+        // Nouvelle version de la définition : les entrées en cache deviennent obsolètes
+        questionnaireDefinitionCacheService.invalidate(questionnaireToUpdate);
         questionnaireRepository.save(questionnaireToUpdate);
 
         return ResponseEntity.ok().body("Questionnaire mis à jour avec succès. ID: " + questionnaireToUpdate.getId());
@@ -197,18 +210,25 @@ public class QuestionnaireServiceImpl implements QuestionnaireService {
         Optional<Questionnaire> byTypeAndCompanyIdAndDefaultQuestionnaireTrue = questionnaireRepository.findByTypeAndCompanyIdAndDefaultQuestionnaireTrue(questionnaireType, currentCompanyId);
         Questionnaire questionnaireToUpdate = byTypeAndCompanyIdAndDefaultQuestionnaireTrue.get();
         questionnaireToUpdate.setDefaultQuestionnaire(false);
+        questionnaireDefinitionCacheService.invalidate(questionnaireToUpdate);
 
         questionnaireRepository.save(questionnaireToUpdate);
 
         Questionnaire questionnaire = questionnaireRepository.findById(id).get();
         questionnaire.setDefaultQuestionnaire(true);
+        questionnaireDefinitionCacheService.invalidate(questionnaire);
         questionnaireRepository.save(questionnaire);
         return ResponseEntity.ok().build();
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(value = EvaluationSyntheseCacheService.CACHE_NAME, allEntries = true),
+            @CacheEvict(value = EvaluationFormCacheService.TEMPLATE_CACHE_NAME, allEntries = true)
+    })
     public ResponseEntity<?> deleteQuestionnaire(UUID id) {
         Questionnaire questionnaire = questionnaireRepository.findById(id).orElseThrow(RuntimeException::new);
+        questionnaireDefinitionCacheService.invalidate(questionnaire);
         questionnaireRepository.delete(questionnaire);
         return ResponseEntity.ok().build();
     }
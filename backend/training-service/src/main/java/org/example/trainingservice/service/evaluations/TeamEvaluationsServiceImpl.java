@@ -1,33 +1,34 @@
 package org.example.trainingservice.service.evaluations;
 
 import lombok.extern.slf4j.Slf4j;
+import org.example.trainingservice.cacheService.EvaluationSyntheseCacheService;
+import org.example.trainingservice.cacheService.ParticipantCacheService;
+import org.example.trainingservice.cacheService.QuestionnaireDefinitionCacheService;
 import org.example.trainingservice.cacheService.UserCacheService;
 import org.example.trainingservice.client.users.AuthServiceClient;
 import org.example.trainingservice.dto.evaluation.*;
 import org.example.trainingservice.entity.Groupe;
 import org.example.trainingservice.entity.Need;
 import org.example.trainingservice.entity.campaign.CampaignEvaluation;
-import org.example.trainingservice.entity.campaign.Question;
 import org.example.trainingservice.entity.campaign.Questionnaire;
 import org.example.trainingservice.entity.campaign.UserResponse;
 import org.example.trainingservice.entity.plan.evaluation.GroupeEvaluation;
 import org.example.trainingservice.enums.*;
+import org.example.trainingservice.helper.plan.evaluation.TeamProgressAggregator;
 import org.example.trainingservice.repository.NeedRepository;
 import org.example.trainingservice.repository.evaluation.CampaignEvaluationRepository;
 import org.example.trainingservice.repository.evaluation.QuestionnaireRepository;
 import org.example.trainingservice.repository.evaluation.UserResponseRepository;
 import org.example.trainingservice.repository.plan.evaluation.GroupeEvaluationRepo;
 import org.example.trainingservice.utils.EvaluationUtilMethods;
+import org.example.trainingservice.utils.SecurityUtils;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.UUID;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
@@ -40,8 +41,12 @@ public class TeamEvaluationsServiceImpl implements TeamEvaluationsService {
     private final NeedRepository needRepository;
     private final UserCacheService userCacheService;
     private final GroupeEvaluationRepo groupeEvaluationRepo;
+    private final ParticipantCacheService participantCacheService;
+    private final EvaluationProgressService evaluationProgressService;
+    private final QuestionnaireDefinitionCacheService questionnaireDefinitionCacheService;
+    private final EvaluationSyntheseCacheService evaluationSyntheseCacheService;
 
-    public TeamEvaluationsServiceImpl(QuestionnaireRepository questionnaireRepository, AuthServiceClient authServiceClient, CampaignEvaluationRepository campaignEvaluationRepository, UserResponseRepository userResponseRepository, NeedRepository needRepository, UserCacheService userCacheService, GroupeEvaluationRepo groupeEvaluationRepo) {
+    public TeamEvaluationsServiceImpl(QuestionnaireRepository questionnaireRepository, AuthServiceClient authServiceClient, CampaignEvaluationRepository campaignEvaluationRepository, UserResponseRepository userResponseRepository, NeedRepository needRepository, UserCacheService userCacheService, GroupeEvaluationRepo groupeEvaluationRepo, ParticipantCacheService participantCacheService, EvaluationProgressService evaluationProgressService, QuestionnaireDefinitionCacheService questionnaireDefinitionCacheService, EvaluationSyntheseCacheService evaluationSyntheseCacheService) {
         this.questionnaireRepository = questionnaireRepository;
         this.authServiceClient = authServiceClient;
         this.campaignEvaluationRepository = campaignEvaluationRepository;
@@ -49,6 +54,10 @@ public class TeamEvaluationsServiceImpl implements TeamEvaluationsService {
         this.needRepository = needRepository;
         this.userCacheService = userCacheService;
         this.groupeEvaluationRepo = groupeEvaluationRepo;
+        this.participantCacheService = participantCacheService;
+        this.evaluationProgressService = evaluationProgressService;
+        this.questionnaireDefinitionCacheService = questionnaireDefinitionCacheService;
+        this.evaluationSyntheseCacheService = evaluationSyntheseCacheService;
     }
 
 //    @Override
@@ -275,292 +284,15 @@ public class TeamEvaluationsServiceImpl implements TeamEvaluationsService {
      * @return La progression en pourcentage (0-100).
      */
     public int calculateUserProgressForQuestionnaire(Long userId, Questionnaire questionnaire, List<UserResponse> userResponsesForQuestionnaire) {
-        if (questionnaire == null || questionnaire.getQuestions() == null) {
+        QuestionnaireDefinition definition = questionnaire != null
+                ? questionnaireDefinitionCacheService.get(questionnaire.getId()).orElse(null) : null;
+        if (definition == null) {
             log.warn("Questionnaire est null ou n'a pas de questions pour le calcul de progression de l'utilisateur {}.", userId);
             return 0;
         }
-        int totalQuestions = questionnaire.getQuestions().size();
-        if (totalQuestions == 0) {
-            return 0; // Ou 100 si aucune question signifie "terminé", mais 0 est plus prudent.
-        }
-
-        int numberOfValidResponses = 0;
-        for (UserResponse userResponse : userResponsesForQuestionnaire) {
-            // S'assurer que la réponse appartient bien à l'utilisateur et au questionnaire (normalement déjà filtré)
-            if (!userResponse.getUserId().equals(userId) || !userResponse.getQuestionnaireId().equals(questionnaire.getId())) {
-                continue;
-            }
-            switch (userResponse.getResponseType()) {
-                case "Score":
-                    if (userResponse.getScoreResponse() != null) numberOfValidResponses++;
-                    break;
-                case "Notation":
-                    if (userResponse.getRatingResponse() != null) numberOfValidResponses++;
-                    break;
-                case "Texte":
-                    if (userResponse.getTextResponse() != null) numberOfValidResponses++;
-                    break;
-                case "Commentaire":
-                    if (userResponse.getCommentResponse() != null) numberOfValidResponses++;
-                    break;
-                case "Réponse multiple":
-                    if (userResponse.getMultipleChoiceResponse() != null && !userResponse.getMultipleChoiceResponse().isEmpty())
-                        numberOfValidResponses++;
-                    break;
-                case "Réponse unique":
-                    if (userResponse.getSingleChoiceResponse() != null) numberOfValidResponses++;
-                    break;
-                case "Evaluation":
-                    if (userResponse.getSingleLevelChoiceResponse() != null) numberOfValidResponses++;
-                    break;
-                default:
-                    // Pas de log ici pour ne pas surcharger, sauf si c'est un type vraiment inattendu
-                    break;
-            }
-        }
-
-        return (numberOfValidResponses * 100) / totalQuestions;
-    }
-
-    /**
-     * Calcule la progression globale pour une équipe sur un questionnaire.
-     * C'est la moyenne des progressions individuelles des membres de l'équipe.
-     * Chaque participant a une seule progression prise en compte.
-     *
-     * @param questionnaire                    Le questionnaire.
-     * @param allTeamResponsesForQuestionnaire Toutes les réponses de l'équipe pour ce questionnaire.
-     * @param teamMemberIds                    La liste des IDs des membres de l'équipe concernés.
-     * @return La progression globale moyenne.
-     */
-    private Integer calculateGlobalProgressForTeam(
-            Questionnaire questionnaire,
-            List<UserResponse> allTeamResponsesForQuestionnaire,
-            List<Long> teamMemberIds) {
-
-        if (questionnaire == null || teamMemberIds == null || teamMemberIds.isEmpty()) {
-            return 0;
-        }
-
-        List<Integer> individualProgressions = new ArrayList<>();
-        for (Long userId : teamMemberIds) {
-            // Filtrer les réponses pour l'utilisateur courant
-            List<UserResponse> userSpecificResponses = allTeamResponsesForQuestionnaire.stream()
-                    .filter(response -> response.getUserId().equals(userId))
-                    .toList();
-
-            int userProgress = calculateUserProgressForQuestionnaire(userId, questionnaire, userSpecificResponses);
-            individualProgressions.add(userProgress);
-        }
-
-        if (individualProgressions.isEmpty()) {
-            return 0;
-        }
-
-        double averageProgress = individualProgressions.stream()
-                .mapToInt(Integer::intValue)
-                .average()
-                .orElse(0.0);
-
-        return (int) Math.round(averageProgress);
-    }
-
-    /**
-     * Calcule le statut global pour une équipe sur un questionnaire.
-     * Basé sur les statuts individuels dérivés de la progression.
-     *
-     * @param questionnaire                    Le questionnaire.
-     * @param allTeamResponsesForQuestionnaire Toutes les réponses de l'équipe pour ce questionnaire.
-     * @param teamMemberIds                    La liste des IDs des membres de l'équipe concernés.
-     * @return Le statut global ("En attente", "En cours", "Terminé").
-     */
-    private String calculateGlobalStatusForTeam(
-            Questionnaire questionnaire,
-            List<UserResponse> allTeamResponsesForQuestionnaire,
-            List<Long> teamMemberIds) {
-
-        if (questionnaire == null || teamMemberIds == null || teamMemberIds.isEmpty()) {
-            return "En attente";
-        }
-
-        List<String> individualStatuses = new ArrayList<>();
-        for (Long userId : teamMemberIds) {
-            // Filtrer les réponses pour l'utilisateur courant
-            List<UserResponse> userSpecificResponses = allTeamResponsesForQuestionnaire.stream()
-                    .filter(response -> response.getUserId().equals(userId))
-                    .toList();
-
-            int progress = calculateUserProgressForQuestionnaire(userId, questionnaire, userSpecificResponses);
-            String userStatus = "En attente";
-            if (progress == 100) {
-                userStatus = "Terminé";
-            } else if (progress > 0) {
-                userStatus = "En cours";
-            }
-            individualStatuses.add(userStatus);
-        }
-
-        if (individualStatuses.isEmpty()) {
-            return "En attente";
-        }
-
-        if (individualStatuses.stream().allMatch("Terminé"::equalsIgnoreCase)) {
-            return "Terminé";
-        }
-        if (individualStatuses.stream().anyMatch("En cours"::equalsIgnoreCase)) {
-            return "En cours";
-        }
-        // Si certains sont "Terminé" et d'autres "En attente" (mais aucun "En cours")
-        // cela pourrait aussi être considéré comme "En cours" pour l'équipe.
-        // La logique ci-dessous, qui est plus simple, considère ce cas comme "En attente"
-        // s'il n'y a aucun "En cours". Vous pouvez ajuster si besoin.
-        // Exemple: User A "Terminé", User B "En attente" -> Global "En attente"
-        // Si vous préférez "En cours" dans ce cas:
-        if (individualStatuses.stream().anyMatch("Terminé"::equalsIgnoreCase) &&
-                individualStatuses.stream().anyMatch("En attente"::equalsIgnoreCase)) {
-            // Optionnel: traiter un mélange de "Terminé" et "En attente" comme "En cours"
-            // return "En cours";
-        }
-
-        return "En attente"; // Par défaut si pas tous terminés et aucun en cours
-    }
-
-    /*
-     * @param questionnaire
-     * @param allTeamResponsesForQuestionnaire
-     * @param teamMemberIds
-     * */
-    private String calculateGlobalIsSentToManager(
-            Questionnaire questionnaire,
-            List<UserResponse> allTeamResponsesForQuestionnaire,
-            List<Long> teamMemberIds) {
-
-        // Vérification des paramètres
-        if (questionnaire == null || teamMemberIds == null || teamMemberIds.isEmpty()) {
-            return "Brouillon";
-        }
-
-        // Statut par défaut
-        String globalStatus = "Terminée";  // On part du principe que tout est terminé
-
-        // Pour chaque utilisateur de l'équipe
-        for (Long userId : teamMemberIds) {
-            // Filtrer les réponses pour l'utilisateur courant
-            List<UserResponse> userSpecificResponses = allTeamResponsesForQuestionnaire.stream()
-                    .filter(response -> response.getUserId().equals(userId))
-                    .toList();
-
-            // Si l'utilisateur n'a pas de réponses, on considère que c'est un brouillon
-            if (userSpecificResponses.isEmpty()) {
-                return "Brouillon";
-            }
-
-            // Vérifier si toutes les réponses de l'utilisateur sont envoyées
-            boolean allSent = userSpecificResponses.stream()
-                    .allMatch(response -> response.getIsSentToManager() != null && response.getIsSentToManager());
-
-            // Si au moins une réponse n'est pas envoyée, tout est considéré comme brouillon
-            if (!allSent) {
-                return "Brouillon";
-            }
-        }
-
-        // Si on arrive ici, c'est que toutes les réponses de tous les utilisateurs sont envoyées
-        return globalStatus;
-    }
-
-    private String calculateGlobalIsSentToAdmin(
-            Questionnaire questionnaire,
-            List<UserResponse> allTeamResponsesForQuestionnaire,
-            List<Long> teamMemberIds) {
-
-        // Vérification des paramètres
-        if (questionnaire == null || teamMemberIds == null || teamMemberIds.isEmpty()) {
-            return "Brouillon";
-        }
-
-        // Statut par défaut
-        String globalStatus = "Terminée";  // On part du principe que tout est terminé
-
-        // Pour chaque utilisateur de l'équipe
-        for (Long userId : teamMemberIds) {
-            // Filtrer les réponses pour l'utilisateur courant
-            List<UserResponse> userSpecificResponses = allTeamResponsesForQuestionnaire.stream()
-                    .filter(response -> response.getUserId().equals(userId))
-                    .toList();
-
-            // Si l'utilisateur n'a pas de réponses, on considère que c'est un brouillon
-            if (userSpecificResponses.isEmpty()) {
-                return "Brouillon";
-            }
-
-            // Vérifier si toutes les réponses de l'utilisateur sont envoyées
-            boolean allSent = userSpecificResponses.stream()
-                    .allMatch(response -> response.getIsSentToAdmin() != null && response.getIsSentToAdmin());
-
-            // Si au moins une réponse n'est pas envoyée, tout est considéré comme brouillon
-            if (!allSent) {
-                return "Brouillon";
-            }
-        }
-
-        // Si on arrive ici, c'est que toutes les réponses de tous les utilisateurs sont envoyées
-        return globalStatus;
-    }
-
-    private String calculateIndividualIsSentToManager(
-            Questionnaire questionnaire,
-            List<UserResponse> userResponses,
-            Long userId) {
-
-        // Vérification des paramètres
-        if (questionnaire == null || userResponses == null || userId == null) {
-            return "Brouillon";
-        }
-
-        // Filtrer les réponses pour l'utilisateur spécifié
-        List<UserResponse> userSpecificResponses = userResponses.stream()
-                .filter(response -> response.getUserId().equals(userId))
-                .toList();
-
-        // Si l'utilisateur n'a pas de réponses, on considère que c'est un brouillon
-        if (userSpecificResponses.isEmpty()) {
-            return "Brouillon";
-        }
-
-        // Vérifier si toutes les réponses de l'utilisateur sont envoyées
-        boolean allSent = userSpecificResponses.stream()
-                .allMatch(response -> response.getIsSentToManager() != null && response.getIsSentToManager());
-
-        // Si toutes les réponses sont envoyées, c'est terminé, sinon c'est un brouillon
-        return allSent ? "Terminée" : "Brouillon";
-    }
-
-    private String calculateIndividualIsSentToAdmin(
-            Questionnaire questionnaire,
-            List<UserResponse> userResponses,
-            Long userId) {
-
-        // Vérification des paramètres
-        if (questionnaire == null || userResponses == null || userId == null) {
-            return "Brouillon";
-        }
-
-        // Filtrer les réponses pour l'utilisateur spécifié
-        List<UserResponse> userSpecificResponses = userResponses.stream()
-                .filter(response -> response.getUserId().equals(userId))
-                .toList();
-
-        // Si l'utilisateur n'a pas de réponses, on considère que c'est un brouillon
-        if (userSpecificResponses.isEmpty()) {
-            return "Brouillon";
-        }
-
-        // Vérifier si toutes les réponses de l'utilisateur sont envoyées
-        boolean allSent = userSpecificResponses.stream()
-                .allMatch(response -> response.getIsSentToAdmin() != null && response.getIsSentToAdmin());
-
-        // Si toutes les réponses sont envoyées, c'est terminé, sinon c'est un brouillon
-        return allSent ? "Terminée" : "Brouillon";
+        return TeamProgressAggregator.aggregate(definition, userResponsesForQuestionnaire, List.of(userId))
+                .forUser(userId)
+                .getProgress();
     }
 
     // MODIFICATION de getTeamEvaluations pour inclure GroupeEvaluation
@@ -587,49 +319,54 @@ public class TeamEvaluationsServiceImpl implements TeamEvaluationsService {
     private List<GetTeamEvaluationsDto> getGroupeTeamEvaluations(List<Long> myTeamIds) {
         List<GetTeamEvaluationsDto> groupeEvaluationDtos = new ArrayList<>();
 
-        // Récupérer toutes les GroupeEvaluation où au moins un membre de l'équipe participe
-        List<GroupeEvaluation> groupeEvaluations = groupeEvaluationRepo.findAll().stream()
-                .filter(ge -> ge.getParticipantIds() != null &&
-                        ge.getParticipantIds().stream().anyMatch(myTeamIds::contains))
-                .filter(ge -> ge.getStatus() == GroupeEvaluationStatusEnums.PUBLISHED)
-                .collect(Collectors.toList());
+        // Récupérer les GroupeEvaluation publiées de l'entreprise où au moins un membre de l'équipe participe
+        List<GroupeEvaluation> groupeEvaluations = groupeEvaluationRepo.findByCompanyIdAndStatusAndAnyParticipantIdIn(
+                SecurityUtils.getCurrentCompanyId(), GroupeEvaluationStatusEnums.PUBLISHED, myTeamIds);
 
         log.info("Found {} published groupe evaluations for team", groupeEvaluations.size());
 
+        if (groupeEvaluations.isEmpty()) {
+            return groupeEvaluationDtos;
+        }
+
+        // Membres de l'équipe par GroupeEvaluation, en une seule requête
+        Map<UUID, Set<Long>> teamParticipantsByEvaluation = new HashMap<>();
+        groupeEvaluationRepo.findParticipantPairsByIdInAndParticipantIdIn(
+                        groupeEvaluations.stream().map(GroupeEvaluation::getId).toList(), myTeamIds)
+                .forEach(row -> teamParticipantsByEvaluation
+                        .computeIfAbsent((UUID) row[0], id -> new HashSet<>())
+                        .add((Long) row[1]));
+
+        // Réponses de l'équipe pour toutes ces évaluations, en une seule requête
+        Map<UUID, List<UserResponse>> teamResponsesByEvaluation = teamParticipantsByEvaluation.isEmpty() ? Map.of()
+                : userResponseRepository.findByGroupeEvaluationIdInAndUserIdIn(teamParticipantsByEvaluation.keySet(), myTeamIds).stream()
+                .collect(Collectors.groupingBy(UserResponse::getGroupeEvaluationId));
+
         for (GroupeEvaluation groupeEvaluation : groupeEvaluations) {
             Questionnaire questionnaire = groupeEvaluation.getQuestionnaire();
             if (questionnaire != null) {
 
                 // Filtrer les membres d'équipe qui participent à CETTE GroupeEvaluation
+                Set<Long> participantsOfEvaluation = teamParticipantsByEvaluation.getOrDefault(groupeEvaluation.getId(), Set.of());
                 List<Long> teamParticipants = myTeamIds.stream()
-                        .filter(groupeEvaluation.getParticipantIds()::contains)
+                        .filter(participantsOfEvaluation::contains)
                         .collect(Collectors.toList());
 
                 log.info("Processing groupe evaluation {} with {} team participants",
                         groupeEvaluation.getId(), teamParticipants.size());
 
-                // UTILISATION CORRECTE : Récupérer par groupeEvaluationId ET source
-                List<UserResponse> teamResponsesForGroupe = userResponseRepository
-                        .findByGroupeEvaluationIdAndUserIdIn(groupeEvaluation.getId(), teamParticipants);
-
-                // SI LA MÉTHODE CI-DESSUS N'EXISTE PAS ENCORE, utiliser cette alternative :
-                if (teamResponsesForGroupe.isEmpty()) {
-                    teamResponsesForGroupe = userResponseRepository
-                            .findByQuestionnaireIdAndUserIdIn(questionnaire.getId(), teamParticipants)
-                            .stream()
-                            .filter(ur -> ur.getEvaluationSource() == EvaluationSource.GROUPE_EVALUATION)
-                            .filter(ur -> groupeEvaluation.getId().equals(ur.getGroupeEvaluationId()))
-                            .collect(Collectors.toList());
-                }
+                // Les réponses des non-participants sont ignorées par l'agrégateur
+                List<UserResponse> teamResponsesForGroupe = teamResponsesByEvaluation
+                        .getOrDefault(groupeEvaluation.getId(), List.of());
 
                 log.info("Found {} responses for groupe evaluation {}",
                         teamResponsesForGroupe.size(), groupeEvaluation.getId());
 
-                // Calculer progression et statut pour cette évaluation de groupe
-                Integer globalProgress = calculateGlobalProgressForGroupe(
-                        questionnaire, teamResponsesForGroupe, teamParticipants, groupeEvaluation.getId());
-                String globalStatus = calculateGlobalStatusForGroupe(
-                        questionnaire, teamResponsesForGroupe, teamParticipants, groupeEvaluation.getId());
+                // Calculer progression et statut pour cette évaluation de groupe, en une seule passe
+                TeamProgressAggregator aggregator = TeamProgressAggregator.aggregate(
+                        questionnaireDefinitionCacheService.getRequired(questionnaire.getId()), teamResponsesForGroupe, teamParticipants);
+                Integer globalProgress = aggregator.getGlobalProgress();
+                String globalStatus = aggregator.getGlobalStatus();
 
                 log.info("Groupe evaluation {} - Progress: {}%, Status: {}",
                         groupeEvaluation.getId(), globalProgress, globalStatus);
@@ -656,8 +393,7 @@ public class TeamEvaluationsServiceImpl implements TeamEvaluationsService {
     // MODIFICATION de getTeamEvaluationDetails pour supporter GroupeEvaluation
     @Override
     public ResponseEntity<?> getTeamEvaluationDetails(UUID questionnaireId, Long managerId) {
-        Questionnaire questionnaire = questionnaireRepository.findById(questionnaireId)
-                .orElseThrow(() -> new RuntimeException("Questionnaire non trouvé avec ID: " + questionnaireId));
+        QuestionnaireDefinition questionnaire = questionnaireDefinitionCacheService.getRequired(questionnaireId);
 
         List<QuestionDto> questionDtos = new ArrayList<>();
         questionnaire.getQuestions().forEach(question -> {
@@ -701,40 +437,36 @@ public class TeamEvaluationsServiceImpl implements TeamEvaluationsService {
         }
 
         // Le reste de la logique reste identique...
+        TeamProgressAggregator aggregator = TeamProgressAggregator.aggregate(
+                questionnaire, allTeamResponsesForQuestionnaire, teamParticipantIds);
+
         if (!teamParticipantIds.isEmpty()) {
-            for (Long userId : teamParticipantIds) {
-                List<UserResponse> userResponsesForThisUser = allTeamResponsesForQuestionnaire.stream()
-                        .filter(response -> response.getUserId().equals(userId))
-                        .collect(Collectors.toList());
+            // Un seul appel à l'auth-service pour tous les membres
+            Map<Long, TeamEvaluationDetailsForUserDto> participantsById = participantCacheService.getParticipants(teamParticipantIds);
 
-                int progress = calculateUserProgressForQuestionnaire(userId, questionnaire, userResponsesForThisUser);
-                String status = calculateIndividualIsSentToAdmin(questionnaire, userResponsesForThisUser, userId);
+            for (Long userId : teamParticipantIds) {
+                TeamProgressAggregator.UserProgress userProgress = aggregator.forUser(userId);
 
-                TeamEvaluationDetailsForUserDto userDetailsFromAuth = authServiceClient.getParticipant(userId);
+                TeamEvaluationDetailsForUserDto userDetailsFromAuth = participantsById.get(userId);
                 String name = userDetailsFromAuth != null ? userDetailsFromAuth.getName() : "Utilisateur Inconnu";
                 String position = userDetailsFromAuth != null ? userDetailsFromAuth.getPosition() : "N/A";
                 String groupe = userDetailsFromAuth != null ? userDetailsFromAuth.getGroupe() : "N/A";
 
-                Boolean isSentToManager = !userResponsesForThisUser.isEmpty() ?
-                        userResponsesForThisUser.get(0).getIsSentToManager() : false;
-                Boolean isSentToAdmin = !userResponsesForThisUser.isEmpty() ?
-                        userResponsesForThisUser.get(0).getIsSentToAdmin() : false;
-
                 participantsDetails.add(TeamEvaluationDetailsForUserDto.builder()
                         .id(userId)
                         .name(name)
                         .position(position)
                         .groupe(groupe)
-                        .progress(progress)
-                        .status(status)
-                        .isSentToManager(isSentToManager)
-                        .isSentToAdmin(isSentToAdmin)
+                        .progress(userProgress.getProgress())
+                        .status(userProgress.getSentToAdminStatus())
+                        .isSentToManager(userProgress.getFirstIsSentToManager())
+                        .isSentToAdmin(userProgress.getFirstIsSentToAdmin())
                         .build());
             }
         }
 
-        Integer globalProgress = calculateGlobalProgressForTeam(questionnaire, allTeamResponsesForQuestionnaire, teamParticipantIds);
-        String globalStatus = calculateGlobalStatusForTeam(questionnaire, allTeamResponsesForQuestionnaire, teamParticipantIds);
+        Integer globalProgress = aggregator.getGlobalProgress();
+        String globalStatus = aggregator.getGlobalStatus();
 
         TeamEvaluationDetailsDto detailsDto = TeamEvaluationDetailsDto.builder()
                 .id(questionnaire.getId())
@@ -769,99 +501,13 @@ public class TeamEvaluationsServiceImpl implements TeamEvaluationsService {
     }
 
     private GroupeEvaluation findGroupeEvaluationByQuestionnaire(UUID questionnaireId, List<Long> teamIds) {
-        return groupeEvaluationRepo.findAll().stream()
-                .filter(ge -> ge.getQuestionnaire() != null &&
-                        ge.getQuestionnaire().getId().equals(questionnaireId))
-                .filter(ge -> ge.getParticipantIds() != null &&
-                        ge.getParticipantIds().stream().anyMatch(teamIds::contains))
+        return groupeEvaluationRepo.findByCompanyIdAndQuestionnaireIdAndAnyParticipantIdIn(
+                        SecurityUtils.getCurrentCompanyId(), questionnaireId, teamIds)
+                .stream()
                 .findFirst()
                 .orElse(null);
     }
 
-    // Méthodes de calcul adaptées pour GroupeEvaluation (similaires aux existantes)
-    private Integer calculateGlobalProgressForGroupe(Questionnaire questionnaire,
-                                                     List<UserResponse> responses,
-                                                     List<Long> participantIds,
-                                                     UUID groupeEvaluationId) {
-        if (questionnaire == null || participantIds == null || participantIds.isEmpty()) {
-            log.warn("Invalid parameters for progress calculation: questionnaire={}, participantIds={}",
-                    questionnaire != null ? questionnaire.getId() : "null", participantIds);
-            return 0;
-        }
-
-        List<Integer> individualProgressions = new ArrayList<>();
-
-        for (Long userId : participantIds) {
-            // Filtrer les réponses pour l'utilisateur courant dans cette GroupeEvaluation spécifique
-            List<UserResponse> userSpecificResponses = responses.stream()
-                    .filter(response -> response.getUserId().equals(userId))
-                    .filter(response -> groupeEvaluationId.equals(response.getGroupeEvaluationId()) ||
-                            response.getEvaluationSource() == EvaluationSource.GROUPE_EVALUATION)
-                    .collect(Collectors.toList());
-
-            int userProgress = calculateUserProgressForQuestionnaire(userId, questionnaire, userSpecificResponses);
-            individualProgressions.add(userProgress);
-
-            log.debug("User {} progress in groupe evaluation {}: {}%", userId, groupeEvaluationId, userProgress);
-        }
-
-        if (individualProgressions.isEmpty()) {
-            log.warn("No individual progressions calculated for groupe evaluation {}", groupeEvaluationId);
-            return 0;
-        }
-
-        double averageProgress = individualProgressions.stream()
-                .mapToInt(Integer::intValue)
-                .average()
-                .orElse(0.0);
-
-        int result = (int) Math.round(averageProgress);
-        log.info("Global progress for groupe evaluation {}: {}%", groupeEvaluationId, result);
-        return result;
-    }
-
-    private String calculateGlobalStatusForGroupe(Questionnaire questionnaire,
-                                                  List<UserResponse> responses,
-                                                  List<Long> participantIds,
-                                                  UUID groupeEvaluationId) {
-        if (questionnaire == null || participantIds == null || participantIds.isEmpty()) {
-            return "En attente";
-        }
-
-        List<String> individualStatuses = new ArrayList<>();
-
-        for (Long userId : participantIds) {
-            List<UserResponse> userSpecificResponses = responses.stream()
-                    .filter(response -> response.getUserId().equals(userId))
-                    .filter(response -> groupeEvaluationId.equals(response.getGroupeEvaluationId()) ||
-                            response.getEvaluationSource() == EvaluationSource.GROUPE_EVALUATION)
-                    .collect(Collectors.toList());
-
-            int progress = calculateUserProgressForQuestionnaire(userId, questionnaire, userSpecificResponses);
-            String userStatus = "En attente";
-            if (progress == 100) {
-                userStatus = "Terminé";
-            } else if (progress > 0) {
-                userStatus = "En cours";
-            }
-            individualStatuses.add(userStatus);
-
-            log.debug("User {} status in groupe evaluation {}: {}", userId, groupeEvaluationId, userStatus);
-        }
-
-        String globalStatus;
-        if (individualStatuses.stream().allMatch("Terminé"::equalsIgnoreCase)) {
-            globalStatus = "Terminé";
-        } else if (individualStatuses.stream().anyMatch("En cours"::equalsIgnoreCase)) {
-            globalStatus = "En cours";
-        } else {
-            globalStatus = "En attente";
-        }
-
-        log.info("Global status for groupe evaluation {}: {}", groupeEvaluationId, globalStatus);
-        return globalStatus;
-    }
-
     // MÉTHODE EXISTANTE refactorisée pour les campagnes
     private List<GetTeamEvaluationsDto> getCampaignTeamEvaluations(List<Long> myTeamIds) {
         List<GetTeamEvaluationsDto> campaignEvaluationDtos = new ArrayList<>();
@@ -869,19 +515,29 @@ public class TeamEvaluationsServiceImpl implements TeamEvaluationsService {
         List<CampaignEvaluation> campaignEvaluations = campaignEvaluationRepository
                 .findByAnyParticipantIdInAndStatus(myTeamIds, "Publiée");
 
+        // Réponses de l'équipe pour tous les questionnaires des campagnes, en une seule requête
+        Set<UUID> questionnaireIds = campaignEvaluations.stream()
+                .flatMap(campaignEvaluation -> campaignEvaluation.getQuestionnaires().stream())
+                .map(Questionnaire::getId)
+                .collect(Collectors.toSet());
+        Map<UUID, List<UserResponse>> teamResponsesByQuestionnaire = questionnaireIds.isEmpty() ? Map.of()
+                : userResponseRepository.findByQuestionnaireIdInAndUserIdIn(questionnaireIds, myTeamIds).stream()
+                .collect(Collectors.groupingBy(UserResponse::getQuestionnaireId));
+
         for (CampaignEvaluation campaignEvaluation : campaignEvaluations) {
             for (Questionnaire questionnaire : campaignEvaluation.getQuestionnaires()) {
                 List<Long> myTeamIdsForThisQuestionnaire = myTeamIds.stream()
                         .filter(campaignEvaluation.getParticipantIds()::contains)
                         .collect(Collectors.toList());
 
-                List<UserResponse> teamResponsesForQuestionnaire = userResponseRepository
-                        .findByQuestionnaireIdAndUserIdIn(questionnaire.getId(), myTeamIds);
+                List<UserResponse> teamResponsesForQuestionnaire = teamResponsesByQuestionnaire
+                        .getOrDefault(questionnaire.getId(), List.of());
 
-                Integer globalProgress = calculateGlobalProgressForTeam(
-                        questionnaire, teamResponsesForQuestionnaire, myTeamIdsForThisQuestionnaire);
-                String globalIsSentToManager = calculateGlobalIsSentToAdmin(
-                        questionnaire, teamResponsesForQuestionnaire, myTeamIdsForThisQuestionnaire);
+                TeamProgressAggregator aggregator = TeamProgressAggregator.aggregate(
+                        questionnaireDefinitionCacheService.getRequired(questionnaire.getId()),
+                        teamResponsesForQuestionnaire, myTeamIdsForThisQuestionnaire);
+                Integer globalProgress = aggregator.getGlobalProgress();
+                String globalIsSentToManager = aggregator.getGlobalIsSentToAdmin();
 
                 GetTeamEvaluationsDto dto = GetTeamEvaluationsDto.builder()
                         .id(questionnaire.getId())
@@ -932,11 +588,18 @@ public class TeamEvaluationsServiceImpl implements TeamEvaluationsService {
             userResponse.setLastModifiedDate(LocalDate.now());
         });
         userResponseRepository.saveAll(userResponsesToUpdate);
+        evaluationSyntheseCacheService.evictAll(userResponsesToUpdate.stream().map(UserResponse::getGroupeEvaluationId).toList());
 
         // Étape 2: Créer conditionnellement un "Besoin" (Need)
-        Questionnaire questionnaire = questionnaireRepository.findById(questionnaireId)
+        QuestionnaireDefinition questionnaire = questionnaireDefinitionCacheService.get(questionnaireId)
                 .orElse(null);
 
+        if (questionnaire != null) {
+            userResponsesToUpdate.stream()
+                    .collect(Collectors.groupingBy(UserResponse::getUserId))
+                    .forEach((userId, responses) -> evaluationProgressService.refresh(userId, questionnaire, responses));
+        }
+
         if (questionnaire == null) {
             System.err.println("Questionnaire non trouvé avec l'ID: " + questionnaireId + ". La création de Besoin est annulée.");
             // Vous pouvez choisir de retourner une réponse d'erreur ici si le questionnaire est crucial.
@@ -946,9 +609,8 @@ public class TeamEvaluationsServiceImpl implements TeamEvaluationsService {
 
         if ("Récensement des besoins de formation".equals(questionnaire.getType())) {
             // Trouver la définition de la question "Thème" dans le questionnaire
-            Question themeQuestionDefinition = questionnaire.getQuestions().stream()
-                    .filter(q -> "Thème".equals(q.getText())) // Attention: sensible à la casse et au texte exact
-                    .findFirst()
+            QuestionnaireDefinition.QuestionDefinition themeQuestionDefinition = questionnaire
+                    .findQuestionByText("Thème") // Attention: sensible à la casse et au texte exact
                     .orElse(null);
 
             if (themeQuestionDefinition == null) {
@@ -1102,21 +764,25 @@ public class TeamEvaluationsServiceImpl implements TeamEvaluationsService {
         log.info("Found {} total responses for groupe evaluation {}",
                 allResponsesForEvaluation.size(), groupeEvaluationId);
 
+        // Agréger toutes les réponses en une seule passe
+        TeamProgressAggregator aggregator = TeamProgressAggregator.aggregate(
+                questionnaireDefinitionCacheService.getRequired(questionnaire.getId()), allResponsesForEvaluation, allParticipantIds);
+
+        // Un seul appel à l'auth-service pour tous les participants
+        Map<Long, TeamEvaluationDetailsForUserDto> participantsById = participantCacheService.getParticipants(allParticipantIds);
+
         // ✅ INCHANGÉ : Traiter chaque participant
         for (Long userId : allParticipantIds) {
-            // ✅ INCHANGÉ : Filtrer les réponses pour l'utilisateur courant
-            List<UserResponse> userResponsesForThisUser = allResponsesForEvaluation.stream()
-                    .filter(response -> response.getUserId().equals(userId))
-                    .collect(Collectors.toList());
+            TeamProgressAggregator.UserProgress userProgress = aggregator.forUser(userId);
 
             // ✅ INCHANGÉ : Calcul de la progression individuelle
-            int progress = calculateUserProgressForQuestionnaire(userId, questionnaire, userResponsesForThisUser);
+            int progress = userProgress.getProgress();
 
             // ✅ INCHANGÉ : Déterminer le statut individuel
-            String status = calculateIndividualIsSentToAdmin(questionnaire, userResponsesForThisUser, userId);
+            String status = userProgress.getSentToAdminStatus();
 
             // ✅ INCHANGÉ : Récupérer les détails de l'utilisateur
-            TeamEvaluationDetailsForUserDto userDetailsFromAuth = authServiceClient.getParticipant(userId);
+            TeamEvaluationDetailsForUserDto userDetailsFromAuth = participantsById.get(userId);
             String name = "Utilisateur Inconnu";
             String firstName = "Inconnu";
             String lastName = "Inconnu";
@@ -1137,13 +803,9 @@ public class TeamEvaluationsServiceImpl implements TeamEvaluationsService {
             }
 
             // ✅ INCHANGÉ : Récupérer les statuts d'envoi
-            Boolean isSentToManager = false;
-            Boolean isSentToAdmin = false;
-            if (!userResponsesForThisUser.isEmpty()) {
-                UserResponse firstResponse = userResponsesForThisUser.get(0);
-                isSentToManager = firstResponse.getIsSentToManager();
-                isSentToAdmin = firstResponse.getIsSentToAdmin();
-            } else {
+            Boolean isSentToManager = userProgress.getFirstIsSentToManager();
+            Boolean isSentToAdmin = userProgress.getFirstIsSentToAdmin();
+            if (!userProgress.hasResponses()) {
                 log.debug("Aucune réponse trouvée pour l'utilisateur ID: {} dans la groupe evaluation {}", userId, groupeEvaluationId);
             }
 
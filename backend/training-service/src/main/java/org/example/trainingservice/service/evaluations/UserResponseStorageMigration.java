@@ -0,0 +1,43 @@
+package org.example.trainingservice.service.evaluations;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.trainingservice.repository.evaluation.UserResponseRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Reprise des réponses existantes vers le stockage compact :
+ * - les choix multiples de l'ancienne table user_response_multiple_choice_response sont copiés dans la colonne JSON ;
+ * - le code answer_type est renseigné à partir de response_type (les types inconnus restent NULL).
+ * Idempotent : seules les lignes non migrées sont mises à jour. L'ancienne table est renommée
+ * user_response_multiple_choice_response_migrated après la copie (à supprimer manuellement), la copie ne se rejoue donc pas.
+ * S'exécute avant les autres reprises au démarrage, qui lisent les réponses.
+ */
+@Component
+@Slf4j
+public class UserResponseStorageMigration {
+    private final UserResponseRepository userResponseRepository;
+
+    public UserResponseStorageMigration(UserResponseRepository userResponseRepository) {
+        this.userResponseRepository = userResponseRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    @Transactional
+    public void migrate() {
+        if (userResponseRepository.legacyMultipleChoiceTableExists()) {
+            int migrated = userResponseRepository.migrateLegacyMultipleChoiceAnswers();
+            userResponseRepository.renameLegacyMultipleChoiceTable();
+            log.info("Migrated multiple choice answers of {} user responses to the JSON column, legacy table renamed.", migrated);
+        }
+
+        int typed = userResponseRepository.backfillAnswerTypes();
+        if (typed > 0) {
+            log.info("Backfilled answer type of {} user responses.", typed);
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package org.example.trainingservice.service.groups;
 
 import lombok.extern.slf4j.Slf4j;
+import org.example.trainingservice.cacheService.UserTrainingHistoryCacheService;
 import org.example.trainingservice.entity.Groupe;
 import org.example.trainingservice.entity.Need;
 import org.example.trainingservice.exceptions.GroupeNotFoundException;
 import org.example.trainingservice.repository.GroupeRepository;
 import org.example.trainingservice.repository.NeedRepository;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
@@ -21,6 +23,7 @@ public class GroupDeletionServiceImpl implements GroupDeletionService {
     }
 
     @Override
+    @CacheEvict(value = UserTrainingHistoryCacheService.CACHE_NAME, allEntries = true)
     public ResponseEntity<?> deleteGroup(Long groupId) {
         Groupe groupe = groupeRepository.findById(groupId).orElseThrow(() -> new GroupeNotFoundException("Groupe non trouvé avec l'ID : " + groupId, null));
         Need needAssociated = groupe.getNeed();
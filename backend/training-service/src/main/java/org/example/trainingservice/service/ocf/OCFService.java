@@ -2,6 +2,8 @@ package org.example.trainingservice.service.ocf;
 
 import org.example.trainingservice.dto.ocf.OCFCreateDto;
 import org.example.trainingservice.dto.ocf.OCFUpdateDto;
+import org.example.trainingservice.dto.plan.CompleteUploadDto;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -37,7 +39,11 @@ public interface OCFService {
 
     ResponseEntity<?> updateStatus(Long id);
 
-    ResponseEntity<byte[]> getPdf(Long ocfId, String fileType);
+    ResponseEntity<?> getPdf(Long ocfId, String fileType, HttpHeaders requestHeaders);
+
+    ResponseEntity<?> getPdfUrl(Long ocfId, String fileType);
+
+    ResponseEntity<?> attachUploadedFile(Long ocfId, String fileType, CompleteUploadDto completeUploadDto);
 
     ResponseEntity<?> deleteOCF(Long ocfId);
 
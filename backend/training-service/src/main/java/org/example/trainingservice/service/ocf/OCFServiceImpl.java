@@ -3,8 +3,10 @@ package org.example.trainingservice.service.ocf;
 import lombok.extern.slf4j.Slf4j;
 import org.example.trainingservice.dto.ocf.OCFCreateDto;
 import org.example.trainingservice.dto.ocf.OCFUpdateDto;
+import org.example.trainingservice.dto.plan.CompleteUploadDto;
 import org.example.trainingservice.entity.OCF;
 import org.example.trainingservice.enums.OCFStatusEnum;
+import org.example.trainingservice.enums.UploadCategory;
 import org.example.trainingservice.repository.OCFRepository;
 import org.example.trainingservice.service.plan.FileStorageService;
 import org.example.trainingservice.utils.OCFUtilMethods;
@@ -16,6 +18,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -24,6 +27,11 @@ public class OCFServiceImpl implements OCFService {
     private final OCFRepository ocfRepository;
     private final FileStorageService fileStorageService;
 
+    private static final List<String> FILE_FIELDS = List.of(
+            "legalStatusFile", "eligibilityCertificateFile", "jrcTemplateFile",
+            "insurancePolicyFile", "taxComplianceCertificateFile", "bankStatementCertificateFile",
+            "termsAndConditionsFile", "otherCertificationsFile"
+    );
 
     public OCFServiceImpl(OCFRepository ocfRepository, FileStorageService fileStorageService) {
         this.ocfRepository = ocfRepository;
@@ -162,7 +170,7 @@ public class OCFServiceImpl implements OCFService {
     }
 
     @Override
-    public ResponseEntity<byte[]> getPdf(Long ocfId, String fileType) {
+    public ResponseEntity<?> getPdf(Long ocfId, String fileType, HttpHeaders requestHeaders) {
         try {
             Optional<OCF> ocfOptional = ocfRepository.findById(ocfId);
 
@@ -183,15 +191,7 @@ public class OCFServiceImpl implements OCFService {
                 return ResponseEntity.notFound().build();
             }
 
-            byte[] fileContent = fileStorageService.downloadFile(fileName);
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            headers.setContentDispositionFormData("inline", fileName);
-
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(fileContent);
+            return fileStorageService.streamFile(fileName, fileName, MediaType.APPLICATION_PDF, true, requestHeaders);
 
         } catch (Exception e) {
             log.error("Error downloading PDF: {}", e.getMessage(), e);
@@ -199,6 +199,73 @@ public class OCFServiceImpl implements OCFService {
         }
     }
 
+    @Override
+    public ResponseEntity<?> getPdfUrl(Long ocfId, String fileType) {
+        Optional<OCF> ocfOptional = ocfRepository.findById(ocfId);
+        if (ocfOptional.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        OCF ocf = ocfOptional.get();
+        if (!ocf.getCompanyId().equals(SecurityUtils.getCurrentCompanyId())) {
+            return ResponseEntity.status(403).build();
+        }
+
+        String fileName = getFileNameByType(ocf, fileType);
+        if (fileName == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(fileStorageService.createPresignedDownloadUrl(fileName, fileName));
+    }
+
+    @Override
+    public ResponseEntity<?> attachUploadedFile(Long ocfId, String fileType, CompleteUploadDto completeUploadDto) {
+        try {
+            Optional<OCF> ocfOptional = ocfRepository.findById(ocfId);
+            if (ocfOptional.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+
+            OCF ocf = ocfOptional.get();
+            Long companyId = SecurityUtils.getCurrentCompanyId();
+            if (!ocf.getCompanyId().equals(companyId)) {
+                return ResponseEntity.status(403).build();
+            }
+            if (!FILE_FIELDS.contains(fileType)) {
+                return ResponseEntity.badRequest().body("Type de fichier inconnu : " + fileType);
+            }
+
+            // Vérifier le fichier envoyé directement vers MinIO
+            String objectKey = completeUploadDto.getObjectKey();
+            fileStorageService.verifyDirectUpload(objectKey, companyId, UploadCategory.OCF);
+
+            // Enregistrer le nouveau fichier avant de supprimer l'ancien : un échec d'enregistrement
+            // laisse l'OCF pointer sur un fichier toujours présent
+            String oldFileName = getFieldValue(ocf, fileType);
+            setFieldValue(ocf, fileType, objectKey);
+            ocfRepository.save(ocf);
+
+            if (oldFileName != null && !oldFileName.equals(objectKey)) {
+                try {
+                    fileStorageService.deleteFile(oldFileName);
+                } catch (Exception e) {
+                    log.warn("Could not delete replaced file {} of OCF {}: {}", oldFileName, ocfId, e.getMessage());
+                }
+            }
+
+            log.info("Direct upload attached to OCF {}: {} -> {}", ocfId, fileType, objectKey);
+            return ResponseEntity.ok(Map.of("fileName", objectKey));
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Direct upload rejected for OCF {}: {}", ocfId, e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error attaching uploaded file to OCF {}: {}", ocfId, e.getMessage(), e);
+            return ResponseEntity.internalServerError()
+                    .body("Erreur lors de l'enregistrement du fichier: " + e.getMessage());
+        }
+    }
+
     @Override
     public ResponseEntity<?> deleteOCF(Long ocfId) {
         try {
@@ -245,15 +312,9 @@ public class OCFServiceImpl implements OCFService {
      * Upload et définit les fichiers pour un OCF
      */
     private OCF uploadAndSetFiles(OCF ocf, MultipartFile... files) {
-        String[] fileFields = {
-                "legalStatusFile", "eligibilityCertificateFile", "jrcTemplateFile",
-                "insurancePolicyFile", "taxComplianceCertificateFile", "bankStatementCertificateFile",
-                "termsAndConditionsFile", "otherCertificationsFile"
-        };
-
-        for (int i = 0; i < files.length && i < fileFields.length; i++) {
+        for (int i = 0; i < files.length && i < FILE_FIELDS.size(); i++) {
             MultipartFile file = files[i];
-            String fieldName = fileFields[i];
+            String fieldName = FILE_FIELDS.get(i);
 
             if (file != null && !file.isEmpty()) {
                 try {
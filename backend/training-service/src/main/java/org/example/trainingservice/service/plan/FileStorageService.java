@@ -1,16 +1,26 @@
 package org.example.trainingservice.service.plan;
 
-import io.minio.GetObjectArgs;
-import io.minio.MinioClient;
-import io.minio.PutObjectArgs;
-import io.minio.RemoveObjectArgs;
+import io.minio.*;
+import io.minio.errors.ErrorResponseException;
+import io.minio.http.Method;
 import lombok.extern.slf4j.Slf4j;
+import org.example.trainingservice.dto.plan.PresignedUrlDto;
+import org.example.trainingservice.enums.UploadCategory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
@@ -18,10 +28,18 @@ public class FileStorageService {
     @Value("${minio.bucket-name}")
     private String bucketName;
 
+    @Value("${minio.presigned-url-expiry-minutes:15}")
+    private int presignedUrlExpiryMinutes;
+
+    @Value("${minio.direct-upload.max-size-mb:100}")
+    private long directUploadMaxSizeMb;
+
     private final MinioClient minioClient;
+    private final MinioClient minioPresignClient;
 
-    public FileStorageService(MinioClient minioClient) {
+    public FileStorageService(MinioClient minioClient, @Qualifier("minioPresignClient") MinioClient minioPresignClient) {
         this.minioClient = minioClient;
+        this.minioPresignClient = minioPresignClient;
     }
 
     /**
@@ -53,21 +71,134 @@ public class FileStorageService {
     }
 
     /**
-     * Télécharge un fichier depuis MinIO.
+     * Télécharge un fichier depuis MinIO en flux, sans le charger en mémoire.
+     * Gère les requêtes conditionnelles (ETag / If-None-Match -> 304) et une plage unique (Range / If-Range -> 206).
      *
-     * @param objectName Le nom unique du fichier à télécharger.
-     * @return Le contenu du fichier en tant que tableau de bytes.
+     * @param objectName     Le nom unique du fichier à télécharger.
+     * @param fileName       Le nom proposé au navigateur.
+     * @param mediaType      Le type du contenu, ou null pour reprendre celui enregistré dans MinIO.
+     * @param inline         Affichage dans le navigateur (true) ou pièce jointe (false).
+     * @param requestHeaders Les en-têtes de la requête HTTP.
      */
-    public byte[] downloadFile(String objectName) {
-        try (InputStream stream = minioClient.getObject(
-                GetObjectArgs.builder()
-                        .bucket(bucketName)
-                        .object(objectName)
-                        .build())) {
-            return stream.readAllBytes();
+    public ResponseEntity<Resource> streamFile(String objectName, String fileName, MediaType mediaType,
+                                               boolean inline, HttpHeaders requestHeaders) {
+        StatObjectResponse stat;
+        try {
+            stat = minioClient.statObject(
+                    StatObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(objectName)
+                            .build());
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors du téléchargement du fichier : " + e.getMessage(), e);
         }
+
+        long size = stat.size();
+        String eTag = "\"" + stat.etag() + "\"";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(eTag);
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        // 1. Le client possède déjà cette version du fichier
+        if (matchesETag(requestHeaders.getIfNoneMatch(), eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+        }
+
+        headers.setContentType(mediaType != null ? mediaType : resolveMediaType(stat.contentType()));
+        headers.setContentDisposition((inline ? ContentDisposition.inline() : ContentDisposition.attachment())
+                .filename(fileName != null ? fileName : objectName, StandardCharsets.UTF_8)
+                .build());
+
+        // 2. Plage demandée (une seule ; ignorée si If-Range ne correspond plus à la version courante)
+        HttpRange range = resolveRange(requestHeaders, eTag);
+        if (range != null) {
+            long start = range.getRangeStart(size);
+            if (size == 0 || start >= size) {
+                headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).headers(headers).build();
+            }
+            long end = range.getRangeEnd(size);
+            long length = end - start + 1;
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            headers.setContentLength(length);
+            return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                    .headers(headers)
+                    .body(new InputStreamResource(openStream(objectName, start, length)));
+        }
+
+        // 3. Fichier complet
+        headers.setContentLength(size);
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(new InputStreamResource(openStream(objectName, null, null)));
+    }
+
+    /**
+     * Ouvre un flux de lecture sur un fichier MinIO. L'appelant doit fermer le flux.
+     *
+     * @param objectName Le nom unique du fichier à lire.
+     */
+    public InputStream openFile(String objectName) {
+        return openStream(objectName, null, null);
+    }
+
+    /**
+     * Construit la clé d'un objet envoyé directement par le navigateur : {companyId}/{catégorie}/{uuid}-{nom}.
+     * Le préfixe de l'entreprise permet de vérifier à la finalisation que la clé appartient bien au tenant.
+     */
+    public String buildTenantObjectKey(Long companyId, UploadCategory category, String fileName) {
+        String safeName = fileName != null ? fileName.replaceAll("[^A-Za-z0-9._-]", "_") : "fichier";
+        return companyId + "/" + category.getPrefix() + "/" + UUID.randomUUID() + "-" + safeName;
+    }
+
+    /**
+     * Génère une URL PUT présignée, valable quelques minutes, pour envoyer un fichier directement vers MinIO.
+     */
+    public PresignedUrlDto createPresignedUploadUrl(String objectKey) {
+        return presign(Method.PUT, objectKey, Map.of());
+    }
+
+    /**
+     * Génère une URL GET présignée, valable quelques minutes, pour télécharger un fichier directement depuis MinIO.
+     */
+    public PresignedUrlDto createPresignedDownloadUrl(String objectKey, String fileName) {
+        String disposition = ContentDisposition.inline()
+                .filename(fileName != null ? fileName : objectKey, StandardCharsets.UTF_8)
+                .build()
+                .toString();
+        return presign(Method.GET, objectKey, Map.of("response-content-disposition", disposition));
+    }
+
+    /**
+     * Vérifie un fichier envoyé via une URL présignée avant de l'enregistrer sur une entité :
+     * clé du tenant et de la catégorie attendus, objet présent et taille maximale respectée.
+     * Un objet trop volumineux est supprimé.
+     *
+     * @throws IllegalArgumentException si le fichier ne peut pas être accepté.
+     */
+    public void verifyDirectUpload(String objectKey, Long companyId, UploadCategory category) {
+        String expectedPrefix = companyId + "/" + category.getPrefix() + "/";
+        if (objectKey == null || !objectKey.startsWith(expectedPrefix) || objectKey.contains("..")) {
+            throw new IllegalArgumentException("Clé de fichier invalide");
+        }
+
+        long size;
+        try {
+            size = minioClient.statObject(
+                    StatObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(objectKey)
+                            .build()).size();
+        } catch (ErrorResponseException e) {
+            throw new IllegalArgumentException("Fichier introuvable dans le stockage");
+        } catch (Exception e) {
+            throw new RuntimeException("Erreur lors de la vérification du fichier : " + e.getMessage(), e);
+        }
+
+        if (size > directUploadMaxSizeMb * 1024 * 1024) {
+            deleteFile(objectKey);
+            throw new IllegalArgumentException("Le fichier dépasse la taille maximale de " + directUploadMaxSizeMb + " Mo");
+        }
     }
 
     /**
@@ -90,6 +221,81 @@ public class FileStorageService {
     }
 
 
+    private PresignedUrlDto presign(Method method, String objectKey, Map<String, String> extraQueryParams) {
+        try {
+            String url = minioPresignClient.getPresignedObjectUrl(
+                    GetPresignedObjectUrlArgs.builder()
+                            .method(method)
+                            .bucket(bucketName)
+                            .object(objectKey)
+                            .expiry(presignedUrlExpiryMinutes, TimeUnit.MINUTES)
+                            .extraQueryParams(extraQueryParams)
+                            .build());
+            return PresignedUrlDto.builder()
+                    .objectKey(objectKey)
+                    .url(url)
+                    .method(method.name())
+                    .expiresAt(LocalDateTime.now().plusMinutes(presignedUrlExpiryMinutes))
+                    .build();
+        } catch (Exception e) {
+            throw new RuntimeException("Erreur lors de la génération de l'URL présignée : " + e.getMessage(), e);
+        }
+    }
+
+    private InputStream openStream(String objectName, Long offset, Long length) {
+        try {
+            return minioClient.getObject(
+                    GetObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(objectName)
+                            .offset(offset)
+                            .length(length)
+                            .build());
+        } catch (Exception e) {
+            throw new RuntimeException("Erreur lors du téléchargement du fichier : " + e.getMessage(), e);
+        }
+    }
+
+    private boolean matchesETag(List<String> requestETags, String eTag) {
+        for (String requestETag : requestETags) {
+            String value = requestETag.startsWith("W/") ? requestETag.substring(2) : requestETag;
+            if ("*".equals(value) || eTag.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Plage unique demandée, ou null si absente, multiple, invalide ou si If-Range ne désigne plus la version courante.
+     */
+    static HttpRange resolveRange(HttpHeaders requestHeaders, String eTag) {
+        String rangeHeader = requestHeaders.getFirst(HttpHeaders.RANGE);
+        if (rangeHeader == null) {
+            return null;
+        }
+        String ifRange = requestHeaders.getFirst(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(eTag)) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            // Les plages multiples (multipart/byteranges) ne sont pas gérées : le fichier complet est renvoyé
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid Range header ignored: {}", rangeHeader);
+            return null;
+        }
+    }
+
+    private MediaType resolveMediaType(String contentType) {
+        try {
+            return contentType != null ? MediaType.parseMediaType(contentType) : MediaType.APPLICATION_OCTET_STREAM;
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+    }
+
     private String generateUniqueFileName(String originalFilename) {
         String extension = "";
         if (originalFilename != null && originalFilename.contains(".")) {
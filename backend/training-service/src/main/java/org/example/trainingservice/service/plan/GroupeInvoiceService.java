@@ -1,7 +1,9 @@
 package org.example.trainingservice.service.plan;
 
 import org.example.trainingservice.dto.plan.AddGroupeInvoiceDto;
+import org.example.trainingservice.dto.plan.CompleteUploadDto;
 import org.example.trainingservice.web.plan.UpdateGroupeInvoiceStatusDto;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -20,7 +22,11 @@ public interface GroupeInvoiceService {
 
     ResponseEntity<?> getGroupeInvoiceDetails(UUID invoiceId);
 
-    ResponseEntity<?> getPdf(UUID invoiceId, String fileType);
+    ResponseEntity<?> getPdf(UUID invoiceId, String fileType, HttpHeaders requestHeaders);
+
+    ResponseEntity<?> getPdfUrl(UUID invoiceId, String fileType);
+
+    ResponseEntity<?> attachUploadedFile(UUID invoiceId, String fileType, CompleteUploadDto completeUploadDto);
 
     ResponseEntity<?> editGroupeInvoice(UUID invoiceId, AddGroupeInvoiceDto invoice, MultipartFile invoiceFile, MultipartFile bankRemiseFile, MultipartFile receiptFile);
 }
\ No newline at end of file
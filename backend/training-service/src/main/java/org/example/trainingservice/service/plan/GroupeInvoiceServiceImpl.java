@@ -2,27 +2,35 @@ package org.example.trainingservice.service.plan;
 
 import lombok.extern.slf4j.Slf4j;
 import org.example.trainingservice.dto.plan.AddGroupeInvoiceDto;
+import org.example.trainingservice.dto.plan.CompleteUploadDto;
 import org.example.trainingservice.entity.plan.GroupeInvoice;
 import org.example.trainingservice.entity.plan.TrainingGroupe;
 import org.example.trainingservice.enums.GroupeInvoiceStatusEnums;
+import org.example.trainingservice.enums.UploadCategory;
 import org.example.trainingservice.exceptions.TrainingGroupeNotFoundException;
 import org.example.trainingservice.repository.plan.GroupeInvoiceRepository;
 import org.example.trainingservice.repository.plan.TrainingGroupeRepository;
 import org.example.trainingservice.utils.GroupeInvoiceUtilMethods;
 import org.example.trainingservice.utils.SecurityUtils;
 import org.example.trainingservice.web.plan.UpdateGroupeInvoiceStatusDto;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 @Slf4j
 @Service
 public class GroupeInvoiceServiceImpl implements GroupeInvoiceService {
+    private static final List<String> FILE_TYPES = List.of(
+            "invoice", "facture", "bankremise", "remise", "receipt", "recu"
+    );
+
     private final GroupeInvoiceRepository groupeInvoiceRepository;
     private final TrainingGroupeRepository trainingGroupeRepository;
     private final FileStorageService fileStorageService;
@@ -180,20 +188,80 @@ public class GroupeInvoiceServiceImpl implements GroupeInvoiceService {
     }
 
     @Override
-    public ResponseEntity<?> getPdf(UUID invoiceId, String fileType) {
+    public ResponseEntity<?> getPdf(UUID invoiceId, String fileType, HttpHeaders requestHeaders) {
         log.info("Get PDF for invoice {}", invoiceId);
         Optional<GroupeInvoice> foundGroupeInvoice = groupeInvoiceRepository.findById(invoiceId);
         if (foundGroupeInvoice.isPresent()) {
             GroupeInvoice groupeInvoice = foundGroupeInvoice.get();
             String fileNameByType = getFileNameByType(groupeInvoice, fileType);
+            if (fileNameByType == null) {
+                return ResponseEntity.notFound().build();
+            }
 
-            byte[] bytes = fileStorageService.downloadFile(fileNameByType);
-
-            return ResponseEntity.ok(bytes);
+            return fileStorageService.streamFile(fileNameByType, fileNameByType, null, true, requestHeaders);
         }
         return ResponseEntity.notFound().build();
     }
 
+    @Override
+    public ResponseEntity<?> getPdfUrl(UUID invoiceId, String fileType) {
+        log.info("Get PDF URL for invoice {}", invoiceId);
+        Optional<GroupeInvoice> foundGroupeInvoice = groupeInvoiceRepository.findById(invoiceId);
+        if (foundGroupeInvoice.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        GroupeInvoice groupeInvoice = foundGroupeInvoice.get();
+        if (!groupeInvoice.getCompanyId().equals(SecurityUtils.getCurrentCompanyId())) {
+            return ResponseEntity.status(403).build();
+        }
+
+        String fileNameByType = getFileNameByType(groupeInvoice, fileType);
+        if (fileNameByType == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(fileStorageService.createPresignedDownloadUrl(fileNameByType, fileNameByType));
+    }
+
+    @Override
+    public ResponseEntity<?> attachUploadedFile(UUID invoiceId, String fileType, CompleteUploadDto completeUploadDto) {
+        log.info("Attach direct upload to invoice {} ({})", invoiceId, fileType);
+        Optional<GroupeInvoice> foundGroupeInvoice = groupeInvoiceRepository.findById(invoiceId);
+        if (foundGroupeInvoice.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        GroupeInvoice groupeInvoice = foundGroupeInvoice.get();
+        Long companyId = SecurityUtils.getCurrentCompanyId();
+        if (!groupeInvoice.getCompanyId().equals(companyId)) {
+            return ResponseEntity.status(403).build();
+        }
+
+        if (!FILE_TYPES.contains(fileType.toLowerCase())) {
+            return ResponseEntity.badRequest().body("Type de fichier inconnu : " + fileType);
+        }
+
+        String objectKey = completeUploadDto.getObjectKey();
+        try {
+            // Vérifier le fichier envoyé directement vers MinIO avant de modifier la facture
+            fileStorageService.verifyDirectUpload(objectKey, companyId, UploadCategory.GROUPE_INVOICE);
+        } catch (IllegalArgumentException e) {
+            log.warn("Direct upload rejected for invoice {}: {}", invoiceId, e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+
+        String oldFileName = getFileNameByType(groupeInvoice, fileType);
+        setFileNameByType(groupeInvoice, fileType, objectKey);
+        groupeInvoiceRepository.save(groupeInvoice);
+
+        // Supprimer l'ancien fichier remplacé
+        if (oldFileName != null && !oldFileName.equals(objectKey)) {
+            deleteFileIfPresent(oldFileName);
+        }
+
+        return ResponseEntity.ok(Map.of("fileName", objectKey));
+    }
+
     @Override
     public ResponseEntity<?> editGroupeInvoice(
             UUID invoiceId, AddGroupeInvoiceDto updateDto,
@@ -312,5 +380,17 @@ public class GroupeInvoiceServiceImpl implements GroupeInvoiceService {
             default -> null;
         };
     }
+
+    /**
+     * Définir le nom de fichier selon le type (type déjà validé par FILE_TYPES)
+     */
+    private void setFileNameByType(GroupeInvoice invoice, String fileType, String fileName) {
+        switch (fileType.toLowerCase()) {
+            case "invoice", "facture" -> invoice.setInvoiceFile(fileName);
+            case "bankremise", "remise" -> invoice.setBankRemiseFile(fileName);
+            case "receipt", "recu" -> invoice.setReceiptFile(fileName);
+            default -> throw new IllegalArgumentException("Type de fichier inconnu : " + fileType);
+        }
+    }
     /*************************************************************/
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package org.example.trainingservice.service.plan;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.UUID;
+
+public interface PlanRolloverService {
+    ResponseEntity<?> startRollover(UUID planId, Integer targetYear);
+
+    ResponseEntity<?> getJob(UUID jobId);
+}
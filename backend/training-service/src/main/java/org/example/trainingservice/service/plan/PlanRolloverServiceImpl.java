@@ -0,0 +1,291 @@
+package org.example.trainingservice.service.plan;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.trainingservice.dto.plan.PlanRolloverJobDto;
+import org.example.trainingservice.entity.plan.Plan;
+import org.example.trainingservice.entity.plan.PlanRolloverJob;
+import org.example.trainingservice.enums.PlanRolloverStatus;
+import org.example.trainingservice.enums.PlanStatusEnum;
+import org.example.trainingservice.repository.plan.PlanRepository;
+import org.example.trainingservice.repository.plan.PlanRolloverJobRepository;
+import org.example.trainingservice.repository.plan.TrainingGroupeRepository;
+import org.example.trainingservice.repository.plan.TrainingRepository;
+import org.example.trainingservice.utils.SecurityUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Reconduction d'un plan dans un nouvel exercice.
+ * La requête crée le job et rend la main (202) ; la copie s'exécute en tâche de fond, par lots de formations :
+ * chaque lot copie formations et groupes en deux INSERT ... SELECT dans sa propre transaction, puis met à jour la progression.
+ * Dates, séances, statuts, OCF, factures et invitations ne sont pas reconduits.
+ * En cas d'échec ou d'interruption, le plan cible et tout ce qui y a été copié sont supprimés :
+ * une nouvelle tentative repart d'un état propre. Chaque lot met à jour le heartbeat du job ;
+ * un job actif sans heartbeat depuis STALE_AFTER est considéré comme interrompu, sur toutes les instances.
+ */
+@Service
+@Slf4j
+public class PlanRolloverServiceImpl implements PlanRolloverService {
+    private static final int CHUNK_SIZE = 200;
+    private static final Duration STALE_AFTER = Duration.ofMinutes(10);
+    private static final List<PlanRolloverStatus> ACTIVE_STATUSES = List.of(PlanRolloverStatus.PENDING, PlanRolloverStatus.RUNNING);
+
+    private final PlanRepository planRepository;
+    private final TrainingRepository trainingRepository;
+    private final TrainingGroupeRepository trainingGroupeRepository;
+    private final PlanRolloverJobRepository planRolloverJobRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+
+    public PlanRolloverServiceImpl(
+            PlanRepository planRepository,
+            TrainingRepository trainingRepository,
+            TrainingGroupeRepository trainingGroupeRepository,
+            PlanRolloverJobRepository planRolloverJobRepository,
+            PlatformTransactionManager transactionManager,
+            @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor
+    ) {
+        this.planRepository = planRepository;
+        this.trainingRepository = trainingRepository;
+        this.trainingGroupeRepository = trainingGroupeRepository;
+        this.planRolloverJobRepository = planRolloverJobRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.taskExecutor = taskExecutor;
+    }
+
+    @Override
+    public ResponseEntity<?> startRollover(UUID planId, Integer targetYear) {
+        Long companyId = SecurityUtils.getCurrentCompanyId();
+        Plan source = planRepository.findById(planId)
+                .filter(plan -> companyId.equals(plan.getCompanyId()))
+                .orElse(null);
+        if (source == null) {
+            log.warn("Plan {} not found for company {}", planId, companyId);
+            return ResponseEntity.notFound().build();
+        }
+
+        int sourceYear = source.getYear() != null ? source.getYear() : LocalDate.now().getYear();
+        int year = targetYear != null ? targetYear : sourceYear + 1;
+        if (year <= sourceYear) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "L'exercice cible doit être postérieur à l'exercice du plan"));
+        }
+        failStaleJobs();
+        if (planRolloverJobRepository.existsLiveJob(planId, ACTIVE_STATUSES, LocalDateTime.now().minus(STALE_AFTER))) {
+            return rolloverInProgress();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        PlanRolloverJob job;
+        try {
+            job = planRolloverJobRepository.saveAndFlush(PlanRolloverJob.builder()
+                    .companyId(companyId)
+                    .sourcePlanId(planId)
+                    .targetYear(year)
+                    .status(PlanRolloverStatus.PENDING)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // Requête concurrente passée entre la vérification et l'insertion : refusée par l'index unique partiel
+            return rolloverInProgress();
+        }
+
+        try {
+            taskExecutor.execute(() -> run(job.getId()));
+        } catch (RejectedExecutionException e) {
+            fail(job.getId(), "Service en cours d'arrêt", LocalDateTime.now().plusSeconds(1));
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+
+        log.info("Plan rollover {} queued: plan {} -> {}", job.getId(), planId, year);
+        return ResponseEntity.accepted().body(toDto(job));
+    }
+
+    @Override
+    public ResponseEntity<?> getJob(UUID jobId) {
+        return planRolloverJobRepository.findByIdAndCompanyId(jobId, SecurityUtils.getCurrentCompanyId())
+                .<ResponseEntity<?>>map(job -> ResponseEntity.ok(toDto(job)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        failStaleJobs();
+        try {
+            planRolloverJobRepository.createActiveSourcePlanUniqueIndex();
+        } catch (Exception e) {
+            // La vérification par heartbeat reste en place sans l'index
+            log.warn("Could not create unique index on active plan rollovers: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Passe en échec les jobs actifs sans heartbeat récent (instance arrêtée pendant la copie)
+     * et supprime ce qu'ils avaient copié. Sans effet sur un job qui avance, quelle que soit son instance.
+     */
+    private void failStaleJobs() {
+        try {
+            LocalDateTime before = LocalDateTime.now().minus(STALE_AFTER);
+            for (PlanRolloverJob stale : planRolloverJobRepository.findStaleJobs(ACTIVE_STATUSES, before)) {
+                if (fail(stale.getId(), "Reconduction interrompue (aucune progression depuis " + STALE_AFTER.toMinutes() + " min)", before)) {
+                    log.warn("Interrupted plan rollover {} marked as failed", stale.getId());
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Could not clean up interrupted plan rollovers: {}", e.getMessage());
+        }
+    }
+
+    private void run(UUID jobId) {
+        try {
+            List<UUID> sourceTrainingIds = transactionTemplate.execute(status -> {
+                if (planRolloverJobRepository.claim(jobId, LocalDateTime.now()) == 0) {
+                    // Abandonné pendant l'attente dans la file
+                    return null;
+                }
+                PlanRolloverJob job = planRolloverJobRepository.findById(jobId).orElseThrow();
+                Plan source = planRepository.findById(job.getSourcePlanId()).orElseThrow();
+                Plan target = planRepository.save(buildTargetPlan(source, job.getTargetYear()));
+
+                List<UUID> ids = trainingRepository.findIdsByPlanId(source.getId());
+                job.setTargetPlanId(target.getId());
+                job.setTotalTrainings(ids.size());
+                return ids;
+            });
+            if (sourceTrainingIds == null) {
+                log.warn("Plan rollover {} was abandoned before it started", jobId);
+                return;
+            }
+
+            PlanRolloverJob job = planRolloverJobRepository.findById(jobId).orElseThrow();
+            String targetPlanId = job.getTargetPlanId().toString();
+            for (int from = 0; from < sourceTrainingIds.size(); from += CHUNK_SIZE) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new IllegalStateException("Reconduction interrompue");
+                }
+                List<UUID> chunk = sourceTrainingIds.subList(from, Math.min(from + CHUNK_SIZE, sourceTrainingIds.size()));
+                String[] sourceIds = chunk.stream().map(UUID::toString).toArray(String[]::new);
+                String[] targetIds = chunk.stream().map(id -> UUID.randomUUID().toString()).toArray(String[]::new);
+
+                transactionTemplate.executeWithoutResult(status -> {
+                    int trainings = trainingRepository.copyTrainingsToPlan(sourceIds, targetIds, targetPlanId, job.getTargetYear());
+                    int groups = trainingGroupeRepository.copyGroupesToTrainings(sourceIds, targetIds);
+                    if (planRolloverJobRepository.incrementProgress(jobId, trainings, groups, LocalDateTime.now()) == 0) {
+                        // Déclaré interrompu par une autre requête : ce lot est annulé avec le reste
+                        throw new IllegalStateException("Reconduction abandonnée");
+                    }
+                });
+            }
+
+            transactionTemplate.executeWithoutResult(status -> planRolloverJobRepository.findById(jobId)
+                    .filter(done -> done.getStatus() == PlanRolloverStatus.RUNNING)
+                    .ifPresent(done -> {
+                        done.setStatus(PlanRolloverStatus.COMPLETED);
+                        done.setFinishedAt(LocalDateTime.now());
+                        done.setUpdatedAt(LocalDateTime.now());
+                    }));
+            log.info("Plan rollover {} completed: {} trainings copied into plan {}", jobId, sourceTrainingIds.size(), targetPlanId);
+        } catch (Exception e) {
+            log.error("Plan rollover {} failed: {}", jobId, e.getMessage(), e);
+            fail(jobId, e.getMessage(), LocalDateTime.now().plusSeconds(1));
+        }
+    }
+
+    /**
+     * Passe le job en échec s'il est encore actif avec un heartbeat antérieur à before,
+     * puis supprime le plan cible et les formations et groupes déjà copiés, dans la même transaction.
+     *
+     * @return true si le job a été passé en échec par cet appel
+     */
+    private boolean fail(UUID jobId, String message, LocalDateTime before) {
+        try {
+            Boolean failed = transactionTemplate.execute(status -> {
+                String error = message != null && message.length() > 1000 ? message.substring(0, 1000) : message;
+                if (planRolloverJobRepository.fail(jobId, ACTIVE_STATUSES, before, error, LocalDateTime.now()) == 0) {
+                    return false;
+                }
+                planRolloverJobRepository.findById(jobId)
+                        .map(PlanRolloverJob::getTargetPlanId)
+                        .ifPresent(this::deleteTargetPlan);
+                return true;
+            });
+            return Boolean.TRUE.equals(failed);
+        } catch (Exception e) {
+            log.error("Could not mark plan rollover {} as failed: {}", jobId, e.getMessage());
+            return false;
+        }
+    }
+
+    private void deleteTargetPlan(UUID targetPlanId) {
+        int groups = trainingGroupeRepository.deleteByPlanId(targetPlanId);
+        int trainings = trainingRepository.deleteByPlanId(targetPlanId);
+        planRepository.deleteById(targetPlanId);
+        log.info("Rolled back partial plan {}: {} trainings and {} groups removed", targetPlanId, trainings, groups);
+    }
+
+    private ResponseEntity<?> rolloverInProgress() {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", "Une reconduction de ce plan est déjà en cours"));
+    }
+
+    private Plan buildTargetPlan(Plan source, int targetYear) {
+        int sourceYear = source.getYear() != null ? source.getYear() : targetYear - 1;
+        int shift = targetYear - sourceYear;
+        String title = source.getTitle() == null ? "Plan " + targetYear
+                : source.getTitle().contains(String.valueOf(sourceYear))
+                ? source.getTitle().replace(String.valueOf(sourceYear), String.valueOf(targetYear))
+                : source.getTitle() + " " + targetYear;
+
+        return Plan.builder()
+                .companyId(source.getCompanyId())
+                .title(title)
+                .startDate(source.getStartDate() != null ? source.getStartDate().plusYears(shift) : null)
+                .endDate(source.getEndDate() != null ? source.getEndDate().plusYears(shift) : null)
+                .year(targetYear)
+                .estimatedBudget(source.getEstimatedBudget())
+                .status(PlanStatusEnum.NOT_PLANNED)
+                .isCSFPlan(source.getIsCSFPlan())
+                .isOFPPTValidation(false)
+                .build();
+    }
+
+    private PlanRolloverJobDto toDto(PlanRolloverJob job) {
+        int progress;
+        if (job.getStatus() == PlanRolloverStatus.COMPLETED) {
+            progress = 100;
+        } else {
+            progress = job.getTotalTrainings() > 0 ? (job.getCopiedTrainings() * 100) / job.getTotalTrainings() : 0;
+        }
+        return PlanRolloverJobDto.builder()
+                .jobId(job.getId())
+                .sourcePlanId(job.getSourcePlanId())
+                .targetPlanId(job.getTargetPlanId())
+                .targetYear(job.getTargetYear())
+                .status(job.getStatus())
+                .totalTrainings(job.getTotalTrainings())
+                .copiedTrainings(job.getCopiedTrainings())
+                .copiedGroups(job.getCopiedGroups())
+                .progress(progress)
+                .errorMessage(job.getErrorMessage())
+                .createdAt(job.getCreatedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+}
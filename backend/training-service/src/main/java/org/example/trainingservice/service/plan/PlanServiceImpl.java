@@ -1,6 +1,7 @@
 package org.example.trainingservice.service.plan;
 
 import lombok.extern.slf4j.Slf4j;
+import org.example.trainingservice.cacheService.UserTrainingHistoryCacheService;
 import org.example.trainingservice.dto.plan.*;
 import org.example.trainingservice.entity.Groupe;
 import org.example.trainingservice.entity.Need;
@@ -9,18 +10,20 @@ import org.example.trainingservice.entity.TrainerForTrainingGroupe;
 import org.example.trainingservice.entity.plan.Plan;
 import org.example.trainingservice.entity.plan.Training;
 import org.example.trainingservice.entity.plan.TrainingGroupe;
-import org.example.trainingservice.enums.GroupeStatusEnums;
 import org.example.trainingservice.enums.NeedStatusEnums;
 import org.example.trainingservice.enums.PlanStatusEnum;
 import org.example.trainingservice.enums.TrainingStatusEnum;
 import org.example.trainingservice.exceptions.PlanNotFoundException;
+import org.example.trainingservice.repository.GroupeRepository;
 import org.example.trainingservice.repository.NeedRepository;
 import org.example.trainingservice.repository.TrainerForTrainingGroupeRepository;
 import org.example.trainingservice.repository.TrainerRepository;
 import org.example.trainingservice.repository.plan.PlanRepository;
+import org.example.trainingservice.repository.plan.TrainingGroupeRepository;
 import org.example.trainingservice.repository.plan.TrainingRepository;
 import org.example.trainingservice.utils.PlanUtilMethods;
 import org.example.trainingservice.utils.SecurityUtils;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -29,6 +32,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import java.time.LocalDate;
@@ -44,6 +50,8 @@ public class PlanServiceImpl implements PlanService {
     private final TrainerForTrainingGroupeRepository trainerForTrainingGroupeRepository;
     private final TrainerRepository trainerRepository;
     private final TrainingInvitationService trainingInvitationService;
+    private final TrainingGroupeRepository trainingGroupeRepository;
+    private final GroupeRepository groupeRepository;
 
 
     public PlanServiceImpl(
@@ -51,7 +59,8 @@ public class PlanServiceImpl implements PlanService {
             NeedRepository needRepository,
             TrainingRepository trainingRepository,
             TrainerForTrainingGroupeRepository trainerForTrainingGroupeRepository,
-            TrainerRepository trainerRepository, TrainingInvitationService trainingInvitationService
+            TrainerRepository trainerRepository, TrainingInvitationService trainingInvitationService,
+            TrainingGroupeRepository trainingGroupeRepository, GroupeRepository groupeRepository
     ) {
         this.planRepository = planRepository;
         this.needRepository = needRepository;
@@ -59,6 +68,8 @@ public class PlanServiceImpl implements PlanService {
         this.trainerForTrainingGroupeRepository = trainerForTrainingGroupeRepository;
         this.trainerRepository = trainerRepository;
         this.trainingInvitationService = trainingInvitationService;
+        this.trainingGroupeRepository = trainingGroupeRepository;
+        this.groupeRepository = groupeRepository;
     }
 
     /**
@@ -218,7 +229,7 @@ public class PlanServiceImpl implements PlanService {
         }
         Plan plan = planOptional.get();
 
-        List<Need> needsToAdd = needRepository.findAllById(addThemeToPlanDto.getSelectedNeedIds());
+        List<Need> needsToAdd = needRepository.findAllWithGroupesByIdIn(addThemeToPlanDto.getSelectedNeedIds());
 
         if (needsToAdd.isEmpty() || needsToAdd.size() != addThemeToPlanDto.getSelectedNeedIds().size()) {
             return ResponseEntity.noContent().build();
@@ -238,41 +249,59 @@ public class PlanServiceImpl implements PlanService {
                 }
             }
 
-            // Sauvegarder les trainers et créer une map pour les réutiliser
-            Map<String, TrainerForTrainingGroupe> savedTrainersMap = new HashMap<>();
+            // Sauvegarder les trainers manquants (une lecture des trainers existants, puis un saveAll des nouveaux).
+            // Les groupes de formation y sont rattachés par nom et email lors de l'INSERT ... SELECT.
+            Set<String> trainerNames = trainersToSave.stream()
+                    .map(TrainerForTrainingGroupe::getName)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+            Set<String> existingTrainerKeys = new HashSet<>();
+            if (!trainerNames.isEmpty()) {
+                for (TrainerForTrainingGroupe existingTrainer : trainerForTrainingGroupeRepository.findByNameIn(trainerNames)) {
+                    existingTrainerKeys.add(existingTrainer.getName() + "_" + existingTrainer.getEmail());
+                }
+            }
+            Map<String, TrainerForTrainingGroupe> newTrainers = new LinkedHashMap<>();
             for (TrainerForTrainingGroupe trainer : trainersToSave) {
-                // Vérifier si le trainer existe déjà en base
-                TrainerForTrainingGroupe existingTrainer = trainerForTrainingGroupeRepository
-                        .findByNameAndEmail(trainer.getName(), trainer.getEmail())
-                        .orElse(null);
-
-                if (existingTrainer != null) {
-                    savedTrainersMap.put(trainer.getName() + "_" + trainer.getEmail(), existingTrainer);
-                } else {
-                    TrainerForTrainingGroupe savedTrainer = trainerForTrainingGroupeRepository.save(trainer);
-                    savedTrainersMap.put(trainer.getName() + "_" + trainer.getEmail(), savedTrainer);
+                String key = trainer.getName() + "_" + trainer.getEmail();
+                if (!existingTrainerKeys.contains(key)) {
+                    newTrainers.putIfAbsent(key, trainer);
                 }
             }
+            trainerForTrainingGroupeRepository.saveAll(newTrainers.values());
 
-            // Ensuite, convertir les needs en trainings en utilisant les trainers sauvegardés
+            // Formations : inserts JDBC groupés (identifiants UUID), dans l'ordre des besoins
             List<Training> trainings = needsToAdd.stream()
-                    .map(need -> convertNeedToTraining(need, plan, savedTrainersMap))
+                    .map(need -> convertNeedToTraining(need, plan))
                     .collect(Collectors.toList());
+            List<Training> savedTrainings = trainingRepository.saveAllAndFlush(trainings);
+
+            // Groupes de formation et séances : une requête INSERT ... SELECT depuis les groupes des besoins
+            Long[] needIds = new Long[needsToAdd.size()];
+            String[] trainingIds = new String[needsToAdd.size()];
+            for (int i = 0; i < needsToAdd.size(); i++) {
+                needIds[i] = needsToAdd.get(i).getId();
+                trainingIds[i] = savedTrainings.get(i).getId().toString();
+            }
+            int sessionCount = trainingGroupeRepository.promoteNeedGroupes(needIds, trainingIds);
 
-            // Sauvegarder les trainings (ils seront automatiquement associés au plan)
-            List<Training> savedTrainings = trainingRepository.saveAll(trainings);
-
-            // NOUVEAU : Création des invitations pour tous les groupes de formation
-            createInvitationsForTrainings(savedTrainings);
+            // Supprimer les groupes puis les needs, en deux requêtes
+            List<Long> needIdList = Arrays.asList(needIds);
+            groupeRepository.deleteByNeedIdIn(needIdList);
+            needRepository.deleteByIdIn(needIdList);
 
-            // Supprimer les needs
-            needRepository.deleteAll(needsToAdd);
+            // Création des invitations pour tous les groupes de formation, après le commit
+            List<TrainingGroupe> createdGroupes = trainingGroupeRepository.findWithTrainingByTrainingIdIn(
+                    savedTrainings.stream().map(Training::getId).toList());
+            createInvitationsAfterCommit(createdGroupes);
 
-            log.info("Successfully created {} trainings and added them to plan '{}'", trainings.size(), plan.getTitle());
+            log.info("Successfully created {} trainings ({} groups, {} sessions) and added them to plan '{}'",
+                    trainings.size(), createdGroupes.size(), sessionCount, plan.getTitle());
 
             return ResponseEntity.ok().build();
         } catch (Exception e) {
             log.error("Error creating training(s) or deleting needs: {}", e.getMessage(), e);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -280,7 +309,7 @@ public class PlanServiceImpl implements PlanService {
     /**
      * Convertit un Need en Training et l'associe au Plan fourni
      */
-    private Training convertNeedToTraining(Need need, Plan plan, Map<String, TrainerForTrainingGroupe> savedTrainersMap) {
+    private Training convertNeedToTraining(Need need, Plan plan) {
         Training training = Training.builder()
                 .companyId(need.getCompanyId())
                 .strategicAxeId(need.getStrategicAxeId())
@@ -315,68 +344,12 @@ public class PlanServiceImpl implements PlanService {
                 .isAllFieldsFilled(need.getIsAllFieldsFilled())
                 .build();
 
-        List<TrainingGroupe> trainingGroupes = need.getGroupes().stream()
-                .map(groupe -> convertGroupeToTrainingGroupe(groupe, training, savedTrainersMap))
-                .collect(Collectors.toList());
-
-        training.setGroupes(trainingGroupes); // Associer les TrainingGroupes au Training
+        // Les groupes de formation sont créés en base à partir des groupes du besoin (TrainingGroupeRepository.promoteNeedGroupes)
+        training.setGroupes(new ArrayList<>());
 
         return training;
     }
 
-    /**
-     * Convertit un Groupe en TrainingGroupe
-     */
-    private TrainingGroupe convertGroupeToTrainingGroupe(Groupe groupe, Training training,
-                                                         Map<String, TrainerForTrainingGroupe> savedTrainersMap) {
-
-        // Récupérer le trainer sauvegardé de la map
-        TrainerForTrainingGroupe savedTrainer = null;
-        if (groupe.getTrainer() != null) {
-            String key = groupe.getTrainer().getName() + "_" + groupe.getTrainer().getEmail();
-            savedTrainer = savedTrainersMap.get(key);
-        }
-
-        return TrainingGroupe.builder()
-                .training(training)
-                .ocf(groupe.getOcf())
-                .companyId(groupe.getCompanyId())
-                .name(groupe.getName())
-                .startDate(groupe.getStartDate())
-                .endDate(groupe.getEndDate())
-                .participantCount(groupe.getParticipantCount())
-                .dayCount(groupe.getDayCount())
-                .price(groupe.getPrice())
-                .trainingType(groupe.getTrainingType())
-                .trainingProvider(groupe.getTrainingProvider())
-                .internalTrainerId(groupe.getInternalTrainerId())
-                .trainerName(groupe.getTrainerName())
-                .siteIds(groupe.getSiteIds())
-                .departmentIds(groupe.getDepartmentIds())
-                .location(groupe.getLocation())
-                .city(groupe.getCity())
-                .dates(groupe.getDates())
-                .morningStartTime(groupe.getMorningStartTime())
-                .morningEndTime(groupe.getMorningEndTime())
-                .afternoonStartTime(groupe.getAfternoonStartTime())
-                .afternoonEndTime(groupe.getAfternoonEndTime())
-                .userGroupIds(groupe.getUserGroupIds())
-                .targetAudience(groupe.getTargetAudience())
-                .managerCount(groupe.getManagerCount())
-                .employeeCount(groupe.getEmployeeCount())
-                .workerCount(groupe.getWorkerCount())
-                .temporaryWorkerCount(groupe.getTemporaryWorkerCount())
-                .comment(groupe.getComment())
-                .status(
-                        "APPROVED".equals(groupe.getStatus().name())
-                                ? GroupeStatusEnums.PLANNED
-                                : groupe.getStatus()
-                )
-                .trainer(savedTrainer)  // Utiliser le trainer sauvegardé
-                .isAllFieldsFilled(groupe.getIsAllFieldsFilled())
-                .build();
-    }
-
     private TrainerForTrainingGroupe convertTrainer(Trainer trainer) {
         if (trainer == null) return null;
 
@@ -386,37 +359,24 @@ public class PlanServiceImpl implements PlanService {
                 .build();
     }
 
-    private void createInvitationsForTrainings(List<Training> trainings) {
-        log.info("Creating invitations for {} trainings", trainings.size());
-
-        int totalInvitationsCreated = 0;
+    /**
+     * Les invitations ne conditionnent pas l'ajout au plan : elles sont créées après le commit,
+     * en un seul appel à auth-service et un seul saveAll pour l'ensemble des groupes.
+     * En cas d'erreur, les formations restent ajoutées et l'erreur est journalisée.
+     */
+    private void createInvitationsAfterCommit(List<TrainingGroupe> groupes) {
+        log.info("Invitations for {} training groups will be created after commit", groupes.size());
 
-        for (Training training : trainings) {
-            for (TrainingGroupe groupe : training.getGroupes()) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
                 try {
-                    // Vérifier si le groupe a des participants définis
-                    if (groupe.getUserGroupIds() != null && !groupe.getUserGroupIds().isEmpty()) {
-                        log.debug("Creating invitations for training group: {} with {} user groups",
-                                groupe.getName(), groupe.getUserGroupIds().size());
-
-                        // Appel du service d'invitation existant
-                        trainingInvitationService.createTrainingInvitation(groupe, groupe.getUserGroupIds());
-                        totalInvitationsCreated++;
-
-                        log.debug("Invitations created successfully for training group: {}", groupe.getName());
-                    } else {
-                        log.debug("No user groups defined for training group: {}, skipping invitation creation",
-                                groupe.getName());
-                    }
+                    trainingInvitationService.createTrainingInvitationsForNewGroups(groupes);
                 } catch (Exception e) {
-                    log.error("Error creating invitations for training group {} (Training: {}): {}",
-                            groupe.getName(), training.getTheme(), e.getMessage(), e);
-                    // Continue avec les autres groupes même en cas d'erreur
+                    log.error("Error creating invitations for {} training groups: {}", groupes.size(), e.getMessage(), e);
                 }
             }
-        }
-
-        log.info("Invitations creation completed. {} training groups processed", totalInvitationsCreated);
+        });
     }
 
     // 4. MÉTHODE UTILITAIRE : Validation des groupes pour les invitations
@@ -449,6 +409,7 @@ public class PlanServiceImpl implements PlanService {
      */
     @Transactional
     @Override
+    @CacheEvict(value = UserTrainingHistoryCacheService.CACHE_NAME, allEntries = true)
     public ResponseEntity<?> removeTrainingFromPlan(UUID trainingId) {
         log.info("Removing training from plan and converting back to need. TrainingId: {}", trainingId);
 
@@ -0,0 +1,35 @@
+package org.example.trainingservice.service.plan;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.trainingservice.repository.plan.TrainingGroupeRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Crée l'index GIN sur training_groupe.user_group_ids, utilisé par les requêtes de planning et d'historique
+ * des participants (opérateur @>). Hibernate ne sait générer que des index B-tree.
+ * Idempotent : CREATE INDEX IF NOT EXISTS.
+ * <p>
+ * TrainingGroupeUserGroupIdsIndexTest vérifie le plan sur PostgreSQL (20 000 groupes) : parcours séquentiel sans l'index,
+ * Bitmap Index Scan sur idx_training_groupe_user_group_ids avec.
+ */
+@Component
+@Slf4j
+public class TrainingGroupeIndexMigration {
+    private final TrainingGroupeRepository trainingGroupeRepository;
+
+    public TrainingGroupeIndexMigration(TrainingGroupeRepository trainingGroupeRepository) {
+        this.trainingGroupeRepository = trainingGroupeRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        try {
+            trainingGroupeRepository.createUserGroupIdsGinIndex();
+        } catch (Exception e) {
+            // L'application reste fonctionnelle sans l'index (parcours séquentiel)
+            log.warn("Could not create GIN index on training_groupe.user_group_ids: {}", e.getMessage());
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.example.trainingservice.dto.group.AddOrEditGroupPlanningDto;
 import org.example.trainingservice.dto.plan.SendInvitationDto;
 import org.springframework.http.ResponseEntity;
 
+import java.time.LocalDate;
 import java.util.UUID;
 
 public interface TrainingGroupeService {
@@ -41,6 +42,8 @@ public interface TrainingGroupeService {
 
     ResponseEntity<?> getGroupDates(Long groupId);
 
+    ResponseEntity<?> getGroupsWithSessionsBetween(LocalDate from, LocalDate to);
+
     ResponseEntity<?> getUserPlanning(Long userId);
 
     ResponseEntity<?> getUserTrainingHistory(Long userId);
@@ -2,6 +2,9 @@ package org.example.trainingservice.service.plan;
 
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.example.trainingservice.cacheService.EvaluationFormCacheService;
+import org.example.trainingservice.cacheService.EvaluationSyntheseCacheService;
+import org.example.trainingservice.cacheService.UserTrainingHistoryCacheService;
 import org.example.trainingservice.client.users.AuthServiceClient;
 import org.example.trainingservice.dto.group.*;
 import org.example.trainingservice.dto.need.DepartmentDto;
@@ -27,13 +30,14 @@ import org.example.trainingservice.repository.plan.TrainingRepository;
 import org.example.trainingservice.service.completion.CompletionUtilMethods;
 import org.example.trainingservice.utils.SecurityUtils;
 import org.example.trainingservice.utils.TrainingGroupeUtilMethods;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -51,6 +55,7 @@ public class TrainingGroupeServiceImpl implements TrainingGroupeService {
     private final TrainingInvitationService trainingInvitationService;
     private final AuthServiceClient authServiceClient;
     private final TrainingInvitationRepository trainingInvitationRepository;
+    private final UserTrainingHistoryCacheService userTrainingHistoryCacheService;
 
     public TrainingGroupeServiceImpl(
             TrainingGroupeRepository trainingGroupeRepository,
@@ -62,7 +67,8 @@ public class TrainingGroupeServiceImpl implements TrainingGroupeService {
             GroupeCompletionService groupeCompletionService,
             CompletionUtilMethods completionUtilMethods,
             TrainingInvitationService trainingInvitationService,
-            AuthServiceClient authServiceClient, TrainingInvitationRepository trainingInvitationRepository) {
+            AuthServiceClient authServiceClient, TrainingInvitationRepository trainingInvitationRepository,
+            UserTrainingHistoryCacheService userTrainingHistoryCacheService) {
         this.trainingGroupeRepository = trainingGroupeRepository;
         this.trainingRepository = trainingRepository;
         this.ocfRepository = ocfRepository;
@@ -74,6 +80,7 @@ public class TrainingGroupeServiceImpl implements TrainingGroupeService {
         this.trainingInvitationService = trainingInvitationService;
         this.authServiceClient = authServiceClient;
         this.trainingInvitationRepository = trainingInvitationRepository;
+        this.userTrainingHistoryCacheService = userTrainingHistoryCacheService;
     }
 
     @Override
@@ -136,6 +143,11 @@ public class TrainingGroupeServiceImpl implements TrainingGroupeService {
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(value = UserTrainingHistoryCacheService.CACHE_NAME, allEntries = true),
+            @CacheEvict(value = EvaluationSyntheseCacheService.CACHE_NAME, allEntries = true),
+            @CacheEvict(value = EvaluationFormCacheService.TEMPLATE_CACHE_NAME, allEntries = true)
+    })
     public ResponseEntity<?> editGroupPlanning(Long groupId, AddOrEditGroupPlanningDto addOrEditGroupPlanningDto) {
         // Récupération du groupe
         TrainingGroupe trainingGroupe = trainingGroupeRepository.findById(groupId).orElseThrow(() -> new TrainingGroupeNotFoundException("Training groupe not found with ID : " + groupId, null));
@@ -176,6 +188,7 @@ public class TrainingGroupeServiceImpl implements TrainingGroupeService {
     }
 
     @Override
+    @CacheEvict(value = UserTrainingHistoryCacheService.CACHE_NAME, allEntries = true)
     public ResponseEntity<?> addGroupParticipants(UUID trainingId, AddOrEditGroupParticipantsDto addOrEditGroupParticipantsDto) {
         Long companyId = SecurityUtils.getCurrentCompanyId();
 
@@ -214,6 +227,7 @@ public class TrainingGroupeServiceImpl implements TrainingGroupeService {
     }
 
     @Override
+    @CacheEvict(value = UserTrainingHistoryCacheService.CACHE_NAME, allEntries = true)
     public ResponseEntity<?> editGroupParticipants(Long groupId, AddOrEditGroupParticipantsDto addOrEditGroupParticipantsDto) {
         // 1 Récupération du groupe
         TrainingGroupe trainingGroupe = trainingGroupeRepository.findById(groupId).orElseThrow(() -> new TrainingGroupeNotFoundException("Training Groupe not found with ID : " + groupId, null));
@@ -271,6 +285,7 @@ public class TrainingGroupeServiceImpl implements TrainingGroupeService {
     }
 
     @Override
+    @CacheEvict(value = EvaluationSyntheseCacheService.CACHE_NAME, allEntries = true)
     public ResponseEntity<?> editGroupInternalProvider(Long groupId, AddOrEditGroupInternalProviderDto addOrEditGroupInternalProviderDto) {
         // Implementation pour la modification d'un groupe avec un fournisseur interne
         log.info("editGroupInternalProvider {}", addOrEditGroupInternalProviderDto);
@@ -370,6 +385,7 @@ public class TrainingGroupeServiceImpl implements TrainingGroupeService {
     }
 
     @Override
+    @CacheEvict(value = EvaluationSyntheseCacheService.CACHE_NAME, allEntries = true)
     public ResponseEntity<?> editGroupExternalProvider(Long groupId, AddOrEditGroupExternalProviderDto addOrEditGroupExternalProviderDto) {
         // Implementation pour la modification d'un groupe avec un fournisseur externe
         log.info("Starting updating training group external provider : {}", addOrEditGroupExternalProviderDto);
@@ -459,7 +475,7 @@ public class TrainingGroupeServiceImpl implements TrainingGroupeService {
                 "isAllFieldsFilled", trainingGroupe.getIsAllFieldsFilled(),
                 "isComplete", report.isComplete(),
                 "missingFields", report.getMissingFields(),
-                "currentStatus", trainingGroupe.getStatus() // Le statut reste indépendant
+                "currentStatus", trainingGroupe.computeStatus(LocalDate.now()) // Le statut reste indépendant
         ));
     }
 
@@ -612,6 +628,31 @@ public class TrainingGroupeServiceImpl implements TrainingGroupeService {
         return ResponseEntity.ok(dates);
     }
 
+    @Override
+    public ResponseEntity<?> getGroupsWithSessionsBetween(LocalDate from, LocalDate to) {
+        Long companyId = SecurityUtils.getCurrentCompanyId();
+        LocalDate today = LocalDate.now();
+        LocalDate start = from != null ? from : today.with(DayOfWeek.MONDAY);
+        LocalDate end = to != null ? to : start.plusDays(6);
+        if (end.isBefore(start)) {
+            return ResponseEntity.badRequest().body("La date de fin doit être postérieure à la date de début");
+        }
+
+        List<GroupSessionPeriodDto> groups = trainingGroupeRepository.findWithSessionsBetween(companyId, start, end).stream()
+                .map(groupe -> GroupSessionPeriodDto.builder()
+                        .groupId(groupe.getId())
+                        .groupName(groupe.getName())
+                        .trainingId(groupe.getTraining().getId())
+                        .theme(groupe.getTraining().getTheme())
+                        .location(groupe.getLocation())
+                        .firstSessionDate(groupe.getFirstSessionDate())
+                        .lastSessionDate(groupe.getLastSessionDate())
+                        .status(groupe.computeStatus(today))
+                        .build())
+                .toList();
+        return ResponseEntity.ok(groups);
+    }
+
     @Override
     public ResponseEntity<?> getUserPlanning(Long userId) {
         log.info("Getting user planning for userId: {}", userId);
@@ -626,35 +667,19 @@ public class TrainingGroupeServiceImpl implements TrainingGroupeService {
 
             Long companyId = SecurityUtils.getCurrentCompanyId();
 
-            // Utilisation directe de la requête native PostgreSQL
-            List<TrainingGroupe> userGroups = trainingGroupeRepository
-                    .findByCompanyIdAndUserGroupIdsContainingNative(companyId, userId);
+            // Une seule requête : groupes, thème et séances (index GIN sur les participants)
+            List<UserPlanningDto> userPlanningList = TrainingGroupeUtilMethods.mapSessionRows(
+                    trainingGroupeRepository.findUserPlanningRows(companyId, userId),
+                    (row, dates) -> UserPlanningDto.builder()
+                            .theme((String) row[1])
+                            .dates(dates)
+                            .build());
 
-            // Vérification si l'utilisateur a des formations planifiées
-            if (userGroups.isEmpty()) {
+            if (userPlanningList.isEmpty()) {
                 log.info("No training groups found for userId: {} in company: {}", userId, companyId);
                 return ResponseEntity.ok(Collections.emptyList());
             }
 
-            // Chargement explicite des relations Training pour éviter les LazyInitializationException
-            List<UserPlanningDto> userPlanningList = userGroups.stream()
-                    .map(group -> {
-                        // Assurer le chargement de la relation training si elle n'est pas déjà chargée
-                        if (group.getTraining() == null) {
-                            // Recharger le groupe avec la relation training
-                            Optional<Training> training = trainingRepository.findById(group.getTraining().getId());
-                            if (training.isPresent()) {
-                                group.setTraining(training.get());
-                            } else {
-                                log.warn("Training not found for group: {}", group.getId());
-                                return null;
-                            }
-                        }
-                        return convertToUserPlanningDto(group);
-                    })
-                    .filter(Objects::nonNull) // Filtrer les conversions qui ont échoué
-                    .collect(Collectors.toList());
-
             log.info("Successfully retrieved {} training planning entries for userId: {}",
                     userPlanningList.size(), userId);
 
@@ -681,35 +706,14 @@ public class TrainingGroupeServiceImpl implements TrainingGroupeService {
 
             Long companyId = SecurityUtils.getCurrentCompanyId();
 
-            // Utilisation directe de la requête native PostgreSQL
-            List<TrainingGroupe> userGroups = trainingGroupeRepository
-                    .findTrainingGroupeCompleted(companyId, userId);
+            // Historique en cache par participant (invalidé aux transitions de statut)
+            List<UserTrainingHistoryDto> userTrainingHistoryList = userTrainingHistoryCacheService.getHistory(companyId, userId);
 
-            // Vérification si l'utilisateur a des formations dans l'historique
-            if (userGroups.isEmpty()) {
+            if (userTrainingHistoryList.isEmpty()) {
                 log.info("No training history found for userId: {} in company: {}", userId, companyId);
                 return ResponseEntity.ok(Collections.emptyList());
             }
 
-            // Chargement explicite des relations Training et Plan pour éviter les LazyInitializationException
-            List<UserTrainingHistoryDto> userTrainingHistoryList = userGroups.stream()
-                    .map(group -> {
-                        // Assurer le chargement de la relation training si elle n'est pas déjà chargée
-                        if (group.getTraining() == null) {
-                            // Recharger le groupe avec la relation training
-                            Optional<Training> training = trainingRepository.findById(group.getTraining().getId());
-                            if (training.isPresent()) {
-                                group.setTraining(training.get());
-                            } else {
-                                log.warn("Training not found for group: {}", group.getId());
-                                return null;
-                            }
-                        }
-                        return convertToUserTrainingHistoryDto(group);
-                    })
-                    .filter(Objects::nonNull) // Filtrer les conversions qui ont échoué
-                    .collect(Collectors.toList());
-
             log.info("Successfully retrieved {} training history entries for userId: {}",
                     userTrainingHistoryList.size(), userId);
 
@@ -722,114 +726,6 @@ public class TrainingGroupeServiceImpl implements TrainingGroupeService {
         }
     }
 
-    /**
-     * Convertit un TrainingGroupe en UserTrainingHistoryDto
-     * Similaire à convertToUserPlanningDto mais avec l'ajout du year depuis Plan
-     */
-    private UserTrainingHistoryDto convertToUserTrainingHistoryDto(TrainingGroupe trainingGroupe) {
-        try {
-            Training training = trainingGroupe.getTraining();
-            if (training == null) {
-                log.warn("TrainingGroupe {} has no associated training", trainingGroupe.getId());
-                return null;
-            }
-
-            Plan plan = training.getPlan();
-            if (plan == null) {
-                log.warn("Training {} has no associated plan", training.getId());
-                return null;
-            }
-
-            String theme = training.getTheme();
-            String formattedDates = formatDates(trainingGroupe.getDates());
-            Integer year = plan.getYear();
-
-            return UserTrainingHistoryDto.builder()
-                    .year(year)
-                    .theme(theme)
-                    .dates(formattedDates)
-                    .build();
-
-        } catch (Exception e) {
-            log.error("Error converting TrainingGroupe {} to UserTrainingHistoryDto: {}",
-                    trainingGroupe.getId(), e.getMessage());
-            return null;
-        }
-    }
-
-    /**
-     * Convertit un TrainingGroupe en UserPlanningDto
-     * Gère la concaténation des dates multiples
-     */
-    private UserPlanningDto convertToUserPlanningDto(TrainingGroupe trainingGroupe) {
-        try {
-            Training training = trainingGroupe.getTraining();
-            if (training == null) {
-                log.warn("TrainingGroupe {} has no associated training", trainingGroupe.getId());
-                return null;
-            }
-
-            String theme = training.getTheme();
-            String formattedDates = formatDates(trainingGroupe.getDates());
-
-            return UserPlanningDto.builder()
-                    .theme(theme)
-                    .dates(formattedDates)
-                    .build();
-
-        } catch (Exception e) {
-            log.error("Error converting TrainingGroupe {} to UserPlanningDto: {}",
-                    trainingGroupe.getId(), e.getMessage());
-            return null;
-        }
-    }
-
-    /**
-     * Formate la liste des dates en une chaîne lisible
-     * Ex: ["2025-01-15", "2025-01-16"] -> "15/01/2025, 16/01/2025"
-     */
-    private String formatDates(List<String> dates) {
-        if (dates == null || dates.isEmpty()) {
-            return "Dates non définies";
-        }
-
-        // Si une seule date
-        if (dates.size() == 1) {
-            return formatSingleDate(dates.get(0));
-        }
-
-        // Pour plusieurs dates, les joindre avec des virgules
-        return dates.stream()
-                .filter(Objects::nonNull)
-                .map(this::formatSingleDate)
-                .collect(Collectors.joining(", "));
-    }
-
-    /**
-     * Formate une date individuelle du format ISO vers un format lisible
-     * Ex: "2025-01-15" -> "15/01/2025"
-     */
-    private String formatSingleDate(String isoDate) {
-        if (StringUtils.isBlank(isoDate)) {
-            return "Date invalide";
-        }
-
-        try {
-            // Tentative de parsing et reformatage si c'est une date ISO
-            if (isoDate.matches("\\d{4}-\\d{2}-\\d{2}")) {
-                LocalDate date = LocalDate.parse(isoDate);
-                return date.format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
-            }
-
-            // Si ce n'est pas une date ISO, retourner tel quel
-            return isoDate;
-
-        } catch (DateTimeParseException e) {
-            log.warn("Unable to parse date: {}, returning as-is", isoDate);
-            return isoDate;
-        }
-    }
-
     /**
      * Valide les données d'entrée pour l'annulation de formation
      */
@@ -5,6 +5,7 @@ import org.example.trainingservice.dto.plan.SendInvitationDto;
 import org.example.trainingservice.entity.plan.TrainingGroupe;
 import org.springframework.http.ResponseEntity;
 
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
@@ -17,6 +18,8 @@ public interface TrainingInvitationService {
 
     void createTrainingInvitation(TrainingGroupe trainingGroupe, Set<Long> userGroupIds);
 
+    void createTrainingInvitationsForNewGroups(List<TrainingGroupe> trainingGroupes);
+
     ResponseEntity<?> getUserInvitations(Long userId);
 
     ResponseEntity<?> respondInvitation(UUID invitationId, RespondInvitationDto respondInvitationDto);
@@ -20,7 +20,10 @@ import org.example.trainingservice.utils.TrainingInvitationUtilMethods;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.util.*;
@@ -34,19 +37,24 @@ public class TrainingInvitationServiceImpl implements TrainingInvitationService
     private final TrainingRepository trainingRepository;
     private final AuthServiceClient authServiceClient;
     private final NotificationServiceClient notificationServiceClient;
+    private final TransactionTemplate requiresNewTransactionTemplate;
 
     public TrainingInvitationServiceImpl(
             TrainingInvitationRepository trainingInvitationRepository,
             TrainingGroupeRepository trainingGroupeRepository,
             TrainingRepository trainingRepository,
             AuthServiceClient authServiceClient,
-            NotificationServiceClient notificationServiceClient
+            NotificationServiceClient notificationServiceClient,
+            PlatformTransactionManager transactionManager
     ) {
         this.trainingInvitationRepository = trainingInvitationRepository;
         this.trainingGroupeRepository = trainingGroupeRepository;
         this.trainingRepository = trainingRepository;
         this.authServiceClient = authServiceClient;
         this.notificationServiceClient = notificationServiceClient;
+        // Utilisé après le commit d'une autre transaction : il faut une transaction distincte
+        this.requiresNewTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.requiresNewTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     @Override
@@ -311,15 +319,7 @@ public class TrainingInvitationServiceImpl implements TrainingInvitationService
 
             Long companyId = SecurityUtils.getCurrentCompanyId();
             Long groupId = trainingGroupe.getId();
-            List<String> dates = trainingGroupe.getDates();
-            String city = trainingGroupe.getCity();
-            String location = trainingGroupe.getLocation();
-            String trainerName = trainingGroupe.getTrainerName();
             String name = trainingGroupe.getName();
-            Training training = trainingGroupe.getTraining();
-            String theme = training.getTheme();
-            UUID id = training.getId();
-            Integer participantCount = trainingGroupe.getParticipantCount();
 
             List<TrainingInvitation> trainingInvitations = new ArrayList<>();
 
@@ -343,24 +343,7 @@ public class TrainingInvitationServiceImpl implements TrainingInvitationService
                         .findByTrainingGroupeIdAndUserId(groupId, participant.getId());
 
                 if (retrievedInvitation == null) {
-                    TrainingInvitation invitation = TrainingInvitation.builder()
-                            .trainingGroupe(trainingGroupe)
-                            .userId(participant.getId())
-                            .userEmail(participant.getEmail())
-                            .userFullName(participant.getName())
-                            .companyId(companyId)
-                            .status(InvitationStatusEnum.NOT_SENT)
-                            .invitationDate(null)
-                            .trainingId(id)
-                            .trainingTheme(theme)
-                            .groupeName(name)
-                            .trainerName(trainerName)
-                            .participantCount(participantCount)
-                            .dates(dates)
-                            .location(location)
-                            .city(city)
-                            .build();
-                    trainingInvitations.add(invitation);
+                    trainingInvitations.add(buildInvitation(trainingGroupe, trainingGroupe, participant, companyId));
                     newInvitationsCount++;
                 } else {
                     existingInvitationsCount++;
@@ -386,6 +369,74 @@ public class TrainingInvitationServiceImpl implements TrainingInvitationService
         }
     }
 
+    /**
+     * Création des invitations de groupes qui viennent d'être créés (aucune invitation existante) :
+     * un seul appel à auth-service pour l'ensemble des participants, puis un saveAll (inserts JDBC groupés)
+     * dans une transaction distincte. Prévu pour être appelé après le commit de la création des groupes.
+     */
+    @Override
+    public void createTrainingInvitationsForNewGroups(List<TrainingGroupe> trainingGroupes) {
+        List<TrainingGroupe> groupesWithParticipants = trainingGroupes.stream()
+                .filter(groupe -> groupe.getUserGroupIds() != null && !groupe.getUserGroupIds().isEmpty())
+                .toList();
+        if (groupesWithParticipants.isEmpty()) {
+            return;
+        }
+
+        Set<Long> userIds = groupesWithParticipants.stream()
+                .flatMap(groupe -> groupe.getUserGroupIds().stream())
+                .collect(Collectors.toSet());
+        Map<Long, ParticipantForCancel> participantsById = authServiceClient.getParticipantsEmail(userIds).stream()
+                .collect(Collectors.toMap(ParticipantForCancel::getId, participant -> participant, (first, second) -> first));
+        log.debug("Retrieved {} participants from auth service for {} training groups",
+                participantsById.size(), groupesWithParticipants.size());
+
+        Long companyId = SecurityUtils.getCurrentCompanyId();
+        Integer created = requiresNewTransactionTemplate.execute(status -> {
+            List<TrainingInvitation> trainingInvitations = new ArrayList<>();
+            for (TrainingGroupe groupe : groupesWithParticipants) {
+                TrainingGroupe reference = trainingGroupeRepository.getReferenceById(groupe.getId());
+                for (Long userId : groupe.getUserGroupIds()) {
+                    ParticipantForCancel participant = participantsById.get(userId);
+                    if (participant == null) {
+                        log.warn("Participant {} not found in auth service, no invitation for group {}", userId, groupe.getId());
+                        continue;
+                    }
+                    trainingInvitations.add(buildInvitation(reference, groupe, participant, companyId));
+                }
+            }
+            trainingInvitationRepository.saveAll(trainingInvitations);
+            return trainingInvitations.size();
+        });
+        log.info("Created {} invitations for {} new training groups", created, groupesWithParticipants.size());
+    }
+
+    /**
+     * Invitation NOT_SENT d'un participant. Les informations affichées sont copiées depuis "source",
+     * "trainingGroupe" est l'entité (ou la référence) à associer.
+     */
+    private TrainingInvitation buildInvitation(TrainingGroupe trainingGroupe, TrainingGroupe source,
+                                               ParticipantForCancel participant, Long companyId) {
+        Training training = source.getTraining();
+        return TrainingInvitation.builder()
+                .trainingGroupe(trainingGroupe)
+                .userId(participant.getId())
+                .userEmail(participant.getEmail())
+                .userFullName(participant.getName())
+                .companyId(companyId)
+                .status(InvitationStatusEnum.NOT_SENT)
+                .invitationDate(null)
+                .trainingId(training.getId())
+                .trainingTheme(training.getTheme())
+                .groupeName(source.getName())
+                .trainerName(source.getTrainerName())
+                .participantCount(source.getParticipantCount())
+                .dates(source.getDates())
+                .location(source.getLocation())
+                .city(source.getCity())
+                .build();
+    }
+
     @Override
     public ResponseEntity<?> getUserInvitations(Long userId) {
         log.info("Getting user invitations for user: {}", userId);
@@ -2,6 +2,8 @@ package org.example.trainingservice.service.plan;
 
 import org.example.trainingservice.dto.plan.CancelTrainingDto;
 import org.example.trainingservice.dto.plan.EditTrainingDto;
+import org.example.trainingservice.dto.plan.PlanPagedResponse;
+import org.example.trainingservice.dto.plan.TrainingListItemDto;
 import org.springframework.http.ResponseEntity;
 
 import java.util.UUID;
@@ -9,6 +11,10 @@ import java.util.UUID;
 public interface TrainingService {
     ResponseEntity<?> getAllTrainings(UUID planId);
 
+    ResponseEntity<PlanPagedResponse<TrainingListItemDto>> getTrainingsPaginated(
+            UUID planId, int page, int size, String sortBy, String sortDirection,
+            String status, Long siteId, Long domainId, Boolean csf, String search);
+
     ResponseEntity<?> getTrainingDetails(UUID trainingId);
 
     ResponseEntity<?> getTrainingForAddGroup(UUID id);
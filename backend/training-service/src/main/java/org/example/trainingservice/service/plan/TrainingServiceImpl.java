@@ -2,6 +2,9 @@ package org.example.trainingservice.service.plan;
 
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.example.trainingservice.cacheService.EvaluationFormCacheService;
+import org.example.trainingservice.cacheService.EvaluationSyntheseCacheService;
+import org.example.trainingservice.cacheService.UserTrainingHistoryCacheService;
 import org.example.trainingservice.client.notification.NotificationServiceClient;
 import org.example.trainingservice.client.users.AuthServiceClient;
 import org.example.trainingservice.dto.PlanErrorResponse;
@@ -16,9 +19,16 @@ import org.example.trainingservice.exceptions.TrainingNotFoundException;
 import org.example.trainingservice.exceptions.plan.NotificationException;
 import org.example.trainingservice.exceptions.plan.ValidationException;
 import org.example.trainingservice.model.plan.CancelTrainingEmailRequest;
+import org.example.trainingservice.repository.plan.TrainingGroupeRepository;
 import org.example.trainingservice.repository.plan.TrainingRepository;
 import org.example.trainingservice.utils.SecurityUtils;
 import org.example.trainingservice.utils.TrainingUtilMethods;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -30,16 +40,22 @@ import java.util.stream.Collectors;
 @Service
 @Slf4j
 public class TrainingServiceImpl implements TrainingService {
+    private static final Set<String> LIST_SORT_FIELDS = Set.of("theme", "creationDate", "type", "status", "csf", "domainName");
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final TrainingRepository trainingRepository;
+    private final TrainingGroupeRepository trainingGroupeRepository;
     private final TrainingCompletionService trainingCompletionService;
     private final AuthServiceClient authServiceClient;
     private final NotificationServiceClient notificationServiceClient;
 
     public TrainingServiceImpl(
             TrainingRepository trainingRepository,
+            TrainingGroupeRepository trainingGroupeRepository,
             TrainingCompletionService trainingCompletionService,
             AuthServiceClient authServiceClient, AuthServiceClient authServiceClient1, NotificationServiceClient notificationServiceClient) {
         this.trainingRepository = trainingRepository;
+        this.trainingGroupeRepository = trainingGroupeRepository;
         this.trainingCompletionService = trainingCompletionService;
         this.authServiceClient = authServiceClient1;
         this.notificationServiceClient = notificationServiceClient;
@@ -49,19 +65,110 @@ public class TrainingServiceImpl implements TrainingService {
     public ResponseEntity<?> getAllTrainings(UUID planId) {
         log.info("Getting all trainings for plan: {}", planId);
 
-        // Utilisation de la requête optimisée avec fetch join
-        List<Training> trainings = trainingRepository.findByPlanIdWithGroupes(planId);
-
-        log.info("Finished getting all trainings for plan: {}", trainings.size());
+        Long companyId = SecurityUtils.getCurrentCompanyId();
+        if (companyId == null) {
+            log.warn("Tentative d'accès aux formations sans ID d'entreprise valide");
+            return ResponseEntity.badRequest().build();
+        }
 
-        List<GetAllTrainingDto> getAllTrainingDtos = trainings.stream()
-                .map(TrainingUtilMethods::mapToGetAllTrainingsDto)
+        // Projection sans fetch join : une ligne par formation, puis les dates des groupes en une requête
+        List<TrainingListItemDto> items = trainingRepository.findListItems(
+                planId, companyId, null, null, null, null, null, Pageable.unpaged()
+        ).getContent();
+        Map<UUID, List<GetAllTrainingDto.GroupDatesDto>> groupDates = findGroupDates(items);
+
+        List<GetAllTrainingDto> getAllTrainingDtos = items.stream()
+                .map(item -> GetAllTrainingDto.builder()
+                        .id(item.getId())
+                        .theme(item.getTheme())
+                        .creationDate(item.getCreationDate())
+                        .type(item.getType())
+                        .csf(item.getCsf())
+                        .status(item.getStatus())
+                        .groupDates(groupDates.getOrDefault(item.getId(), List.of()))
+                        .build())
                 .toList();
 
         log.info("Finished mapping {} trainings with group dates", getAllTrainingDtos.size());
         return ResponseEntity.ok(getAllTrainingDtos);
     }
 
+    @Override
+    public ResponseEntity<PlanPagedResponse<TrainingListItemDto>> getTrainingsPaginated(
+            UUID planId, int page, int size, String sortBy, String sortDirection,
+            String status, Long siteId, Long domainId, Boolean csf, String search) {
+        log.info("Getting trainings page {} for plan: {}", page, planId);
+
+        Long companyId = SecurityUtils.getCurrentCompanyId();
+        if (companyId == null) {
+            log.warn("Tentative d'accès aux formations sans ID d'entreprise valide");
+            return ResponseEntity.badRequest().build();
+        }
+
+        TrainingStatusEnum statusFilter = null;
+        if (StringUtils.isNotBlank(status)) {
+            try {
+                statusFilter = TrainingStatusEnum.valueOf(status.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                log.warn("Statut de formation inconnu: {}", status);
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
+        Sort.Direction direction = "DESC".equalsIgnoreCase(sortDirection) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        String sortField = LIST_SORT_FIELDS.contains(sortBy) ? sortBy : "theme";
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE),
+                Sort.by(direction, sortField).and(Sort.by("id")));
+
+        Page<TrainingListItemDto> itemPage = trainingRepository.findListItems(
+                planId, companyId, statusFilter, siteId, domainId, csf, StringUtils.trimToNull(search), pageable);
+
+        Map<UUID, List<GetAllTrainingDto.GroupDatesDto>> groupDates = findGroupDates(itemPage.getContent());
+        itemPage.getContent().forEach(item -> item.setGroupDates(groupDates.getOrDefault(item.getId(), List.of())));
+
+        PlanPagedResponse<TrainingListItemDto> response = new PlanPagedResponse<>(
+                itemPage.getContent(),
+                itemPage.getNumber(),
+                itemPage.getSize(),
+                itemPage.getTotalElements(),
+                itemPage.getTotalPages(),
+                itemPage.isLast(),
+                itemPage.isFirst()
+        );
+
+        log.info("Finished getting {} of {} trainings for plan: {}", itemPage.getNumberOfElements(), itemPage.getTotalElements(), planId);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Dates des groupes des formations listées, par formation (groupes sans date exclus)
+     */
+    private Map<UUID, List<GetAllTrainingDto.GroupDatesDto>> findGroupDates(List<TrainingListItemDto> items) {
+        List<UUID> trainingIds = items.stream()
+                .filter(item -> item.getGroupCount() > 0)
+                .map(TrainingListItemDto::getId)
+                .toList();
+        if (trainingIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<UUID, List<GetAllTrainingDto.GroupDatesDto>> groupDates = new HashMap<>();
+        for (Object[] row : trainingGroupeRepository.findGroupDatesByTrainingIdIn(trainingIds)) {
+            @SuppressWarnings("unchecked")
+            List<String> dates = (List<String>) row[3];
+            if (dates == null || dates.isEmpty()) {
+                continue;
+            }
+            groupDates.computeIfAbsent((UUID) row[0], id -> new ArrayList<>())
+                    .add(GetAllTrainingDto.GroupDatesDto.builder()
+                            .groupId((Long) row[1])
+                            .groupName((String) row[2])
+                            .dates(dates)
+                            .build());
+        }
+        return groupDates;
+    }
+
     @Override
     public ResponseEntity<?> getTrainingDetails(UUID trainingId) {
         log.info("Getting training details for id: {}", trainingId);
@@ -94,6 +201,11 @@ public class TrainingServiceImpl implements TrainingService {
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(value = UserTrainingHistoryCacheService.CACHE_NAME, allEntries = true),
+            @CacheEvict(value = EvaluationSyntheseCacheService.CACHE_NAME, allEntries = true),
+            @CacheEvict(value = EvaluationFormCacheService.TEMPLATE_CACHE_NAME, allEntries = true)
+    })
     public ResponseEntity<?> editTraining(UUID id, EditTrainingDto editTrainingDto) {
         log.info("Editing training with ID: {} and data: {}", id, editTrainingDto);
 
@@ -311,11 +423,11 @@ public class TrainingServiceImpl implements TrainingService {
     }
 
     /**
-     * Détermine la date de début à partir de la liste des dates du groupe
+     * Détermine la date de début à partir de la première séance du groupe (colonne first_session_date)
      * Retourne la première date chronologique ou null si aucune date n'est disponible
      */
     private String determineStartDate(TrainingGroupe group) {
-        return TrainingUtilMethods.getEarliestDate(group.getDates());
+        return group.getFirstSessionDate() != null ? group.getFirstSessionDate().toString() : null;
     }
 
     /**
@@ -0,0 +1,244 @@
+package org.example.trainingservice.service.plan.attendance;
+
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.example.trainingservice.enums.AttendanceStatus;
+import org.example.trainingservice.exceptions.plan.attendance.AttendanceRecordNotFoundException;
+import org.example.trainingservice.repository.plan.attendance.AttendanceRecordRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Écriture groupée des pointages de présence par QR code.
+ * Les pointages reçus pendant un intervalle de 200 ms sont écrits ensemble :
+ * un UPDATE par combinaison statut / marqueur / seconde au lieu d'une lecture et d'une écriture par scan.
+ * Un pointage n'est acquitté qu'une fois écrit en base ; en cas d'échec, l'appelant reçoit l'erreur.
+ * Un seul pointage en attente par enregistrement : le plus récent remplace les précédents.
+ * Un pointage non écrit dans le délai est retiré de l'attente avant que l'erreur soit renvoyée.
+ * Au-delà de la capacité, ou pendant l'arrêt, le pointage est écrit immédiatement par l'appelant.
+ */
+@Component
+@Slf4j
+public class AttendanceCheckInBuffer {
+    private static final int CAPACITY = 5000;
+    private static final int FLUSH_BATCH_SIZE = 200;
+    private static final long WRITE_TIMEOUT_SECONDS = 10;
+
+    private final AttendanceRecordRepository attendanceRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentMap<UUID, PendingCheckIn> pending = new ConcurrentHashMap<>();
+    private volatile boolean accepting = true;
+
+    public AttendanceCheckInBuffer(AttendanceRecordRepository attendanceRecordRepository, PlatformTransactionManager transactionManager) {
+        this.attendanceRecordRepository = attendanceRecordRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Enregistre un pointage et attend son écriture en base.
+     *
+     * @throws AttendanceRecordNotFoundException si le participant ne figure plus sur la liste courante du token
+     * @throws IllegalStateException             si le pointage n'a pas pu être écrit
+     */
+    public void checkIn(String qrCodeToken, Long userId, UUID recordId, AttendanceStatus status, Long markedBy) {
+        boolean direct = !accepting || (pending.size() >= CAPACITY && !pending.containsKey(recordId));
+        CompletableFuture<Void> written = enqueue(qrCodeToken, userId, recordId, status, markedBy);
+        if (direct) {
+            // Tampon plein ou en cours d'arrêt : écriture immédiate, dans l'ordre des pointages déjà en attente
+            flush();
+        }
+        try {
+            written.get(WRITE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            throw failure(e.getCause());
+        } catch (TimeoutException e) {
+            if (withdraw(recordId, written)) {
+                throw new IllegalStateException("Pointage non écrit dans le délai imparti");
+            }
+            // Écrit entre-temps, ou remplacé par un pointage plus récent du même participant qui sera écrit
+            if (written.isCompletedExceptionally()) {
+                throw failure(written.handle((result, error) -> error).join());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Pointage interrompu", e);
+        }
+    }
+
+    /**
+     * Met un pointage en attente sans attendre son écriture.
+     * Le remplacement se fait sous le verrou de l'enregistrement (ConcurrentHashMap.compute), dans l'ordre d'arrivée :
+     * un pointage plus ancien ne peut jamais remplacer un plus récent.
+     */
+    CompletableFuture<Void> enqueue(String qrCodeToken, Long userId, UUID recordId, AttendanceStatus status, Long markedBy) {
+        LocalDateTime markedDate = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        return pending.compute(recordId, (id, current) -> {
+            PendingCheckIn candidate = new PendingCheckIn(qrCodeToken, userId, id, status, markedBy, markedDate);
+            if (current != null) {
+                // Le pointage remplacé est acquitté avec celui qui le remplace
+                candidate.getWritten().whenComplete((result, error) -> {
+                    if (error != null) {
+                        current.getWritten().completeExceptionally(error);
+                    } else {
+                        current.getWritten().complete(null);
+                    }
+                });
+            }
+            return candidate;
+        }).getWritten();
+    }
+
+    /**
+     * Écrit tous les pointages en attente. Synchronisé pour sérialiser les lots
+     * entre le planificateur, l'écriture immédiate et l'arrêt.
+     */
+    @Scheduled(fixedDelay = 200)
+    public synchronized void flush() {
+        // Borné au contenu initial : un flux continu de pointages ne bloque pas le planificateur
+        int rounds = pending.size() / FLUSH_BATCH_SIZE + 1;
+        for (int round = 0; round < rounds && !pending.isEmpty(); round++) {
+            List<PendingCheckIn> batch = pending.values().stream().limit(FLUSH_BATCH_SIZE).toList();
+            Map<PendingCheckIn, RuntimeException> failures = write(batch);
+            for (PendingCheckIn checkIn : batch) {
+                // Retiré seulement s'il n'a pas été remplacé entre-temps : le remplaçant part au lot suivant
+                pending.remove(checkIn.getRecordId(), checkIn);
+                RuntimeException failure = failures.get(checkIn);
+                if (failure != null) {
+                    checkIn.getWritten().completeExceptionally(failure);
+                } else {
+                    checkIn.getWritten().complete(null);
+                }
+            }
+        }
+    }
+
+    /**
+     * Retire un pointage encore en attente (délai dépassé). Synchronisé avec flush : un pointage retiré
+     * ne fait partie d'aucun lot en cours et ne sera donc pas écrit. Les pointages qu'il remplaçait échouent avec lui.
+     *
+     * @return false si le pointage a déjà été écrit ou remplacé par un plus récent
+     */
+    synchronized boolean withdraw(UUID recordId, CompletableFuture<Void> written) {
+        PendingCheckIn current = pending.get(recordId);
+        if (current == null || current.getWritten() != written || !pending.remove(recordId, current)) {
+            return false;
+        }
+        written.completeExceptionally(new IllegalStateException("Pointage non écrit dans le délai imparti"));
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        accepting = false;
+        flush();
+    }
+
+    private static RuntimeException failure(Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new IllegalStateException("Échec de l'écriture du pointage", cause);
+    }
+
+    /**
+     * @return les pointages non écrits et leur cause ; vide si tout le lot est en base
+     */
+    private Map<PendingCheckIn, RuntimeException> write(List<PendingCheckIn> batch) {
+        Map<BatchKey, List<PendingCheckIn>> checkInsByKey = new HashMap<>();
+        for (PendingCheckIn checkIn : batch) {
+            checkInsByKey.computeIfAbsent(
+                    new BatchKey(checkIn.getStatus(), checkIn.getMarkedBy(), checkIn.getMarkedDate()),
+                    key -> new ArrayList<>()
+            ).add(checkIn);
+        }
+
+        Map<PendingCheckIn, RuntimeException> failures = new HashMap<>();
+        try {
+            List<PendingCheckIn> missed = transactionTemplate.execute(status -> {
+                List<PendingCheckIn> misses = new ArrayList<>();
+                for (Map.Entry<BatchKey, List<PendingCheckIn>> entry : checkInsByKey.entrySet()) {
+                    BatchKey key = entry.getKey();
+                    List<UUID> recordIds = entry.getValue().stream().map(PendingCheckIn::getRecordId).toList();
+                    int updated = attendanceRecordRepository.updateAttendanceStatusBatch(
+                            recordIds, key.getStatus(), key.getMarkedDate(), key.getMarkedBy());
+                    if (updated < recordIds.size()) {
+                        Set<UUID> existing = new HashSet<>(attendanceRecordRepository.findIdsByIdIn(recordIds));
+                        entry.getValue().stream()
+                                .filter(checkIn -> !existing.contains(checkIn.getRecordId()))
+                                .forEach(misses::add);
+                    }
+                }
+                return misses;
+            });
+            log.debug("Flushed {} attendance check-ins in {} statements", batch.size(), checkInsByKey.size());
+            if (missed != null) {
+                for (PendingCheckIn checkIn : missed) {
+                    rewrite(checkIn, failures);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Error flushing {} attendance check-ins", batch.size(), e);
+            batch.forEach(checkIn -> failures.put(checkIn, e));
+        }
+        return failures;
+    }
+
+    /**
+     * Liste régénérée ou supprimée depuis la mise en cache : l'enregistrement est résolu à nouveau
+     * par token et participant, puis écrit seul.
+     */
+    private void rewrite(PendingCheckIn checkIn, Map<PendingCheckIn, RuntimeException> failures) {
+        try {
+            Integer updated = transactionTemplate.execute(status -> attendanceRecordRepository
+                    .findIdByQrCodeTokenAndUserId(checkIn.getQrCodeToken(), checkIn.getUserId())
+                    .map(recordId -> attendanceRecordRepository.updateAttendanceStatusBatch(
+                            List.of(recordId), checkIn.getStatus(), checkIn.getMarkedDate(), checkIn.getMarkedBy()))
+                    .orElse(0));
+            if (updated == null || updated == 0) {
+                log.warn("Attendance check-in for user {} rejected: no current record for token {}",
+                        checkIn.getUserId(), checkIn.getQrCodeToken());
+                failures.put(checkIn, new AttendanceRecordNotFoundException("Participant non trouvé"));
+            }
+        } catch (RuntimeException e) {
+            log.error("Error writing re-resolved attendance check-in for user {}", checkIn.getUserId(), e);
+            failures.put(checkIn, e);
+        }
+    }
+
+    @Getter
+    private static class PendingCheckIn {
+        private final String qrCodeToken;
+        private final Long userId;
+        private final UUID recordId;
+        private final AttendanceStatus status;
+        private final Long markedBy;
+        private final LocalDateTime markedDate;
+        private final CompletableFuture<Void> written = new CompletableFuture<>();
+
+        PendingCheckIn(String qrCodeToken, Long userId, UUID recordId, AttendanceStatus status,
+                       Long markedBy, LocalDateTime markedDate) {
+            this.qrCodeToken = qrCodeToken;
+            this.userId = userId;
+            this.recordId = recordId;
+            this.status = status;
+            this.markedBy = markedBy;
+            this.markedDate = markedDate;
+        }
+    }
+
+    @Value
+    private static class BatchKey {
+        AttendanceStatus status;
+        Long markedBy;
+        LocalDateTime markedDate;
+    }
+}
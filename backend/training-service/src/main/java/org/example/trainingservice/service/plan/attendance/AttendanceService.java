@@ -1,8 +1,11 @@
 package org.example.trainingservice.service.plan.attendance;
 
 import org.example.trainingservice.dto.plan.attendance.*;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -52,7 +55,13 @@ public interface AttendanceService {
     /**
      * Télécharge le PDF d'une liste de présence
      */
-    ResponseEntity<?> downloadAttendancePDF(String attendanceListId);
+    ResponseEntity<?> downloadAttendancePDF(String attendanceListId, HttpHeaders requestHeaders);
+
+    /**
+     * Écrit directement dans la réponse une archive ZIP des PDF de présence d'un groupe,
+     * éventuellement filtrés par type de liste ("internal" ou "csf")
+     */
+    void exportAttendancePDFsZip(Long groupId, String listType, HttpServletResponse response) throws IOException;
 
     /**
      * Supprime une liste de présence
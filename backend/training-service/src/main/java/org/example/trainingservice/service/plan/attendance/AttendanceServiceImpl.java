@@ -1,6 +1,8 @@
 package org.example.trainingservice.service.plan.attendance;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.example.trainingservice.cacheService.AttendanceCheckInCacheService;
 import org.example.trainingservice.client.users.AuthServiceClient;
 import org.example.trainingservice.dto.plan.ParticipantForCancel;
 import org.example.trainingservice.dto.plan.attendance.*;
@@ -17,14 +19,25 @@ import org.example.trainingservice.repository.plan.attendance.AttendanceListRepo
 import org.example.trainingservice.repository.plan.attendance.AttendanceRecordRepository;
 import org.example.trainingservice.service.plan.FileStorageService;
 import org.example.trainingservice.utils.AttendanceUtilMethods;
+import org.example.trainingservice.utils.SecurityUtils;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 @Service
 @Slf4j
@@ -35,6 +48,9 @@ public class AttendanceServiceImpl implements AttendanceService {
     private final TrainingInvitationRepository trainingInvitationRepository;
     private final AuthServiceClient authServiceClient;
     private final FileStorageService fileStorageService; // Injection directe de votre service existant
+    private final AttendanceCheckInCacheService attendanceCheckInCacheService;
+    private final AttendanceCheckInBuffer attendanceCheckInBuffer;
+    private final TransactionTemplate transactionTemplate;
 
 
     public AttendanceServiceImpl(
@@ -42,7 +58,10 @@ public class AttendanceServiceImpl implements AttendanceService {
             AttendanceRecordRepository attendanceRecordRepository,
             TrainingGroupeRepository trainingGroupeRepository,
             TrainingInvitationRepository trainingInvitationRepository,
-            AuthServiceClient authServiceClient, FileStorageService fileStorageService
+            AuthServiceClient authServiceClient, FileStorageService fileStorageService,
+            AttendanceCheckInCacheService attendanceCheckInCacheService,
+            AttendanceCheckInBuffer attendanceCheckInBuffer,
+            PlatformTransactionManager transactionManager
     ) {
         this.attendanceListRepository = attendanceListRepository;
         this.attendanceRecordRepository = attendanceRecordRepository;
@@ -50,10 +69,14 @@ public class AttendanceServiceImpl implements AttendanceService {
         this.trainingInvitationRepository = trainingInvitationRepository;
         this.authServiceClient = authServiceClient;
         this.fileStorageService = fileStorageService;
+        this.attendanceCheckInCacheService = attendanceCheckInCacheService;
+        this.attendanceCheckInBuffer = attendanceCheckInBuffer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
     @Transactional
+    @CacheEvict(value = AttendanceCheckInCacheService.CACHE_NAME, allEntries = true)
     public ResponseEntity<?> saveAttendanceList(SaveAttendanceListRequest request) {
         try {
             log.info("Saving attendance list for group {} on date {}",
@@ -194,20 +217,22 @@ public class AttendanceServiceImpl implements AttendanceService {
     }
 
     @Override
-    @Transactional
     public ResponseEntity<MarkAttendanceResponseDto> markAttendance(MarkAttendanceRequest request) {
         try {
             log.info("Marking attendance for user {} with status {}",
                     request.getUserId(), request.getStatus());
 
-            // 1. Récupérer la liste par token
-            AttendanceList attendanceList = attendanceListRepository
-                    .findByQrCodeToken(request.getQrCodeToken())
-                    .orElseThrow(() -> new AttendanceListNotFoundException("Liste non trouvée"));
+            // 1. Résoudre le token vers la liste courante, puis ses enregistrements (cache par identifiant de liste)
+            List<Object[]> listRows = attendanceListRepository.findIdAndAttendanceDateByQrCodeToken(request.getQrCodeToken());
+            if (listRows.isEmpty()) {
+                throw new AttendanceListNotFoundException("Liste non trouvée");
+            }
+            UUID attendanceListId = (UUID) listRows.get(0)[0];
+            LocalDate attendanceDate = (LocalDate) listRows.get(0)[1];
 
             // 2. Valider que c'est le bon jour
             LocalDate today = LocalDate.now();
-            if (!today.equals(attendanceList.getAttendanceDate())) {
+            if (!today.equals(attendanceDate)) {
                 return ResponseEntity.badRequest()
                         .body(MarkAttendanceResponseDto.builder()
                                 .success(false)
@@ -215,35 +240,25 @@ public class AttendanceServiceImpl implements AttendanceService {
                                 .build());
             }
 
-            // 3. Récupérer l'enregistrement de présence
-            AttendanceRecord record = attendanceRecordRepository
-                    .findByAttendanceList_IdAndUserId(attendanceList.getId(), request.getUserId())
-                    .orElseThrow(() -> new AttendanceRecordNotFoundException("Participant non trouvé"));
-
-            // 4. Mettre à jour le statut
+            // 3. Pointage groupé avec les autres scans : acquitté une fois écrit en base
             AttendanceStatus newStatus = AttendanceStatus.valueOf(request.getStatus());
-            if (newStatus == AttendanceStatus.PRESENT) {
-                record.markAsPresent(request.getMarkedBy());
-            } else {
-                record.markAsAbsent(request.getMarkedBy());
+            UUID recordId = attendanceCheckInCacheService.getTarget(attendanceListId).getRecordId(request.getUserId());
+            if (recordId != null) {
+                attendanceCheckInBuffer.checkIn(request.getQrCodeToken(), request.getUserId(), recordId,
+                        newStatus, request.getMarkedBy());
+                return ResponseEntity.ok(MarkAttendanceResponseDto.builder()
+                        .success(true)
+                        .message("Présence marquée avec succès")
+                        .build());
             }
 
-            AttendanceRecord savedRecord = attendanceRecordRepository.save(record);
-
-            // 5. Convertir en DTO
-            AttendanceRecordDto recordDto = convertToAttendanceRecordDto(savedRecord);
-
-            // 6. Calculer le résumé mis à jour
-            AttendanceListSummaryDto summaryDto = calculateListSummary(attendanceList);
+            // 4. Participant inconnu du cache : écriture directe
+            MarkAttendanceResponseDto response = transactionTemplate.execute(status ->
+                    markAttendanceNow(attendanceListId, request.getUserId(), newStatus, request.getMarkedBy()));
 
             log.info("Attendance marked successfully for user {}", request.getUserId());
 
-            return ResponseEntity.ok(MarkAttendanceResponseDto.builder()
-                    .success(true)
-                    .message("Présence marquée avec succès")
-                    .updatedRecord(recordDto)
-                    .listSummary(summaryDto)
-                    .build());
+            return ResponseEntity.ok(response);
 
         } catch (AttendanceListNotFoundException | AttendanceRecordNotFoundException e) {
             log.warn("Resource not found: {}", e.getMessage());
@@ -309,7 +324,7 @@ public class AttendanceServiceImpl implements AttendanceService {
     }
 
     @Override
-    public ResponseEntity<?> downloadAttendancePDF(String attendanceListId) {
+    public ResponseEntity<?> downloadAttendancePDF(String attendanceListId, HttpHeaders requestHeaders) {
         try {
             log.info("Downloading PDF for attendance list: {}", attendanceListId);
 
@@ -321,14 +336,9 @@ public class AttendanceServiceImpl implements AttendanceService {
                 return ResponseEntity.notFound().build();
             }
 
-            // Récupérer le fichier depuis MinIO
-            byte[] pdfBytes = fileStorageService.downloadFile(attendanceList.getPdfFilePath());
-
-            return ResponseEntity.ok()
-                    .header("Content-Type", "application/pdf")
-                    .header("Content-Disposition",
-                            "attachment; filename=\"" + attendanceList.getPdfFileName() + "\"")
-                    .body(pdfBytes);
+            // Transmettre le fichier depuis MinIO en flux
+            return fileStorageService.streamFile(attendanceList.getPdfFilePath(), attendanceList.getPdfFileName(),
+                    MediaType.APPLICATION_PDF, false, requestHeaders);
 
         } catch (Exception e) {
             log.error("Error downloading PDF for attendance list: {}", attendanceListId, e);
@@ -337,8 +347,58 @@ public class AttendanceServiceImpl implements AttendanceService {
         }
     }
 
+    @Override
+    public void exportAttendancePDFsZip(Long groupId, String listType, HttpServletResponse response) throws IOException {
+        log.info("Exporting attendance PDFs as ZIP for group {} (listType: {})", groupId, listType);
+
+        Long companyId = SecurityUtils.getCurrentCompanyId();
+        List<AttendanceList> attendanceLists = attendanceListRepository
+                .findByTrainingGroupeIdOrderByAttendanceDateAsc(groupId).stream()
+                .filter(list -> companyId.equals(list.getCompanyId()))
+                .filter(list -> list.getPdfFilePath() != null)
+                .filter(list -> listType == null || listType.isBlank() || listType.equalsIgnoreCase(list.getListType()))
+                .toList();
+
+        if (attendanceLists.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "Aucune liste de présence trouvée");
+            return;
+        }
+
+        String zipName = "presences-groupe-" + groupId
+                + (listType != null && !listType.isBlank() ? "-" + listType.toLowerCase() : "") + ".zip";
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + zipName + "\"");
+        response.flushBuffer();
+
+        // Chaque PDF est copié de MinIO vers l'archive avec un tampon fixe : mémoire constante quel que soit le groupe
+        Set<String> entryNames = new HashSet<>();
+        int added = 0;
+        try (ZipOutputStream zip = new ZipOutputStream(response.getOutputStream())) {
+            // Les PDF sont déjà compressés : compression minimale pour limiter le coût CPU
+            zip.setLevel(Deflater.BEST_SPEED);
+            for (AttendanceList attendanceList : attendanceLists) {
+                InputStream pdf;
+                try {
+                    pdf = fileStorageService.openFile(attendanceList.getPdfFilePath());
+                } catch (Exception e) {
+                    log.warn("Attendance PDF missing for list {}, skipped: {}", attendanceList.getId(), e.getMessage());
+                    continue;
+                }
+                try (pdf) {
+                    zip.putNextEntry(new ZipEntry(buildZipEntryName(attendanceList, entryNames)));
+                    pdf.transferTo(zip);
+                    zip.closeEntry();
+                }
+                zip.flush();
+                added++;
+            }
+        }
+        log.info("Exported {} attendance PDFs for group {}", added, groupId);
+    }
+
     @Override
     @Transactional
+    @CacheEvict(value = AttendanceCheckInCacheService.CACHE_NAME, key = "T(java.util.UUID).fromString(#attendanceListId)")
     public ResponseEntity<?> deleteAttendanceList(String attendanceListId) {
         try {
             log.info("Deleting attendance list: {}", attendanceListId);
@@ -560,6 +620,26 @@ public class AttendanceServiceImpl implements AttendanceService {
                 .build();
     }
 
+    private MarkAttendanceResponseDto markAttendanceNow(UUID attendanceListId, Long userId, AttendanceStatus newStatus, Long markedBy) {
+        AttendanceRecord record = attendanceRecordRepository
+                .findByAttendanceList_IdAndUserId(attendanceListId, userId)
+                .orElseThrow(() -> new AttendanceRecordNotFoundException("Participant non trouvé"));
+
+        if (newStatus == AttendanceStatus.PRESENT) {
+            record.markAsPresent(markedBy);
+        } else {
+            record.markAsAbsent(markedBy);
+        }
+        AttendanceRecord savedRecord = attendanceRecordRepository.save(record);
+
+        return MarkAttendanceResponseDto.builder()
+                .success(true)
+                .message("Présence marquée avec succès")
+                .updatedRecord(convertToAttendanceRecordDto(savedRecord))
+                .listSummary(calculateListSummary(savedRecord.getAttendanceList()))
+                .build();
+    }
+
     private AttendanceRecordDto convertToAttendanceRecordDto(AttendanceRecord record) {
         return AttendanceRecordDto.builder()
                 .recordId(record.getId().toString())
@@ -642,6 +722,18 @@ public class AttendanceServiceImpl implements AttendanceService {
                 .build();
     }
 
+    private String buildZipEntryName(AttendanceList attendanceList, Set<String> entryNames) {
+        String fileName = attendanceList.getPdfFileName() != null ? attendanceList.getPdfFileName() : "liste.pdf";
+        String baseName = attendanceList.getAttendanceDate() + "_"
+                + (attendanceList.getListType() != null ? attendanceList.getListType() : "liste") + "_"
+                + fileName.replaceAll("[\\\\/]", "_");
+        String entryName = baseName;
+        for (int i = 2; !entryNames.add(entryName); i++) {
+            entryName = i + "_" + baseName;
+        }
+        return entryName;
+    }
+
     private String getListTypeDescription(String listType) {
         return switch (listType.toLowerCase()) {
             case "internal" -> "Liste interne";
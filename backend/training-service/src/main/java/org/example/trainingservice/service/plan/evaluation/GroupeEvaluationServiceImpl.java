@@ -1,6 +1,8 @@
 package org.example.trainingservice.service.plan.evaluation;
 
 import lombok.extern.slf4j.Slf4j;
+import org.example.trainingservice.cacheService.EvaluationFormCacheService;
+import org.example.trainingservice.cacheService.EvaluationSyntheseCacheService;
 import org.example.trainingservice.client.users.AuthServiceClient;
 import org.example.trainingservice.dto.evaluation.Participant;
 import org.example.trainingservice.dto.plan.evaluation.*;
@@ -18,9 +20,12 @@ import org.example.trainingservice.repository.plan.TrainingGroupeRepository;
 import org.example.trainingservice.repository.plan.TrainingRepository;
 import org.example.trainingservice.repository.plan.evaluation.GroupeEvaluationRepo;
 import org.example.trainingservice.repository.plan.f4.EvaluationQRTokenRepository;
+import org.example.trainingservice.service.evaluations.EvaluationProgressService;
 import org.example.trainingservice.service.plan.f4.PublicEvaluationService;
 import org.example.trainingservice.utils.GroupeEvaluationUtilMethods;
 import org.example.trainingservice.utils.SecurityUtils;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -41,8 +46,9 @@ public class GroupeEvaluationServiceImpl implements GroupeEvaluationService {
     private final PublicEvaluationService publicEvaluationService;
     private final EvaluationQRTokenRepository qrTokenRepository;
     private final UserResponseRepository userResponseRepository;
+    private final EvaluationProgressService evaluationProgressService;
 
-    public GroupeEvaluationServiceImpl(GroupeEvaluationRepo groupeEvaluationRepo, TrainingGroupeRepository trainingGroupeRepository, AuthServiceClient authServiceClient, QuestionnaireRepository questionnaireRepository, TrainingRepository trainingRepository, PublicEvaluationService publicEvaluationService, EvaluationQRTokenRepository qrTokenRepository, UserResponseRepository userResponseRepository) {
+    public GroupeEvaluationServiceImpl(GroupeEvaluationRepo groupeEvaluationRepo, TrainingGroupeRepository trainingGroupeRepository, AuthServiceClient authServiceClient, QuestionnaireRepository questionnaireRepository, TrainingRepository trainingRepository, PublicEvaluationService publicEvaluationService, EvaluationQRTokenRepository qrTokenRepository, UserResponseRepository userResponseRepository, EvaluationProgressService evaluationProgressService) {
         this.groupeEvaluationRepo = groupeEvaluationRepo;
         this.trainingGroupeRepository = trainingGroupeRepository;
         this.authServiceClient = authServiceClient;
@@ -51,6 +57,7 @@ public class GroupeEvaluationServiceImpl implements GroupeEvaluationService {
         this.publicEvaluationService = publicEvaluationService;
         this.qrTokenRepository = qrTokenRepository;
         this.userResponseRepository = userResponseRepository;
+        this.evaluationProgressService = evaluationProgressService;
     }
 
     @Override
@@ -117,6 +124,7 @@ public class GroupeEvaluationServiceImpl implements GroupeEvaluationService {
     }
 
     @Override
+    @CacheEvict(value = EvaluationFormCacheService.TEMPLATE_CACHE_NAME, key = "#dto.id", condition = "#dto.id != null")
     public void updateStatus(UpdateGroupeEvaluationStatusDto dto) {
         log.info("updateStatus dto : {}", dto);
         UUID evaluationId = dto.getId();
@@ -319,6 +327,10 @@ public class GroupeEvaluationServiceImpl implements GroupeEvaluationService {
 
     @Transactional
     @Override
+    @Caching(evict = {
+            @CacheEvict(value = EvaluationSyntheseCacheService.CACHE_NAME, key = "#groupeEvaluationId"),
+            @CacheEvict(value = EvaluationFormCacheService.TEMPLATE_CACHE_NAME, key = "#groupeEvaluationId")
+    })
     public ResponseEntity<?> deleteGroupeEvaluation(UUID groupeEvaluationId) {
         log.info("Tentative de suppression de l'évaluation de groupe avec l'ID : {}", groupeEvaluationId);
 
@@ -362,6 +374,7 @@ public class GroupeEvaluationServiceImpl implements GroupeEvaluationService {
                 List<UserResponse> userResponses = userResponseRepository.findByGroupeEvaluationId(groupeEvaluationId);
                 if (!userResponses.isEmpty()) {
                     userResponseRepository.deleteAll(userResponses);
+                    evaluationProgressService.deleteByEvaluationId(groupeEvaluationId);
                     log.info("Réponses utilisateurs supprimées ({} réponses) pour l'évaluation : {}",
                             userResponses.size(), groupeEvaluationId);
                 }
@@ -419,6 +432,10 @@ public class GroupeEvaluationServiceImpl implements GroupeEvaluationService {
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(value = EvaluationSyntheseCacheService.CACHE_NAME, key = "#evaluationId"),
+            @CacheEvict(value = EvaluationFormCacheService.TEMPLATE_CACHE_NAME, key = "#evaluationId")
+    })
     public void updateGroupeEvaluation(UUID evaluationId, UpdateGroupeEvaluationDto updateDto) {
         log.info("updateGroupeEvaluation evaluationId: {}, updateDto: {}", evaluationId, updateDto);
 
@@ -1,26 +1,32 @@
 package org.example.trainingservice.service.plan.f4;
 
 import lombok.extern.slf4j.Slf4j;
+import org.example.trainingservice.cacheService.EvaluationFormCacheService;
+import org.example.trainingservice.cacheService.EvaluationSyntheseCacheService;
+import org.example.trainingservice.cacheService.QuestionnaireDefinitionCacheService;
 import org.example.trainingservice.client.users.AuthServiceClient;
 import org.example.trainingservice.dto.evaluation.Participant;
+import org.example.trainingservice.dto.evaluation.QuestionnaireDefinition;
 import org.example.trainingservice.dto.plan.f4.*;
-import org.example.trainingservice.entity.campaign.Question;
-import org.example.trainingservice.entity.campaign.Questionnaire;
 import org.example.trainingservice.entity.campaign.UserResponse;
-import org.example.trainingservice.entity.plan.TrainingGroupe;
 import org.example.trainingservice.entity.plan.evaluation.GroupeEvaluation;
 import org.example.trainingservice.entity.plan.f4.EvaluationQRToken;
 import org.example.trainingservice.enums.EvaluationSource;
 import org.example.trainingservice.enums.GroupeEvaluationStatusEnums;
 import org.example.trainingservice.repository.evaluation.UserResponseRepository;
-import org.example.trainingservice.repository.plan.TrainingGroupeRepository;
 import org.example.trainingservice.repository.plan.evaluation.GroupeEvaluationRepo;
 import org.example.trainingservice.repository.plan.f4.EvaluationQRTokenRepository;
+import org.example.trainingservice.service.evaluations.EvaluationProgressService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.security.SecureRandom;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -31,15 +37,27 @@ public class PublicEvaluationServiceImpl implements PublicEvaluationService {
     private final GroupeEvaluationRepo groupeEvaluationRepo;
     private final EvaluationQRTokenRepository qrTokenRepository;
     private final AuthServiceClient authServiceClient;
-    private final TrainingGroupeRepository trainingGroupeRepository;
     private final UserResponseRepository userResponseRepository;
+    private final EvaluationProgressService evaluationProgressService;
+    private final QuestionnaireDefinitionCacheService questionnaireDefinitionCacheService;
+    private final EvaluationFormCacheService evaluationFormCacheService;
+    private final EvaluationSyntheseCacheService evaluationSyntheseCacheService;
+    private final TransactionTemplate transactionTemplate;
 
-    public PublicEvaluationServiceImpl(GroupeEvaluationRepo groupeEvaluationRepo, EvaluationQRTokenRepository qrTokenRepository, AuthServiceClient authServiceClient, TrainingGroupeRepository trainingGroupeRepository, UserResponseRepository userResponseRepository) {
+    private static final int TOKEN_BYTES = 32;
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+    private static final Base64.Encoder TOKEN_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    public PublicEvaluationServiceImpl(GroupeEvaluationRepo groupeEvaluationRepo, EvaluationQRTokenRepository qrTokenRepository, AuthServiceClient authServiceClient, UserResponseRepository userResponseRepository, EvaluationProgressService evaluationProgressService, QuestionnaireDefinitionCacheService questionnaireDefinitionCacheService, EvaluationFormCacheService evaluationFormCacheService, EvaluationSyntheseCacheService evaluationSyntheseCacheService, PlatformTransactionManager transactionManager) {
         this.groupeEvaluationRepo = groupeEvaluationRepo;
         this.qrTokenRepository = qrTokenRepository;
         this.authServiceClient = authServiceClient;
-        this.trainingGroupeRepository = trainingGroupeRepository;
         this.userResponseRepository = userResponseRepository;
+        this.evaluationProgressService = evaluationProgressService;
+        this.questionnaireDefinitionCacheService = questionnaireDefinitionCacheService;
+        this.evaluationFormCacheService = evaluationFormCacheService;
+        this.evaluationSyntheseCacheService = evaluationSyntheseCacheService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
@@ -74,12 +92,14 @@ public class PublicEvaluationServiceImpl implements PublicEvaluationService {
                         .build());
             }
 
-            // 3. Récupérer l'évaluation de groupe
-            GroupeEvaluation groupeEvaluation = groupeEvaluationRepo.findById(qrToken.getGroupeEvaluationId())
-                    .orElseThrow(() -> new RuntimeException("Évaluation non trouvée"));
+            // 3. Récupérer le formulaire pré-construit de l'évaluation de groupe (cache)
+            EvaluationFormTemplate formTemplate = evaluationFormCacheService.getFormTemplate(qrToken.getGroupeEvaluationId());
+            if (formTemplate == null) {
+                throw new RuntimeException("Évaluation non trouvée");
+            }
 
             // 4. Vérifier que l'évaluation est publiée
-            if (groupeEvaluation.getStatus() != GroupeEvaluationStatusEnums.PUBLISHED) {
+            if (formTemplate.getStatus() != GroupeEvaluationStatusEnums.PUBLISHED) {
                 return ResponseEntity.ok(QREvaluationScanResponseDto.builder()
                         .valid(false)
                         .message("Cette évaluation n'est pas encore disponible")
@@ -96,22 +116,8 @@ public class PublicEvaluationServiceImpl implements PublicEvaluationService {
                     .email(qrToken.getParticipantEmail())
                     .build();
 
-            // 6. Récupérer les informations de formation
-            TrainingInfoDto trainingInfo = getTrainingInfo(groupeEvaluation.getGroupeId());
-
-            // 7. Convertir le questionnaire
-            QuestionnaireDto questionnaireDto = convertQuestionnaireToDto(groupeEvaluation.getQuestionnaire());
-
-            // 8. Construire le formulaire d'évaluation
-            EvaluationFormDto evaluationForm = EvaluationFormDto.builder()
-                    .token(token)
-                    .groupeEvaluationId(groupeEvaluation.getId())
-                    .evaluationLabel(groupeEvaluation.getLabel())
-                    .evaluationType(groupeEvaluation.getType())
-                    .participant(participantInfo)
-                    .training(trainingInfo)
-                    .questionnaire(questionnaireDto)
-                    .build();
+            // 6. Compléter le formulaire avec le token et le participant
+            EvaluationFormDto evaluationForm = formTemplate.render(token, participantInfo);
 
             return ResponseEntity.ok(QREvaluationScanResponseDto.builder()
                     .valid(true)
@@ -179,11 +185,11 @@ public class PublicEvaluationServiceImpl implements PublicEvaluationService {
                         .build());
             }
 
-            Questionnaire questionnaire = groupeEvaluation.getQuestionnaire();
-            List<Question> questions = questionnaire.getQuestions();
+            QuestionnaireDefinition questionnaire = questionnaireDefinitionCacheService
+                    .getRequired(groupeEvaluation.getQuestionnaire().getId());
 
             // 6. Valider que toutes les questions obligatoires ont une réponse
-            boolean allQuestionsAnswered = validateAllQuestionsAnswered(questions, request.getResponses());
+            boolean allQuestionsAnswered = validateAllQuestionsAnswered(questionnaire, request.getResponses());
             if (!allQuestionsAnswered) {
                 return ResponseEntity.ok(SubmitResponseResultDto.builder()
                         .success(false)
@@ -192,19 +198,32 @@ public class PublicEvaluationServiceImpl implements PublicEvaluationService {
                         .build());
             }
 
-            // 7. Convertir les réponses en UserResponse
+            // 7. Réclamer le token par un UPDATE conditionnel : seule la première soumission obtient une ligne,
+            // les doubles envois concurrents ressortent avec 0 et n'écrivent aucune réponse
+            int claimed = qrTokenRepository.claimToken(qrToken.getToken(), LocalDateTime.now());
+            if (claimed == 0) {
+                log.warn("Token already claimed by a concurrent submission: {}", request.getToken());
+                return ResponseEntity.ok(SubmitResponseResultDto.builder()
+                        .success(false)
+                        .message("Le formulaire a déjà été rempli")
+                        .errorCode("ALREADY_USED")
+                        .build());
+            }
+
+            // 8. Convertir les réponses en UserResponse
             List<UserResponse> userResponses = convertToUserResponses(
                     request.getResponses(),
                     qrToken,
                     groupeEvaluation
             );
 
-            // 8. Sauvegarder les réponses
+            // 9. Sauvegarder les réponses
             userResponseRepository.saveAll(userResponses);
+            evaluationSyntheseCacheService.evict(qrToken.getGroupeEvaluationId());
 
-            // 9. Marquer le token comme utilisé
-            qrToken.markAsUsed();
-            qrTokenRepository.save(qrToken);
+            // 10. Mettre à jour la progression du participant
+            evaluationProgressService.refresh(qrToken.getParticipantId(), questionnaire,
+                    userResponseRepository.findByUserIdAndQuestionnaireId(qrToken.getParticipantId(), questionnaire.getId()));
 
             log.info("Successfully submitted {} responses for token: {}", userResponses.size(), request.getToken());
 
@@ -217,6 +236,8 @@ public class PublicEvaluationServiceImpl implements PublicEvaluationService {
 
         } catch (Exception e) {
             log.error("Error submitting evaluation responses for token: {}", request.getToken(), e);
+            // Annuler la réclamation du token : le participant pourra soumettre à nouveau
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return ResponseEntity.ok(SubmitResponseResultDto.builder()
                     .success(false)
                     .message("Erreur lors de l'enregistrement des réponses")
@@ -226,7 +247,6 @@ public class PublicEvaluationServiceImpl implements PublicEvaluationService {
     }
 
     @Override
-    @Transactional
     public void generateQRTokensForEvaluation(UUID groupeEvaluationId) {
         try {
             log.info("Generating QR tokens for evaluation: {}", groupeEvaluationId);
@@ -234,40 +254,37 @@ public class PublicEvaluationServiceImpl implements PublicEvaluationService {
             GroupeEvaluation groupeEvaluation = groupeEvaluationRepo.findById(groupeEvaluationId)
                     .orElseThrow(() -> new RuntimeException("Évaluation non trouvée"));
 
-            // Supprimer les anciens tokens s'ils existent
-            qrTokenRepository.deleteByGroupeEvaluationId(groupeEvaluationId);
-
-            // Récupérer les infos des participants
-            List<Participant> participants = authServiceClient.getParticipants(groupeEvaluation.getParticipantIds());
-
-            // Créer une map pour retrouver rapidement les infos du participant
-            Map<Long, Participant> participantMap = participants.stream()
-                    .collect(Collectors.toMap(Participant::getId, Function.identity()));
+            // Récupérer les infos des participants avant d'ouvrir la transaction d'écriture
+            List<Long> participantIds = groupeEvaluation.getParticipantIds() != null
+                    ? groupeEvaluation.getParticipantIds() : List.of();
+            Map<Long, Participant> participantMap = participantIds.isEmpty() ? Map.of()
+                    : authServiceClient.getParticipants(participantIds).stream()
+                    .collect(Collectors.toMap(Participant::getId, Function.identity(), (first, second) -> first));
 
             // Générer un token pour chaque participant
-            List<EvaluationQRToken> tokens = groupeEvaluation.getParticipantIds().stream()
-                    .map(participantId -> {
-                        Participant participant = participantMap.get(participantId);
-                        String fullName = participant.getFirstName() + " " + participant.getLastName();
-                        String cin = participant.getCin();
-                        String cnss = participant.getCnss();
-                        String email = participant.getEmail();
-
-                        return EvaluationQRToken.builder()
-                                .token(UUID.randomUUID().toString())
-                                .participantId(participantId)
-                                .participantFullName(fullName)
-                                .participantCin(cin)
-                                .participantCnss(cnss)
-                                .participantEmail(email)
-                                .groupeEvaluationId(groupeEvaluationId)
-                                .companyId(groupeEvaluation.getCompanyId())
-                                .build();
-                    })
-                    .collect(Collectors.toList());
-
-
-            qrTokenRepository.saveAll(tokens);
+            List<EvaluationQRToken> tokens = new ArrayList<>(participantIds.size());
+            for (Long participantId : participantIds) {
+                Participant participant = participantMap.get(participantId);
+                tokens.add(EvaluationQRToken.builder()
+                        .token(generateSecureToken())
+                        .participantId(participantId)
+                        .participantFullName(participant != null
+                                ? participant.getFirstName() + " " + participant.getLastName() : null)
+                        .participantCin(participant != null ? participant.getCin() : null)
+                        .participantCnss(participant != null ? participant.getCnss() : null)
+                        .participantEmail(participant != null ? participant.getEmail() : null)
+                        .groupeEvaluationId(groupeEvaluationId)
+                        .companyId(groupeEvaluation.getCompanyId())
+                        .build());
+            }
+
+            // Supprimer les anciens tokens et insérer les nouveaux dans une transaction courte :
+            // un DELETE ensembliste puis des INSERT envoyés par lots JDBC
+            transactionTemplate.executeWithoutResult(status -> {
+                int deleted = qrTokenRepository.deleteByGroupeEvaluationId(groupeEvaluationId);
+                qrTokenRepository.saveAll(tokens);
+                log.debug("Replaced {} QR tokens by {} for evaluation {}", deleted, tokens.size(), groupeEvaluationId);
+            });
 
             log.info("Generated {} QR tokens for evaluation {}", tokens.size(), groupeEvaluationId);
 
@@ -277,6 +294,15 @@ public class PublicEvaluationServiceImpl implements PublicEvaluationService {
         }
     }
 
+    /**
+     * Token opaque de 256 bits, encodé en Base64 URL sans padding (utilisable tel quel dans le lien du QR code).
+     */
+    private static String generateSecureToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        SECURE_RANDOM.nextBytes(bytes);
+        return TOKEN_ENCODER.encodeToString(bytes);
+    }
+
 
     // ====================
     // MÉTHODES UTILITAIRES PRIVÉES
@@ -305,54 +331,12 @@ public class PublicEvaluationServiceImpl implements PublicEvaluationService {
                 .build();
     }
 
-    private TrainingInfoDto getTrainingInfo(Long groupeId) {
-        Optional<TrainingGroupe> groupeOpt = trainingGroupeRepository.findById(groupeId);
-
-        if (groupeOpt.isPresent()) {
-            TrainingGroupe groupe = groupeOpt.get();
-            return TrainingInfoDto.builder()
-                    .groupName(groupe.getName())
-                    .trainingTheme(groupe.getTraining().getTheme())
-                    .location(groupe.getLocation())
-                    .city(groupe.getCity())
-                    .build();
-        }
-
-        return TrainingInfoDto.builder()
-                .groupName("Groupe de formation")
-                .trainingTheme("Formation")
-                .location("")
-                .city("")
-                .build();
-    }
-
-    private QuestionnaireDto convertQuestionnaireToDto(Questionnaire questionnaire) {
-        List<QuestionDto> questionDtos = questionnaire.getQuestions().stream()
-                .map(question -> QuestionDto.builder()
-                        .questionId(question.getId())
-                        .type(question.getType())
-                        .text(question.getText())
-                        .comment(question.getComment())
-                        .options(question.getOptions())
-                        .levels(question.getLevels())
-                        .required(true) // Toutes les questions sont obligatoires selon vos préférences
-                        .build())
-                .collect(Collectors.toList());
-
-        return QuestionnaireDto.builder()
-                .questionnaireId(questionnaire.getId())
-                .title(questionnaire.getTitle())
-                .description(questionnaire.getDescription())
-                .questions(questionDtos)
-                .build();
-    }
-
-    private boolean validateAllQuestionsAnswered(List<Question> questions, List<EvaluationResponseDto> responses) {
+    private boolean validateAllQuestionsAnswered(QuestionnaireDefinition questionnaire, List<EvaluationResponseDto> responses) {
         Set<UUID> answeredQuestionIds = responses.stream()
                 .map(EvaluationResponseDto::getQuestionId)
                 .collect(Collectors.toSet());
 
-        return questions.stream()
+        return questionnaire.getQuestions().stream()
                 .allMatch(question -> answeredQuestionIds.contains(question.getId()));
     }
 
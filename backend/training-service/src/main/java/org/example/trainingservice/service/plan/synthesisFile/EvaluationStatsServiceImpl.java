@@ -1,11 +1,11 @@
 package org.example.trainingservice.service.plan.synthesisFile;
 
 import lombok.extern.slf4j.Slf4j;
+import org.example.trainingservice.cacheService.EvaluationSyntheseCacheService;
 import org.example.trainingservice.client.company.CompanyServiceClient;
 import org.example.trainingservice.dto.plan.synthesisFile.EvaluationSyntheseDto;
 import org.example.trainingservice.dto.plan.synthesisFile.QuestionStatsDto;
 import org.example.trainingservice.entity.campaign.Question;
-import org.example.trainingservice.entity.campaign.UserResponse;
 import org.example.trainingservice.entity.plan.Training;
 import org.example.trainingservice.entity.plan.TrainingGroupe;
 import org.example.trainingservice.entity.plan.evaluation.GroupeEvaluation;
@@ -32,19 +32,30 @@ public class EvaluationStatsServiceImpl implements EvaluationStatsService {
     private final TrainingGroupeRepository trainingGroupeRepository;
     private final TrainingRepository trainingRepository;
     private final CompanyServiceClient companyServiceClient;
+    private final EvaluationSyntheseCacheService evaluationSyntheseCacheService;
 
     public EvaluationStatsServiceImpl(GroupeEvaluationRepo groupeEvaluationRepo,
-                                      UserResponseRepository userResponseRepository, TrainingGroupeRepository trainingGroupeRepository, TrainingRepository trainingRepository, CompanyServiceClient companyServiceClient) {
+                                      UserResponseRepository userResponseRepository, TrainingGroupeRepository trainingGroupeRepository, TrainingRepository trainingRepository, CompanyServiceClient companyServiceClient,
+                                      EvaluationSyntheseCacheService evaluationSyntheseCacheService) {
         this.groupeEvaluationRepo = groupeEvaluationRepo;
         this.userResponseRepository = userResponseRepository;
         this.trainingGroupeRepository = trainingGroupeRepository;
         this.trainingRepository = trainingRepository;
         this.companyServiceClient = companyServiceClient;
+        this.evaluationSyntheseCacheService = evaluationSyntheseCacheService;
     }
 
+    /**
+     * Synthèse mise en cache par évaluation (EvaluationSyntheseCacheService) : un appel répété ne relit pas les réponses.
+     * Les évaluations incomplètes lèvent une exception et ne sont donc jamais mises en cache.
+     */
     @Override
     @Transactional(readOnly = true)
     public EvaluationSyntheseDto generateEvaluationSynthese(UUID groupeEvaluationId) {
+        return evaluationSyntheseCacheService.get(groupeEvaluationId, () -> buildEvaluationSynthese(groupeEvaluationId));
+    }
+
+    private EvaluationSyntheseDto buildEvaluationSynthese(UUID groupeEvaluationId) {
         try {
             log.info("Génération de la synthèse pour l'évaluation: {}", groupeEvaluationId);
 
@@ -53,22 +64,27 @@ public class EvaluationStatsServiceImpl implements EvaluationStatsService {
                     .orElseThrow(() -> new RuntimeException("Évaluation non trouvée"));
 
             // 2. Vérifier que l'évaluation est complète
-            if (!isEvaluationComplete(groupeEvaluation)) {
+            int totalParticipants = groupeEvaluation.getParticipantIds().size();
+            int uniqueRespondents = (int) userResponseRepository
+                    .countDistinctRespondents(groupeEvaluationId, groupeEvaluation.getParticipantIds());
+            if (uniqueRespondents != totalParticipants) {
                 throw new RuntimeException("L'évaluation n'est pas encore complète");
             }
 
-            // 3. Récupérer toutes les réponses pour cette évaluation
-            List<UserResponse> allResponses = userResponseRepository
-                    .findByGroupeEvaluationIdAndUserIdIn(
-                            groupeEvaluationId,
-                            groupeEvaluation.getParticipantIds()
-                    );
+            // 3. Compter les réponses par question et par choix (GROUP BY côté base)
+            Map<UUID, Map<String, Long>> choiceCountsByQuestion = new HashMap<>();
+            for (Object[] row : userResponseRepository
+                    .countChoicesByQuestion(groupeEvaluationId, groupeEvaluation.getParticipantIds())) {
+                choiceCountsByQuestion
+                        .computeIfAbsent((UUID) row[0], questionId -> new HashMap<>())
+                        .put((String) row[1], (Long) row[2]);
+            }
 
             // 4. Calculer les statistiques par question
             List<QuestionStatsDto> questionStats = calculateQuestionStats(
                     groupeEvaluation.getQuestionnaire().getQuestions(),
-                    allResponses,
-                    groupeEvaluation.getParticipantIds().size()
+                    choiceCountsByQuestion,
+                    totalParticipants
             );
 
             // Récuperer les infos concernant le groupe
@@ -80,8 +96,7 @@ public class EvaluationStatsServiceImpl implements EvaluationStatsService {
             TrainingGroupe trainingGroupe = byId.get();
             String trainerName = trainingGroupe.getTrainerName();
 
-            List<String> datesString = trainingGroupe.getDates();
-            LocalDate lastDate = TrainingGroupeUtilMethods.getLastDate(datesString, "yyyy-MM-dd");
+            LocalDate lastDate = trainingGroupe.getLastSessionDate();
 
             Long extractedNumber = TrainingGroupeUtilMethods.extraireNumber(trainingGroupe.getName());
 
@@ -106,9 +121,9 @@ public class EvaluationStatsServiceImpl implements EvaluationStatsService {
                     .evaluationLabel(groupeEvaluation.getLabel())
                     .questionnaireTitle(groupeEvaluation.getQuestionnaire().getTitle())
                     .questionnaireDescription(groupeEvaluation.getQuestionnaire().getDescription())
-                    .totalParticipants(groupeEvaluation.getParticipantIds().size())
-                    .totalResponses(getUniqueRespondentsCount(allResponses))
-                    .completionPercentage(calculateCompletionPercentage(groupeEvaluation, allResponses))
+                    .totalParticipants(totalParticipants)
+                    .totalResponses(uniqueRespondents)
+                    .completionPercentage(calculateCompletionPercentage(totalParticipants, uniqueRespondents))
                     .questionStats(questionStats)
                     .generationDate(new Date())
                     .trainerName(trainerName)
@@ -127,32 +142,15 @@ public class EvaluationStatsServiceImpl implements EvaluationStatsService {
         }
     }
 
-    /**
-     * Vérifier si l'évaluation est complète (tous les participants ont répondu)
-     */
-    private boolean isEvaluationComplete(GroupeEvaluation groupeEvaluation) {
-        List<UserResponse> responses = userResponseRepository
-                .findByGroupeEvaluationIdAndUserIdIn(
-                        groupeEvaluation.getId(),
-                        groupeEvaluation.getParticipantIds()
-                );
-
-        // Compter les participants uniques qui ont répondu
-        Set<Long> respondents = responses.stream()
-                .map(UserResponse::getUserId)
-                .collect(Collectors.toSet());
-
-        return respondents.size() == groupeEvaluation.getParticipantIds().size();
-    }
-
     /**
      * Calculer les statistiques pour chaque question
      */
     private List<QuestionStatsDto> calculateQuestionStats(List<Question> questions,
-                                                          List<UserResponse> allResponses,
+                                                          Map<UUID, Map<String, Long>> choiceCountsByQuestion,
                                                           int totalParticipants) {
         return questions.stream()
-                .map(question -> calculateSingleQuestionStats(question, allResponses, totalParticipants))
+                .map(question -> calculateSingleQuestionStats(question,
+                        choiceCountsByQuestion.getOrDefault(question.getId(), Map.of()), totalParticipants))
                 .collect(Collectors.toList());
     }
 
@@ -160,12 +158,10 @@ public class EvaluationStatsServiceImpl implements EvaluationStatsService {
      * Calculer les statistiques pour une question donnée
      */
     private QuestionStatsDto calculateSingleQuestionStats(Question question,
-                                                          List<UserResponse> allResponses,
+                                                          Map<String, Long> choiceCounts,
                                                           int totalParticipants) {
-        // Filtrer les réponses pour cette question
-        List<UserResponse> questionResponses = allResponses.stream()
-                .filter(response -> response.getQuestionId().equals(question.getId()))
-                .collect(Collectors.toList());
+        // Nombre de réponses pour cette question, tous choix confondus
+        long questionResponses = choiceCounts.values().stream().mapToLong(Long::longValue).sum();
 
         // Calculer les statistiques selon le type de question
         Map<String, Double> optionPercentages = new LinkedHashMap<>();
@@ -174,14 +170,14 @@ public class EvaluationStatsServiceImpl implements EvaluationStatsService {
             // Questions à choix unique avec options
             optionPercentages = calculateOptionPercentages(
                     question.getOptions(),
-                    questionResponses,
+                    choiceCounts,
                     totalParticipants
             );
         } else if (question.getLevels() != null && !question.getLevels().isEmpty()) {
             // Questions avec niveaux
             optionPercentages = calculateOptionPercentages(
                     question.getLevels(),
-                    questionResponses,
+                    choiceCounts,
                     totalParticipants
             );
         }
@@ -190,7 +186,7 @@ public class EvaluationStatsServiceImpl implements EvaluationStatsService {
                 .questionId(question.getId())
                 .questionText(question.getText())
                 .questionType(question.getType())
-                .totalResponses(questionResponses.size())
+                .totalResponses((int) questionResponses)
                 .optionPercentages(optionPercentages)
                 .build();
     }
@@ -199,18 +195,10 @@ public class EvaluationStatsServiceImpl implements EvaluationStatsService {
      * Calculer les pourcentages pour chaque option
      */
     private Map<String, Double> calculateOptionPercentages(List<String> options,
-                                                           List<UserResponse> responses,
+                                                           Map<String, Long> optionCounts,
                                                            int totalParticipants) {
         Map<String, Double> percentages = new LinkedHashMap<>();
 
-        // Compter les réponses pour chaque option
-        Map<String, Long> optionCounts = responses.stream()
-                .filter(response -> response.getSingleChoiceResponse() != null)
-                .collect(Collectors.groupingBy(
-                        UserResponse::getSingleChoiceResponse,
-                        Collectors.counting()
-                ));
-
         // Calculer les pourcentages
         for (String option : options) {
             long count = optionCounts.getOrDefault(option, 0L);
@@ -228,25 +216,11 @@ public class EvaluationStatsServiceImpl implements EvaluationStatsService {
         return percentages;
     }
 
-    /**
-     * Compter le nombre de participants uniques qui ont répondu
-     */
-    private int getUniqueRespondentsCount(List<UserResponse> responses) {
-        return (int) responses.stream()
-                .map(UserResponse::getUserId)
-                .distinct()
-                .count();
-    }
-
     /**
      * Calculer le pourcentage de completion global
      */
-    private double calculateCompletionPercentage(GroupeEvaluation groupeEvaluation,
-                                                 List<UserResponse> allResponses) {
-        int totalParticipants = groupeEvaluation.getParticipantIds().size();
-        int uniqueRespondents = getUniqueRespondentsCount(allResponses);
-
+    private double calculateCompletionPercentage(int totalParticipants, int uniqueRespondents) {
         return totalParticipants > 0 ?
                 (double) uniqueRespondents / totalParticipants * 100 : 0.0;
     }
-}
\ No newline at end of file
+}
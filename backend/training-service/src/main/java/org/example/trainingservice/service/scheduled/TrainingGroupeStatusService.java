@@ -1,125 +1,92 @@
 package org.example.trainingservice.service.scheduled;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.trainingservice.cacheService.UserTrainingHistoryCacheService;
 import org.example.trainingservice.entity.plan.TrainingGroupe;
 import org.example.trainingservice.enums.GroupeStatusEnums;
 import org.example.trainingservice.repository.plan.TrainingGroupeRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class TrainingGroupeStatusService {
 
+    private static final List<GroupeStatusEnums> AUTO_UPDATED_STATUSES =
+            List.of(GroupeStatusEnums.PLANNED, GroupeStatusEnums.IN_PROGRESS);
+
     private final TrainingGroupeRepository trainingGroupeRepository;
-    private static final DateTimeFormatter ISO_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private final TransactionTemplate transactionTemplate;
+
+    public TrainingGroupeStatusService(TrainingGroupeRepository trainingGroupeRepository, PlatformTransactionManager transactionManager) {
+        this.trainingGroupeRepository = trainingGroupeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
     /**
-     * Mise à jour automatique quotidienne des statuts à 1h du matin
+     * Mise à jour automatique quotidienne des statuts à 1h du matin.
+     * Trois UPDATE ensemblistes par entreprise, chacune dans sa propre transaction courte,
+     * à partir des dates de première et dernière séance matérialisées sur le groupe.
      */
     @Scheduled(cron = "0 0 1 * * ?")
-    @Transactional
+    @CacheEvict(value = UserTrainingHistoryCacheService.CACHE_NAME, allEntries = true)
     public void updateAllTrainingGroupeStatuses() {
         log.info("Début de la mise à jour automatique des statuts des groupes de formation");
 
-        List<TrainingGroupe> groupesToUpdate = trainingGroupeRepository
-                .findByStatusIn(List.of(GroupeStatusEnums.PLANNED, GroupeStatusEnums.IN_PROGRESS));
-
-        int updatedCount = 0;
         LocalDate today = LocalDate.now();
+        List<Long> companyIds = trainingGroupeRepository.findCompanyIdsByStatusIn(AUTO_UPDATED_STATUSES);
+        int updatedCount = 0;
 
-        for (TrainingGroupe groupe : groupesToUpdate) {
-            GroupeStatusEnums newStatus = calculateStatusFromDates(groupe.getDates(), today);
-
-            if (newStatus != groupe.getStatus()) {
-                GroupeStatusEnums oldStatus = groupe.getStatus();
-                groupe.setStatus(newStatus);
-                trainingGroupeRepository.save(groupe);
-
-                logStatusChange(groupe.getId(), oldStatus, newStatus, "Mise à jour automatique");
-                updatedCount++;
+        for (Long companyId : companyIds) {
+            try {
+                Integer updated = transactionTemplate.execute(status ->
+                        trainingGroupeRepository.markCompleted(companyId, AUTO_UPDATED_STATUSES, today)
+                                + trainingGroupeRepository.markInProgress(companyId, today)
+                                + trainingGroupeRepository.markPlanned(companyId, today));
+                if (updated != null && updated > 0) {
+                    log.info("{} groupes mis à jour pour l'entreprise {}", updated, companyId);
+                    updatedCount += updated;
+                }
+            } catch (Exception e) {
+                // Une entreprise en échec ne bloque pas les autres
+                log.error("Erreur lors de la mise à jour des statuts pour l'entreprise {}", companyId, e);
             }
         }
 
-        log.info("Mise à jour automatique terminée. {} groupes mis à jour", updatedCount);
+        log.info("Mise à jour automatique terminée. {} groupes mis à jour pour {} entreprises", updatedCount, companyIds.size());
     }
 
     /**
-     * Mise à jour manuelle d'un groupe spécifique (appelée lors de consultations)
+     * Reprise des données : calcule les dates de première et dernière séance et les séances typées des groupes existants.
+     * Ne fait rien une fois les colonnes et la table des séances alimentées.
      */
+    @EventListener(ApplicationReadyEvent.class)
     @Transactional
-    public void updateTrainingGroupeStatus(TrainingGroupe groupe) {
-        if (!groupe.getStatus().canBeAutoUpdated()) {
-            return; // Ne pas toucher aux DRAFT
+    public void backfillSessionDates() {
+        int updated = trainingGroupeRepository.backfillSessionDates();
+        if (updated > 0) {
+            log.info("Dates de séances calculées pour {} groupes de formation", updated);
         }
-
-        LocalDate today = LocalDate.now();
-        GroupeStatusEnums newStatus = calculateStatusFromDates(groupe.getDates(), today);
-
-        if (newStatus != groupe.getStatus()) {
-            GroupeStatusEnums oldStatus = groupe.getStatus();
-            groupe.setStatus(newStatus);
-            trainingGroupeRepository.save(groupe);
-
-            logStatusChange(groupe.getId(), oldStatus, newStatus, "Consultation");
+        int sessions = trainingGroupeRepository.backfillSessions();
+        if (sessions > 0) {
+            log.info("{} séances reprises dans training_groupe_session", sessions);
         }
     }
 
     /**
-     * Calcule le statut basé sur les dates
-     */
-    private GroupeStatusEnums calculateStatusFromDates(List<String> dates, LocalDate today) {
-        if (dates == null || dates.isEmpty()) {
-            return GroupeStatusEnums.PLANNED; // Statut par défaut si pas de dates
-        }
-
-        try {
-            // Conversion des dates String en LocalDate
-            List<LocalDate> parsedDates = dates.stream()
-                    .map(dateStr -> LocalDate.parse(dateStr, ISO_FORMATTER))
-                    .toList();
-
-            LocalDate minDate = parsedDates.stream().min(LocalDate::compareTo).orElse(today);
-            LocalDate maxDate = parsedDates.stream().max(LocalDate::compareTo).orElse(today);
-
-            // Logique de détermination du statut
-            if (maxDate.isBefore(today)) {
-                return GroupeStatusEnums.COMPLETED;
-            } else if (minDate.isEqual(today) || (minDate.isBefore(today) && maxDate.isAfter(today))) {
-                return GroupeStatusEnums.IN_PROGRESS;
-            } else {
-                return GroupeStatusEnums.PLANNED; // Futur
-            }
-
-        } catch (Exception e) {
-            log.error("Erreur lors du parsing des dates pour le groupe. Dates: {}", dates, e);
-            return GroupeStatusEnums.PLANNED; // Fallback en cas d'erreur
-        }
-    }
-
-    /**
-     * Log des changements de statut
-     */
-    private void logStatusChange(Long groupeId, GroupeStatusEnums oldStatus,
-                                 GroupeStatusEnums newStatus, String trigger) {
-        log.info("Changement de statut - Groupe ID: {}, Ancien: {}, Nouveau: {}, Déclencheur: {}",
-                groupeId, oldStatus.getDescription(), newStatus.getDescription(), trigger);
-    }
-
-    /**
-     * Méthode utilitaire pour obtenir le statut calculé sans persistance
+     * Statut calculé sans persistance, pour les chemins de lecture.
+     * Les transitions enregistrées ne sont faites que par la mise à jour nocturne.
      */
     public GroupeStatusEnums getCalculatedStatus(TrainingGroupe groupe) {
-        if (!groupe.getStatus().canBeAutoUpdated()) {
-            return groupe.getStatus();
-        }
-        return calculateStatusFromDates(groupe.getDates(), LocalDate.now());
+        return groupe.computeStatus(LocalDate.now());
     }
-}
\ No newline at end of file
+}
@@ -56,6 +56,19 @@ public class EvaluationUtilMethods {
                 .build();
     }
 
+    public static QuestionDto mapToQuestionDto(QuestionnaireDefinition.QuestionDefinition question) {
+        return QuestionDto.builder()
+                .id(question.getId())
+                .companyId(question.getCompanyId())
+                .type(question.getType())
+                .text(question.getText())
+                .options(question.getOptions())
+                .levels(question.getLevels())
+                .ratingValue(question.getRatingValue())
+                .scoreValue(question.getScoreValue())
+                .build();
+    }
+
     public static GetUserResponsesDto mapToGetUserResponsesDto(UserResponse userResponse) {
         String startDate = userResponse.getStartDate() != null ? userResponse.getStartDate().toString() : null;
         String lastModifiedDate = userResponse.getLastModifiedDate() != null ? userResponse.getLastModifiedDate().toString() : null;
@@ -9,9 +9,39 @@ import org.example.trainingservice.enums.TrainingType;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.BiFunction;
 
 public class TrainingGroupeUtilMethods {
+    private static final DateTimeFormatter DISPLAY_DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    /**
+     * Regroupe des lignes "une ligne par séance" (id du groupe en première colonne, date de séance en dernière)
+     * et construit un DTO par groupe, dans l'ordre des lignes.
+     * Les dates sont formatées "dd/MM/yyyy" et séparées par des virgules ("Dates non définies" si aucune séance).
+     */
+    public static <T> List<T> mapSessionRows(List<Object[]> rows, BiFunction<Object[], String, T> mapper) {
+        Map<Long, Object[]> firstRowByGroup = new LinkedHashMap<>();
+        Map<Long, StringJoiner> datesByGroup = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            Long groupId = (Long) row[0];
+            firstRowByGroup.putIfAbsent(groupId, row);
+            StringJoiner dates = datesByGroup.computeIfAbsent(groupId, id -> new StringJoiner(", ").setEmptyValue("Dates non définies"));
+            LocalDate sessionDate = (LocalDate) row[row.length - 1];
+            if (sessionDate != null) {
+                dates.add(sessionDate.format(DISPLAY_DATE_FORMATTER));
+            }
+        }
+
+        List<T> result = new ArrayList<>(firstRowByGroup.size());
+        firstRowByGroup.forEach((groupId, row) -> result.add(mapper.apply(row, datesByGroup.get(groupId).toString())));
+        return result;
+    }
+
     public static int calculateTotalParticipants(AddOrEditGroupParticipantsDto dto) {
         return dto.getManagerCount()
                 + dto.getEmployeeCount()
@@ -42,7 +72,7 @@ public class TrainingGroupeUtilMethods {
         // Pour l'instant, je le laisse comme ça, tu devras implémenter la logique pour le récupérer
         dto.setTrainingProvider(null); // À implémenter
         // Il faudra convertir le statut de l'entité Groupe vers l'enum GroupeStatusEnums
-        dto.setStatus(trainingGroupe.getStatus().getDescription()); // À implémenter la conversion de statut
+        dto.setStatus(trainingGroupe.computeStatus(LocalDate.now()).getDescription()); // Statut dérivé des dates, sans écriture
         return dto;
     }
 
@@ -130,15 +160,6 @@ public class TrainingGroupeUtilMethods {
         return dto;
     }
 
-    public static LocalDate getLastDate(List<String> dateStrings, String format) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(format);
-
-        return dateStrings.stream()
-                .map(dateStr -> LocalDate.parse(dateStr, formatter))
-                .max(LocalDate::compareTo)
-                .orElse(null); // null si la liste est vide ou invalide
-    }
-
     public static Long extraireNumber(String texte) {
         String nombreStr = texte.replaceAll("[^0-9]", "");
         return (long) Integer.parseInt(nombreStr);
@@ -10,32 +10,6 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 public class TrainingUtilMethods {
-    public static GetAllTrainingDto mapToGetAllTrainingsDto(Training training) {
-        // Récupération des dates des groupes
-        List<GetAllTrainingDto.GroupDatesDto> groupDates = null;
-
-        if (training.getGroupes() != null && !training.getGroupes().isEmpty()) {
-            groupDates = training.getGroupes().stream()
-                    .filter(groupe -> groupe.getDates() != null && !groupe.getDates().isEmpty())
-                    .map(groupe -> GetAllTrainingDto.GroupDatesDto.builder()
-                            .groupId(groupe.getId())
-                            .groupName(groupe.getName())
-                            .dates(groupe.getDates())
-                            .build())
-                    .collect(Collectors.toList());
-        }
-
-        return GetAllTrainingDto.builder()
-                .id(training.getId())
-                .theme(training.getTheme())
-                .creationDate(training.getCreationDate())
-                .type(training.getType())
-                .csf(training.getCsf())
-                .status(training.getStatus().getDescription())
-                .groupDates(groupDates)
-                .build();
-    }
-
     public static TrainingDetailsDto convertToTrainingDto(Training training) {
         TrainingDetailsDto dto = new TrainingDetailsDto();
 
@@ -212,23 +186,6 @@ public class TrainingUtilMethods {
                 .build();
     }
 
-    /**
-     * Extrait la première date chronologique d'une liste de dates
-     * @param dates Liste des dates au format String
-     * @return La première date chronologique ou null si aucune date valide
-     */
-    public static String getEarliestDate(List<String> dates) {
-        if (dates == null || dates.isEmpty()) {
-            return null;
-        }
-
-        return dates.stream()
-                .filter(date -> date != null && !date.trim().isEmpty())
-                .sorted() // Tri lexicographique (fonctionne pour format ISO: YYYY-MM-DD)
-                .findFirst()
-                .orElse(null);
-    }
-
     /**
      * Convertit un Training et TrainingGroupe en TrainingDetailsForInvitationDto
      */
@@ -238,7 +195,7 @@ public class TrainingUtilMethods {
                 .id(training.getId())
                 .theme(training.getTheme())
                 .csfPlanifie(training.getCsfPlanifie())
-                .startDate(getEarliestDate(group.getDates()))
+                .startDate(group.getFirstSessionDate() != null ? group.getFirstSessionDate().toString() : null)
                 .location(group.getLocation())
                 .build();
     }
@@ -2,8 +2,10 @@ package org.example.trainingservice.web.OCF;
 
 import org.example.trainingservice.dto.ocf.OCFCreateDto;
 import org.example.trainingservice.dto.ocf.OCFUpdateDto;
+import org.example.trainingservice.dto.plan.CompleteUploadDto;
 import org.example.trainingservice.service.ocf.OCFService;
 import org.example.trainingservice.utils.FileUtilMethods;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -118,11 +120,28 @@ public class OCFController {
 
      /* Récupère un fichier PDF d'un OCF */
     @GetMapping("/get/pdf/{ocfId}/{fileType}")
-    public ResponseEntity<byte[]> getPdf(
+    public ResponseEntity<?> getPdf(
             @PathVariable Long ocfId,
-            @PathVariable String fileType
+            @PathVariable String fileType,
+            @RequestHeader HttpHeaders headers
     ) {
-        return ocfService.getPdf(ocfId, fileType);
+        return ocfService.getPdf(ocfId, fileType, headers);
+    }
+
+    /* URL présignée de téléchargement direct depuis MinIO */
+    @GetMapping("/get/pdf-url/{ocfId}/{fileType}")
+    public ResponseEntity<?> getPdfUrl(@PathVariable Long ocfId, @PathVariable String fileType) {
+        return ocfService.getPdfUrl(ocfId, fileType);
+    }
+
+    /* Enregistre sur l'OCF un fichier envoyé directement vers MinIO via /api/plan/file/presigned-upload */
+    @PutMapping("/complete-upload/{ocfId}/{fileType}")
+    public ResponseEntity<?> completeUpload(
+            @PathVariable Long ocfId,
+            @PathVariable String fileType,
+            @RequestBody CompleteUploadDto completeUploadDto
+    ) {
+        return ocfService.attachUploadedFile(ocfId, fileType, completeUploadDto);
     }
 
     /**
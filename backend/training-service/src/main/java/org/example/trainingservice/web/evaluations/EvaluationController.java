@@ -93,6 +93,16 @@ public class EvaluationController {
         return campaignEvaluationService.getAllCampaignEvaluation();
     }
 
+    @GetMapping("/campaign-evaluation/get/paginated")
+    public ResponseEntity<?> getAllCampaignEvaluationPaginated(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "creationDate") String sortBy,
+            @RequestParam(defaultValue = "DESC") String sortDirection,
+            @RequestParam(required = false) String search) {
+        return campaignEvaluationService.getAllCampaignEvaluationPaginated(page, size, sortBy, sortDirection, search);
+    }
+
     @GetMapping("/campaign-evaluation/get/details/{id}")
     public ResponseEntity<?> getCampaignEvaluationEditDetails(@PathVariable UUID id) {
         return campaignEvaluationService.getCampaignEvaluationEditDetails(id);
@@ -1,8 +1,15 @@
 package org.example.trainingservice.web.plan;
 
 import lombok.extern.slf4j.Slf4j;
+import org.example.trainingservice.dto.plan.CompleteUploadDto;
+import org.example.trainingservice.dto.plan.PresignedUploadRequestDto;
+import org.example.trainingservice.enums.UploadCategory;
 import org.example.trainingservice.service.plan.FileStorageService;
+import org.example.trainingservice.utils.SecurityUtils;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -119,18 +126,79 @@ public class FileController {
         }
     }
 
+    /**
+     * Endpoint pour obtenir une URL présignée d'envoi direct vers MinIO (OCF, factures, avis d'annulation).
+     * Le navigateur envoie le fichier avec un PUT sur l'URL, puis appelle l'endpoint de finalisation
+     * correspondant avec la clé renvoyée.
+     */
+    @PostMapping("/presigned-upload")
+    public ResponseEntity<?> createPresignedUpload(@RequestBody PresignedUploadRequestDto request) {
+        try {
+            UploadCategory category = UploadCategory.fromValue(request.getCategory());
+            String objectKey = fileStorageService.buildTenantObjectKey(
+                    SecurityUtils.getCurrentCompanyId(), category, request.getFileName());
+
+            log.info("URL présignée d'envoi générée pour {}", objectKey);
+            return ResponseEntity.ok(fileStorageService.createPresignedUploadUrl(objectKey));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Erreur lors de la génération de l'URL présignée", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Erreur lors de la génération de l'URL présignée"));
+        }
+    }
+
+    /**
+     * Endpoint de finalisation d'un avis d'annulation envoyé directement vers MinIO
+     */
+    @PostMapping("/complete-cancellation-notice")
+    public ResponseEntity<Map<String, Object>> completeCancellationNotice(@RequestBody CompleteUploadDto completeUploadDto) {
+        try {
+            fileStorageService.verifyDirectUpload(completeUploadDto.getObjectKey(),
+                    SecurityUtils.getCurrentCompanyId(), UploadCategory.CANCELLATION_NOTICE);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "PDF d'avis d'annulation sauvegardé avec succès");
+            response.put("fileName", completeUploadDto.getObjectKey());
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Erreur lors de la finalisation de l'avis d'annulation", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("success", false, "error", "Erreur lors de la sauvegarde du PDF"));
+        }
+    }
+
+    /**
+     * Endpoint pour obtenir une URL présignée de téléchargement d'un fichier de l'entreprise
+     */
+    @GetMapping("/download-url")
+    public ResponseEntity<?> getDownloadUrl(@RequestParam String objectKey) {
+        if (!objectKey.startsWith(SecurityUtils.getCurrentCompanyId() + "/") || objectKey.contains("..")) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Accès non autorisé"));
+        }
+        try {
+            String fileName = objectKey.substring(objectKey.lastIndexOf('/') + 1);
+            return ResponseEntity.ok(fileStorageService.createPresignedDownloadUrl(objectKey, fileName));
+        } catch (Exception e) {
+            log.error("Erreur lors de la génération de l'URL de téléchargement: {}", objectKey, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Erreur lors de la génération de l'URL de téléchargement"));
+        }
+    }
+
     /**
      * Endpoint pour récupérer un PDF sauvegardé
      */
     @GetMapping("/download/{fileName}")
-    public ResponseEntity<byte[]> downloadPDF(@PathVariable String fileName) {
+    public ResponseEntity<Resource> downloadPDF(@PathVariable String fileName, @RequestHeader HttpHeaders headers) {
         try {
-            byte[] fileData = fileStorageService.downloadFile(fileName);
-
-            return ResponseEntity.ok()
-                    .header("Content-Type", "application/pdf")
-                    .header("Content-Disposition", "attachment; filename=\"" + fileName + "\"")
-                    .body(fileData);
+            return fileStorageService.streamFile(fileName, fileName, MediaType.APPLICATION_PDF, false, headers);
 
         } catch (Exception e) {
             log.error("Erreur lors du téléchargement du PDF: {}", fileName, e);
@@ -1,8 +1,10 @@
 package org.example.trainingservice.web.plan;
 
 import org.example.trainingservice.dto.plan.AddGroupeInvoiceDto;
+import org.example.trainingservice.dto.plan.CompleteUploadDto;
 import org.example.trainingservice.dto.plan.UpdatePlanStatusRequestDto;
 import org.example.trainingservice.service.plan.GroupeInvoiceService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -59,8 +61,20 @@ public class GroupeInvoiceController {
     }
 
     @GetMapping("get/pdf/{invoiceId}/{fileType}")
-    public ResponseEntity<?> getPdf(@PathVariable UUID invoiceId, @PathVariable String fileType) {
-        return groupeInvoiceService.getPdf(invoiceId, fileType);
+    public ResponseEntity<?> getPdf(@PathVariable UUID invoiceId, @PathVariable String fileType,
+                                    @RequestHeader HttpHeaders headers) {
+        return groupeInvoiceService.getPdf(invoiceId, fileType, headers);
+    }
+
+    @GetMapping("get/pdf-url/{invoiceId}/{fileType}")
+    public ResponseEntity<?> getPdfUrl(@PathVariable UUID invoiceId, @PathVariable String fileType) {
+        return groupeInvoiceService.getPdfUrl(invoiceId, fileType);
+    }
+
+    @PutMapping("/complete-upload/{invoiceId}/{fileType}")
+    public ResponseEntity<?> completeUpload(@PathVariable UUID invoiceId, @PathVariable String fileType,
+                                            @RequestBody CompleteUploadDto completeUploadDto) {
+        return groupeInvoiceService.attachUploadedFile(invoiceId, fileType, completeUploadDto);
     }
 
     @PutMapping(path = "/edit/groupeInvoice/{invoiceId}", consumes = {MediaType.MULTIPART_FORM_DATA_VALUE})
@@ -5,6 +5,7 @@ import org.example.trainingservice.dto.plan.*;
 import org.example.trainingservice.entity.plan.Plan;
 import org.example.trainingservice.exceptions.PlanNotFoundException;
 import org.example.trainingservice.repository.plan.PlanRepository;
+import org.example.trainingservice.service.plan.PlanRolloverService;
 import org.example.trainingservice.service.plan.PlanService;
 import org.example.trainingservice.service.plan.PlanValidationService;
 import org.springframework.http.ResponseEntity;
@@ -20,13 +21,16 @@ public class PlanController {
     private final PlanService planService;
     private final PlanValidationService planValidationService;
     private final PlanRepository planRepository;
+    private final PlanRolloverService planRolloverService;
 
     public PlanController(
-            PlanService planService, PlanValidationService planValidationService, PlanRepository planRepository
+            PlanService planService, PlanValidationService planValidationService, PlanRepository planRepository,
+            PlanRolloverService planRolloverService
     ) {
         this.planService = planService;
         this.planValidationService = planValidationService;
         this.planRepository = planRepository;
+        this.planRolloverService = planRolloverService;
     }
 
     @GetMapping("/get/all")
@@ -65,6 +69,24 @@ public class PlanController {
         return planService.updateStatus(updateStatusRequestDto);
     }
 
+    /**
+     * Reconduction du plan dans l'exercice cible (par défaut : exercice du plan + 1), exécutée en tâche de fond
+     * POST /api/plan/rollover/{planId}?targetYear=
+     */
+    @PostMapping("/rollover/{planId}")
+    public ResponseEntity<?> rolloverPlan(@PathVariable UUID planId, @RequestParam(required = false) Integer targetYear) {
+        return planRolloverService.startRollover(planId, targetYear);
+    }
+
+    /**
+     * Suivi de la progression d'une reconduction
+     * GET /api/plan/rollover/job/{jobId}
+     */
+    @GetMapping("/rollover/job/{jobId}")
+    public ResponseEntity<?> getRolloverJob(@PathVariable UUID jobId) {
+        return planRolloverService.getJob(jobId);
+    }
+
     /*
      * */
 
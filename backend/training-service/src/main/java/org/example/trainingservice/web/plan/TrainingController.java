@@ -2,6 +2,8 @@ package org.example.trainingservice.web.plan;
 
 import org.example.trainingservice.dto.plan.CancelTrainingDto;
 import org.example.trainingservice.dto.plan.EditTrainingDto;
+import org.example.trainingservice.dto.plan.PlanPagedResponse;
+import org.example.trainingservice.dto.plan.TrainingListItemDto;
 import org.example.trainingservice.service.plan.TrainingService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -22,6 +24,21 @@ public class TrainingController {
         return trainingService.getAllTrainings(planId);
     }
 
+    @GetMapping("/get/all-paginated/{planId}")
+    public ResponseEntity<PlanPagedResponse<TrainingListItemDto>> getTrainingsPaginated(
+            @PathVariable UUID planId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "theme") String sortBy,
+            @RequestParam(defaultValue = "ASC") String sortDirection,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long siteId,
+            @RequestParam(required = false) Long domainId,
+            @RequestParam(required = false) Boolean csf,
+            @RequestParam(required = false) String search) {
+        return trainingService.getTrainingsPaginated(planId, page, size, sortBy, sortDirection, status, siteId, domainId, csf, search);
+    }
+
     @GetMapping("/get/details/{trainingId}")
     public ResponseEntity<?> getTrainingDetails(@PathVariable UUID trainingId) {
         return trainingService.getTrainingDetails(trainingId);
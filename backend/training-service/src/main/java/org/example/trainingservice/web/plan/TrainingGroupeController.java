@@ -6,9 +6,11 @@ import org.example.trainingservice.dto.group.AddOrEditGroupParticipantsDto;
 import org.example.trainingservice.dto.group.AddOrEditGroupPlanningDto;
 import org.example.trainingservice.dto.plan.SendInvitationDto;
 import org.example.trainingservice.service.plan.TrainingGroupeService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
@@ -92,6 +94,16 @@ public class TrainingGroupeController {
         return trainingGroupeService.getGroupDates(groupId);
     }
 
+    /**
+     * Groupes de l'entreprise ayant au moins une séance dans la période (semaine en cours par défaut)
+     */
+    @GetMapping("/get/sessions")
+    public ResponseEntity<?> getGroupsWithSessionsBetween(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return trainingGroupeService.getGroupsWithSessionsBetween(from, to);
+    }
+
     @GetMapping("/get/planning/{userId}")
     public ResponseEntity<?> getUserPlanning(@PathVariable Long userId) {
         return trainingGroupeService.getUserPlanning(userId);
@@ -1,15 +1,18 @@
 package org.example.trainingservice.web.plan.attendance;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.example.trainingservice.dto.plan.attendance.AttendanceListExistsDto;
 import org.example.trainingservice.dto.plan.attendance.AttendanceListSummaryDto;
 import org.example.trainingservice.dto.plan.attendance.GetAttendancePerDateDto;
 import org.example.trainingservice.dto.plan.attendance.SaveAttendanceListRequest;
 import org.example.trainingservice.service.plan.attendance.AttendanceService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
@@ -101,9 +104,22 @@ public class AttendanceController {
      * GET /api/plan/attendance/download-pdf/{attendanceListId}
      */
     @GetMapping("/download-pdf/{attendanceListId}")
-    public ResponseEntity<?> downloadAttendancePDF(@PathVariable String attendanceListId) {
+    public ResponseEntity<?> downloadAttendancePDF(@PathVariable String attendanceListId,
+                                                   @RequestHeader HttpHeaders headers) {
         log.info("Downloading PDF for attendance list: {}", attendanceListId);
-        return attendanceService.downloadAttendancePDF(attendanceListId);
+        return attendanceService.downloadAttendancePDF(attendanceListId, headers);
+    }
+
+    /**
+     * Télécharger en un seul ZIP tous les PDF de présence d'un groupe (réponse envoyée en flux)
+     * GET /api/plan/attendance/download-zip/{groupId}?listType=internal|csf
+     */
+    @GetMapping("/download-zip/{groupId}")
+    public void downloadAttendanceZip(@PathVariable Long groupId,
+                                      @RequestParam(required = false) String listType,
+                                      HttpServletResponse response) throws IOException {
+        log.info("Downloading attendance ZIP for group: {}", groupId);
+        attendanceService.exportAttendancePDFsZip(groupId, listType, response);
     }
 
     /**
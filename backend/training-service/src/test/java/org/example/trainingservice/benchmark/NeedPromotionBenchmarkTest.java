@@ -0,0 +1,228 @@
+package org.example.trainingservice.benchmark;
+
+import jakarta.persistence.EntityManager;
+import org.example.trainingservice.entity.Groupe;
+import org.example.trainingservice.entity.Need;
+import org.example.trainingservice.entity.plan.Plan;
+import org.example.trainingservice.entity.plan.Training;
+import org.example.trainingservice.entity.plan.TrainingGroupe;
+import org.example.trainingservice.enums.GroupeStatusEnums;
+import org.example.trainingservice.enums.PlanStatusEnum;
+import org.example.trainingservice.enums.TrainingStatusEnum;
+import org.example.trainingservice.repository.GroupeRepository;
+import org.example.trainingservice.repository.NeedRepository;
+import org.example.trainingservice.repository.PostgresRepositoryTest;
+import org.example.trainingservice.repository.plan.PlanRepository;
+import org.example.trainingservice.repository.plan.TrainingGroupeRepository;
+import org.example.trainingservice.repository.plan.TrainingRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Transformation de 500 besoins de 5 groupes en formations (PlanServiceImpl.addThemeToPlan), sur PostgreSQL :
+ * ancien chemin (entités TrainingGroupe en cascade, un INSERT IDENTITY par groupe, suppression besoin par besoin)
+ * contre le chemin ensembliste (TrainingGroupeRepository.promoteNeedGroupes et suppressions groupées).
+ * Chaque chemin transforme son propre jeu de besoins, après un échauffement sur 20 besoins.
+ * Lancement : mvn test -Dtest=NeedPromotionBenchmarkTest (Docker requis), les temps sont affichés sur la sortie standard.
+ */
+class NeedPromotionBenchmarkTest extends PostgresRepositoryTest {
+    private static final int NEED_COUNT = 500;
+    private static final int GROUPS_PER_NEED = 5;
+    private static final int SESSIONS_PER_GROUP = 2;
+    private static final int WARMUP_NEED_COUNT = 20;
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private PlanRepository planRepository;
+    @Autowired
+    private NeedRepository needRepository;
+    @Autowired
+    private GroupeRepository groupeRepository;
+    @Autowired
+    private TrainingRepository trainingRepository;
+    @Autowired
+    private TrainingGroupeRepository trainingGroupeRepository;
+
+    @Test
+    void setBasedPromotionIsFasterThanPerEntityPromotion() {
+        promotePerEntity(seedNeeds(1L, WARMUP_NEED_COUNT), createPlan(1L));
+        promoteSetBased(seedNeeds(2L, WARMUP_NEED_COUNT), createPlan(2L));
+
+        List<Long> perEntityNeedIds = seedNeeds(3L, NEED_COUNT);
+        Plan perEntityPlan = createPlan(3L);
+        List<Long> setBasedNeedIds = seedNeeds(4L, NEED_COUNT);
+        Plan setBasedPlan = createPlan(4L);
+
+        Duration perEntity = promotePerEntity(perEntityNeedIds, perEntityPlan);
+        Duration setBased = promoteSetBased(setBasedNeedIds, setBasedPlan);
+
+        System.out.printf("Promotion of %d needs x %d groups: per-entity %d ms, set-based %d ms%n",
+                NEED_COUNT, GROUPS_PER_NEED, perEntity.toMillis(), setBased.toMillis());
+
+        // Les deux chemins produisent les mêmes données
+        for (Plan plan : List.of(perEntityPlan, setBasedPlan)) {
+            assertThat(countGroupes(plan)).isEqualTo(NEED_COUNT * GROUPS_PER_NEED);
+            assertThat(countSessions(plan)).isEqualTo(NEED_COUNT * GROUPS_PER_NEED * SESSIONS_PER_GROUP);
+            assertThat(countPlannedGroupes(plan)).isEqualTo(NEED_COUNT * GROUPS_PER_NEED);
+        }
+        assertThat(needRepository.findAllById(perEntityNeedIds)).isEmpty();
+        assertThat(needRepository.findAllById(setBasedNeedIds)).isEmpty();
+        assertThat(setBased).isLessThan(perEntity);
+    }
+
+    /**
+     * Chemin d'avant promoteNeedGroupes : groupes copiés en Java et enregistrés en cascade avec leur formation.
+     */
+    private Duration promotePerEntity(List<Long> needIds, Plan plan) {
+        entityManager.clear();
+        long start = System.nanoTime();
+
+        List<Need> needs = needRepository.findAllWithGroupesByIdIn(needIds);
+        List<Training> trainings = new ArrayList<>();
+        for (Need need : needs) {
+            Training training = toTraining(need, plan);
+            training.setGroupes(need.getGroupes().stream()
+                    .map(groupe -> toTrainingGroupe(groupe, training))
+                    .collect(Collectors.toList()));
+            trainings.add(training);
+        }
+        trainingRepository.saveAll(trainings);
+        needRepository.deleteAll(needs);
+        entityManager.flush();
+
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    /**
+     * Chemin actuel de PlanServiceImpl.addThemeToPlan (hors formateurs et invitations).
+     */
+    private Duration promoteSetBased(List<Long> needIds, Plan plan) {
+        entityManager.clear();
+        long start = System.nanoTime();
+
+        List<Need> needs = needRepository.findAllWithGroupesByIdIn(needIds);
+        List<Training> trainings = needs.stream()
+                .map(need -> toTraining(need, plan))
+                .collect(Collectors.toList());
+        List<Training> savedTrainings = trainingRepository.saveAllAndFlush(trainings);
+
+        Long[] promotedNeedIds = new Long[needs.size()];
+        String[] trainingIds = new String[needs.size()];
+        for (int i = 0; i < needs.size(); i++) {
+            promotedNeedIds[i] = needs.get(i).getId();
+            trainingIds[i] = savedTrainings.get(i).getId().toString();
+        }
+        trainingGroupeRepository.promoteNeedGroupes(promotedNeedIds, trainingIds);
+        groupeRepository.deleteByNeedIdIn(Arrays.asList(promotedNeedIds));
+        needRepository.deleteByIdIn(Arrays.asList(promotedNeedIds));
+        entityManager.flush();
+
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    private Training toTraining(Need need, Plan plan) {
+        return Training.builder()
+                .companyId(need.getCompanyId())
+                .theme(need.getTheme())
+                .numberOfDay(need.getNumberOfDay())
+                .numberOfGroup(need.getNumberOfGroup())
+                .status(TrainingStatusEnum.NOT_PLANNED)
+                .year(need.getYear())
+                .plan(plan)
+                .isAllFieldsFilled(need.getIsAllFieldsFilled())
+                .groupes(new ArrayList<>())
+                .build();
+    }
+
+    private TrainingGroupe toTrainingGroupe(Groupe groupe, Training training) {
+        return TrainingGroupe.builder()
+                .training(training)
+                .companyId(groupe.getCompanyId())
+                .name(groupe.getName())
+                .participantCount(groupe.getParticipantCount())
+                .dayCount(groupe.getDayCount())
+                .price(groupe.getPrice())
+                .location(groupe.getLocation())
+                .city(groupe.getCity())
+                .dates(groupe.getDates())
+                .userGroupIds(groupe.getUserGroupIds())
+                .status(groupe.getStatus() == GroupeStatusEnums.APPROVED ? GroupeStatusEnums.PLANNED : groupe.getStatus())
+                .isAllFieldsFilled(groupe.getIsAllFieldsFilled())
+                .build();
+    }
+
+    /**
+     * Besoins validés de l'entreprise, chacun avec GROUPS_PER_NEED groupes de SESSIONS_PER_GROUP séances.
+     */
+    private List<Long> seedNeeds(Long companyId, int needCount) {
+        entityManager.createNativeQuery("INSERT INTO besoins (company_id, theme, number_of_day, number_of_group, " +
+                        "status, exercice, is_all_fields_filled) " +
+                        "SELECT :companyId, 'Thème ' || i, :sessions, :groups, 'APPROVED', 2026, true " +
+                        "FROM generate_series(1, :needCount) AS i")
+                .setParameter("companyId", companyId)
+                .setParameter("sessions", SESSIONS_PER_GROUP)
+                .setParameter("groups", GROUPS_PER_NEED)
+                .setParameter("needCount", needCount)
+                .executeUpdate();
+        entityManager.createNativeQuery("INSERT INTO groupe (need_id, company_id, name, participant_count, day_count, " +
+                        "price, location, city, dates, user_group_ids, status, is_all_fields_filled) " +
+                        "SELECT n.id, n.company_id, 'Groupe ' || g, 12, :sessions, 1500, 'Salle ' || g, 'Casablanca', " +
+                        "       ARRAY[to_char(DATE '2026-03-02' + g * 7, 'YYYY-MM-DD'), to_char(DATE '2026-03-03' + g * 7, 'YYYY-MM-DD')], " +
+                        "       ARRAY[n.id * 100 + g, n.id * 100 + g + 50], 'APPROVED', true " +
+                        "FROM besoins n, generate_series(1, :groups) AS g WHERE n.company_id = :companyId")
+                .setParameter("companyId", companyId)
+                .setParameter("sessions", SESSIONS_PER_GROUP)
+                .setParameter("groups", GROUPS_PER_NEED)
+                .executeUpdate();
+        @SuppressWarnings("unchecked")
+        List<Number> ids = entityManager.createNativeQuery("SELECT id FROM besoins WHERE company_id = :companyId ORDER BY id")
+                .setParameter("companyId", companyId)
+                .getResultList();
+        return ids.stream().map(Number::longValue).toList();
+    }
+
+    private Plan createPlan(Long companyId) {
+        return planRepository.saveAndFlush(Plan.builder()
+                .title("Plan " + companyId)
+                .companyId(companyId)
+                .year(2026)
+                .startDate(LocalDate.of(2026, 1, 1))
+                .endDate(LocalDate.of(2026, 12, 31))
+                .status(PlanStatusEnum.NOT_PLANNED)
+                .isCSFPlan(false)
+                .isOFPPTValidation(false)
+                .build());
+    }
+
+    private long countGroupes(Plan plan) {
+        return count("SELECT count(*) FROM training_groupe g JOIN formations f ON f.id = g.training_id " +
+                "WHERE f.plan_id = :planId", plan.getId());
+    }
+
+    private long countPlannedGroupes(Plan plan) {
+        return count("SELECT count(*) FROM training_groupe g JOIN formations f ON f.id = g.training_id " +
+                "WHERE f.plan_id = :planId AND g.status = 'PLANNED' AND g.first_session_date IS NOT NULL", plan.getId());
+    }
+
+    private long countSessions(Plan plan) {
+        return count("SELECT count(*) FROM training_groupe_session s JOIN training_groupe g ON g.id = s.training_groupe_id " +
+                "JOIN formations f ON f.id = g.training_id WHERE f.plan_id = :planId", plan.getId());
+    }
+
+    private long count(String sql, UUID planId) {
+        return ((Number) entityManager.createNativeQuery(sql)
+                .setParameter("planId", planId)
+                .getSingleResult()).longValue();
+    }
+}
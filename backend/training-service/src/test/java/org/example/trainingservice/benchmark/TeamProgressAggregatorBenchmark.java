@@ -0,0 +1,112 @@
+package org.example.trainingservice.benchmark;
+
+import org.example.trainingservice.dto.evaluation.QuestionnaireDefinition;
+import org.example.trainingservice.entity.campaign.Question;
+import org.example.trainingservice.entity.campaign.Questionnaire;
+import org.example.trainingservice.entity.campaign.UserResponse;
+import org.example.trainingservice.helper.plan.evaluation.TeamProgressAggregator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare l'agrégation en une passe de TeamProgressAggregator au calcul historique,
+ * qui re-filtrait toutes les réponses de l'équipe pour chaque membre.
+ * Lancement : exécuter main depuis l'IDE ou après mvn test-compile (classpath de test).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TeamProgressAggregatorBenchmark {
+
+    @Param({"10", "50", "200"})
+    private int teamSize;
+
+    @Param({"20"})
+    private int questionCount;
+
+    private QuestionnaireDefinition questionnaire;
+    private List<UserResponse> responses;
+    private List<Long> memberIds;
+
+    @Setup
+    public void setUp() {
+        UUID questionnaireId = UUID.randomUUID();
+        List<Question> questions = new ArrayList<>();
+        for (int i = 0; i < questionCount; i++) {
+            questions.add(Question.builder().id(UUID.randomUUID()).type("Score").text("Question " + i).build());
+        }
+        questionnaire = QuestionnaireDefinition.from(
+                Questionnaire.builder().id(questionnaireId).questions(questions).build(), 1L);
+
+        memberIds = new ArrayList<>();
+        responses = new ArrayList<>();
+        for (long userId = 1; userId <= teamSize; userId++) {
+            memberIds.add(userId);
+            // Un membre sur trois n'a répondu qu'à la moitié des questions
+            int answered = userId % 3 == 0 ? questionCount / 2 : questionCount;
+            for (int i = 0; i < answered; i++) {
+                responses.add(UserResponse.builder()
+                        .userId(userId)
+                        .questionnaireId(questionnaireId)
+                        .questionId(questions.get(i).getId())
+                        .responseType("Score")
+                        .scoreResponse(4)
+                        .isSentToManager(true)
+                        .isSentToAdmin(userId % 2 == 0)
+                        .build());
+            }
+        }
+    }
+
+    @Benchmark
+    public void aggregate(Blackhole blackhole) {
+        TeamProgressAggregator aggregator = TeamProgressAggregator.aggregate(questionnaire, responses, memberIds);
+        blackhole.consume(aggregator.getGlobalProgress());
+        blackhole.consume(aggregator.getGlobalStatus());
+        blackhole.consume(aggregator.getGlobalIsSentToManager());
+        blackhole.consume(aggregator.getGlobalIsSentToAdmin());
+    }
+
+    @Benchmark
+    public void filterPerMember(Blackhole blackhole) {
+        int totalQuestions = questionnaire.getQuestionCount();
+        long progressSum = 0;
+        boolean allDone = true;
+        boolean allSentToManager = true;
+        boolean allSentToAdmin = true;
+        for (Long userId : memberIds) {
+            List<UserResponse> userResponses = responses.stream()
+                    .filter(response -> userId.equals(response.getUserId()))
+                    .toList();
+            long answered = userResponses.stream().filter(TeamProgressAggregator::isAnswered).count();
+            int progress = totalQuestions > 0 ? (int) (answered * 100 / totalQuestions) : 0;
+            progressSum += progress;
+            allDone &= progress == 100;
+            allSentToManager &= !userResponses.isEmpty()
+                    && userResponses.stream().allMatch(response -> Boolean.TRUE.equals(response.getIsSentToManager()));
+            allSentToAdmin &= !userResponses.isEmpty()
+                    && userResponses.stream().allMatch(response -> Boolean.TRUE.equals(response.getIsSentToAdmin()));
+        }
+        blackhole.consume(progressSum / Math.max(1, memberIds.size()));
+        blackhole.consume(allDone);
+        blackhole.consume(allSentToManager);
+        blackhole.consume(allSentToAdmin);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TeamProgressAggregatorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.trainingservice.enums;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GroupeStatusEnumsTest {
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 15);
+
+    @Test
+    void resolveFollowsDatesForPlannedAndInProgress() {
+        for (GroupeStatusEnums status : new GroupeStatusEnums[]{GroupeStatusEnums.PLANNED, GroupeStatusEnums.IN_PROGRESS}) {
+            assertThat(status.resolve(TODAY.plusDays(1), TODAY.plusDays(3), TODAY)).isEqualTo(GroupeStatusEnums.PLANNED);
+            assertThat(status.resolve(TODAY.minusDays(1), TODAY.plusDays(1), TODAY)).isEqualTo(GroupeStatusEnums.IN_PROGRESS);
+            assertThat(status.resolve(TODAY.minusDays(3), TODAY.minusDays(1), TODAY)).isEqualTo(GroupeStatusEnums.COMPLETED);
+        }
+    }
+
+    @Test
+    void resolveTreatsFirstAndLastDayAsInProgress() {
+        assertThat(GroupeStatusEnums.PLANNED.resolve(TODAY, TODAY.plusDays(2), TODAY)).isEqualTo(GroupeStatusEnums.IN_PROGRESS);
+        assertThat(GroupeStatusEnums.PLANNED.resolve(TODAY.minusDays(2), TODAY, TODAY)).isEqualTo(GroupeStatusEnums.IN_PROGRESS);
+    }
+
+    @Test
+    void resolveKeepsManualStatuses() {
+        LocalDate first = TODAY.minusDays(3);
+        LocalDate last = TODAY.minusDays(1);
+        assertThat(GroupeStatusEnums.DRAFT.resolve(first, last, TODAY)).isEqualTo(GroupeStatusEnums.DRAFT);
+        assertThat(GroupeStatusEnums.APPROVED.resolve(first, last, TODAY)).isEqualTo(GroupeStatusEnums.APPROVED);
+        assertThat(GroupeStatusEnums.CANCELLED.resolve(first, last, TODAY)).isEqualTo(GroupeStatusEnums.CANCELLED);
+        assertThat(GroupeStatusEnums.COMPLETED.resolve(TODAY.plusDays(1), TODAY.plusDays(2), TODAY)).isEqualTo(GroupeStatusEnums.COMPLETED);
+    }
+
+    @Test
+    void resolvePlansAutoUpdatedStatusesWithoutDates() {
+        assertThat(GroupeStatusEnums.PLANNED.resolve(null, null, TODAY)).isEqualTo(GroupeStatusEnums.PLANNED);
+        assertThat(GroupeStatusEnums.IN_PROGRESS.resolve(null, null, TODAY)).isEqualTo(GroupeStatusEnums.PLANNED);
+        assertThat(GroupeStatusEnums.IN_PROGRESS.resolve(TODAY.minusDays(1), null, TODAY)).isEqualTo(GroupeStatusEnums.PLANNED);
+        assertThat(GroupeStatusEnums.DRAFT.resolve(null, null, TODAY)).isEqualTo(GroupeStatusEnums.DRAFT);
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.trainingservice.helper.plan.evaluation;
+
+import org.example.trainingservice.dto.evaluation.QuestionnaireDefinition;
+import org.example.trainingservice.entity.campaign.Question;
+import org.example.trainingservice.entity.campaign.Questionnaire;
+import org.example.trainingservice.entity.campaign.UserResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TeamProgressAggregatorTest {
+    private static final UUID QUESTIONNAIRE_ID = UUID.randomUUID();
+
+    @Test
+    void aggregatesProgressAndStatusPerMember() {
+        QuestionnaireDefinition questionnaire = questionnaire(4);
+        List<UserResponse> responses = new ArrayList<>();
+        // 1 : 4/4, 2 : 1/4 (dont une réponse vide), 3 : aucune réponse
+        for (int i = 0; i < 4; i++) {
+            responses.add(scoreResponse(1L, 3));
+        }
+        responses.add(scoreResponse(2L, 5));
+        responses.add(scoreResponse(2L, null));
+
+        TeamProgressAggregator aggregator = TeamProgressAggregator.aggregate(questionnaire, responses, List.of(1L, 2L, 3L));
+
+        assertThat(aggregator.forUser(1L).getProgress()).isEqualTo(100);
+        assertThat(aggregator.forUser(1L).getStatus()).isEqualTo(TeamProgressAggregator.STATUS_DONE);
+        assertThat(aggregator.forUser(2L).getProgress()).isEqualTo(25);
+        assertThat(aggregator.forUser(2L).getStatus()).isEqualTo(TeamProgressAggregator.STATUS_IN_PROGRESS);
+        assertThat(aggregator.forUser(3L).getProgress()).isZero();
+        assertThat(aggregator.forUser(3L).getStatus()).isEqualTo(TeamProgressAggregator.STATUS_PENDING);
+        assertThat(aggregator.getGlobalProgress()).isEqualTo(42);
+        assertThat(aggregator.getGlobalStatus()).isEqualTo(TeamProgressAggregator.STATUS_IN_PROGRESS);
+    }
+
+    @Test
+    void ignoresResponsesOfNonMembersAndOtherQuestionnaires() {
+        QuestionnaireDefinition questionnaire = questionnaire(2);
+        UserResponse otherQuestionnaire = scoreResponse(1L, 4);
+        otherQuestionnaire.setQuestionnaireId(UUID.randomUUID());
+
+        TeamProgressAggregator aggregator = TeamProgressAggregator.aggregate(questionnaire,
+                List.of(scoreResponse(1L, 4), otherQuestionnaire, scoreResponse(9L, 4)), List.of(1L));
+
+        assertThat(aggregator.forUser(1L).getAnsweredCount()).isEqualTo(1);
+        assertThat(aggregator.forUser(1L).getProgress()).isEqualTo(50);
+        assertThat(aggregator.forUser(9L).hasResponses()).isFalse();
+    }
+
+    @Test
+    void globalStatusIsDoneOnlyWhenEveryMemberIsDone() {
+        QuestionnaireDefinition questionnaire = questionnaire(1);
+
+        TeamProgressAggregator allDone = TeamProgressAggregator.aggregate(questionnaire,
+                List.of(scoreResponse(1L, 1), scoreResponse(2L, 1)), List.of(1L, 2L));
+        TeamProgressAggregator noneStarted = TeamProgressAggregator.aggregate(questionnaire, List.of(), List.of(1L, 2L));
+        TeamProgressAggregator noMembers = TeamProgressAggregator.aggregate(questionnaire, List.of(), List.of());
+
+        assertThat(allDone.getGlobalStatus()).isEqualTo(TeamProgressAggregator.STATUS_DONE);
+        assertThat(allDone.getGlobalProgress()).isEqualTo(100);
+        assertThat(noneStarted.getGlobalStatus()).isEqualTo(TeamProgressAggregator.STATUS_PENDING);
+        assertThat(noMembers.getGlobalStatus()).isEqualTo(TeamProgressAggregator.STATUS_PENDING);
+        assertThat(noMembers.getGlobalProgress()).isZero();
+    }
+
+    @Test
+    void sentFlagsRequireResponsesAllSentForEveryMember() {
+        QuestionnaireDefinition questionnaire = questionnaire(2);
+        UserResponse sent = scoreResponse(1L, 1);
+        sent.setIsSentToManager(true);
+        sent.setIsSentToAdmin(true);
+        UserResponse otherSent = scoreResponse(2L, 1);
+        otherSent.setIsSentToManager(true);
+        otherSent.setIsSentToAdmin(false);
+
+        TeamProgressAggregator aggregator = TeamProgressAggregator.aggregate(questionnaire, List.of(sent, otherSent), List.of(1L, 2L));
+        TeamProgressAggregator withSilentMember = TeamProgressAggregator.aggregate(questionnaire, List.of(sent), List.of(1L, 3L));
+
+        assertThat(aggregator.getGlobalIsSentToManager()).isEqualTo(TeamProgressAggregator.SENT_DONE);
+        assertThat(aggregator.getGlobalIsSentToAdmin()).isEqualTo(TeamProgressAggregator.SENT_DRAFT);
+        assertThat(aggregator.forUser(1L).getSentToAdminStatus()).isEqualTo(TeamProgressAggregator.SENT_DONE);
+        assertThat(withSilentMember.getGlobalIsSentToManager()).isEqualTo(TeamProgressAggregator.SENT_DRAFT);
+        assertThat(withSilentMember.forUser(3L).getFirstIsSentToManager()).isFalse();
+    }
+
+    @Test
+    void isAnsweredChecksTheValueOfTheQuestionType() {
+        assertThat(TeamProgressAggregator.isAnswered(UserResponse.builder().responseType("Texte").textResponse("ok").build())).isTrue();
+        assertThat(TeamProgressAggregator.isAnswered(UserResponse.builder().responseType("Texte").build())).isFalse();
+        assertThat(TeamProgressAggregator.isAnswered(UserResponse.builder().responseType("Réponse multiple")
+                .multipleChoiceResponse(List.of()).build())).isFalse();
+        assertThat(TeamProgressAggregator.isAnswered(UserResponse.builder().responseType("Réponse multiple")
+                .multipleChoiceResponse(List.of("A")).build())).isTrue();
+        assertThat(TeamProgressAggregator.isAnswered(UserResponse.builder().responseType("Inconnu").textResponse("ok").build())).isFalse();
+    }
+
+    @Test
+    void statusOfMapsProgressToStatus() {
+        assertThat(TeamProgressAggregator.statusOf(0)).isEqualTo(TeamProgressAggregator.STATUS_PENDING);
+        assertThat(TeamProgressAggregator.statusOf(1)).isEqualTo(TeamProgressAggregator.STATUS_IN_PROGRESS);
+        assertThat(TeamProgressAggregator.statusOf(99)).isEqualTo(TeamProgressAggregator.STATUS_IN_PROGRESS);
+        assertThat(TeamProgressAggregator.statusOf(100)).isEqualTo(TeamProgressAggregator.STATUS_DONE);
+    }
+
+    static QuestionnaireDefinition questionnaire(int questionCount) {
+        List<Question> questions = new ArrayList<>();
+        for (int i = 0; i < questionCount; i++) {
+            questions.add(Question.builder().id(UUID.randomUUID()).type("Score").text("Question " + i).build());
+        }
+        Questionnaire questionnaire = Questionnaire.builder().id(QUESTIONNAIRE_ID).questions(questions).build();
+        return QuestionnaireDefinition.from(questionnaire, 1L);
+    }
+
+    static UserResponse scoreResponse(Long userId, Integer score) {
+        return UserResponse.builder()
+                .userId(userId)
+                .questionnaireId(QUESTIONNAIRE_ID)
+                .questionId(UUID.randomUUID())
+                .responseType("Score")
+                .scoreResponse(score)
+                .build();
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.trainingservice.repository;
+
+import org.example.trainingservice.TrainingServiceApplication;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Base des tests de requêtes sur une vraie base PostgreSQL (tableaux, index GIN, requêtes natives).
+ * Le conteneur est démarré par le driver JDBC Testcontainers et partagé par les classes de test ;
+ * le schéma est généré depuis les entités. Tests ignorés si Docker n'est pas disponible.
+ * Seuls les entités et les repositories sont chargés (ni clients Feign, ni migrations de démarrage).
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:tc:postgresql:16-alpine:///training",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.cloud.config.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = PostgresRepositoryTest.RepositoryConfiguration.class)
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgresRepositoryTest {
+
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = TrainingServiceApplication.class)
+    @EnableJpaRepositories(basePackageClasses = TrainingServiceApplication.class)
+    static class RepositoryConfiguration {
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.trainingservice.repository.plan;
+
+import jakarta.persistence.*;
+import org.example.trainingservice.entity.plan.Training;
+import org.example.trainingservice.entity.plan.TrainingGroupe;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.Query;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Les INSERT ... SELECT ensemblistes listent les colonnes en dur : un champ ajouté à l'entité sans être repris
+ * dans la requête resterait NULL pour les lignes créées. Chaque liste est comparée au mapping de l'entité.
+ */
+class TrainingGroupeRepositoryTest {
+
+    @Test
+    void promoteNeedGroupesInsertsEveryMappedColumn() throws NoSuchMethodException {
+        String query = queryOf(TrainingGroupeRepository.class, "promoteNeedGroupes", Long[].class, String[].class);
+
+        assertThat(insertedColumns(query, "training_groupe"))
+                .containsExactlyInAnyOrderElementsOf(mappedColumns(TrainingGroupe.class, false));
+    }
+
+    @Test
+    void copyGroupesToTrainingsInsertsEveryMappedColumnExceptResetOnes() throws NoSuchMethodException {
+        String query = queryOf(TrainingGroupeRepository.class, "copyGroupesToTrainings", String[].class, String[].class);
+        // Réinitialisés à la reconduction : OCF, dates et séances
+        Set<String> resetColumns = Set.of("ocf_id", "start_date", "end_date", "dates",
+                "first_session_date", "last_session_date");
+
+        Set<String> expected = mappedColumns(TrainingGroupe.class, false);
+        expected.removeAll(resetColumns);
+        assertThat(insertedColumns(query, "training_groupe")).containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    @Test
+    void copyTrainingsToPlanInsertsEveryMappedColumn() throws NoSuchMethodException {
+        String query = queryOf(TrainingRepository.class, "copyTrainingsToPlan",
+                String[].class, String[].class, String.class, Integer.class);
+
+        // Statut, date de souhait et complétude sont réinitialisés par des valeurs explicites, donc listés
+        assertThat(insertedColumns(query, "formations"))
+                .containsExactlyInAnyOrderElementsOf(mappedColumns(Training.class, true));
+    }
+
+    private static String queryOf(Class<?> repository, String method, Class<?>... parameterTypes) throws NoSuchMethodException {
+        return repository.getMethod(method, parameterTypes).getAnnotation(Query.class).value();
+    }
+
+    private static Set<String> insertedColumns(String query, String table) {
+        Matcher matcher = Pattern.compile("INSERT INTO " + table + " \\(([^)]*)\\)").matcher(query);
+        assertThat(matcher.find()).isTrue();
+        return Arrays.stream(matcher.group(1).split(","))
+                .map(String::trim)
+                .collect(Collectors.toSet());
+    }
+
+    private static Set<String> mappedColumns(Class<?> entity, boolean withId) {
+        return Arrays.stream(entity.getDeclaredFields())
+                .filter(field -> isPersistentColumn(field, withId))
+                .map(TrainingGroupeRepositoryTest::columnName)
+                .collect(Collectors.toSet());
+    }
+
+    private static boolean isPersistentColumn(Field field, boolean withId) {
+        return !Modifier.isStatic(field.getModifiers())
+                && (withId || !field.isAnnotationPresent(Id.class))
+                && !field.isAnnotationPresent(Transient.class)
+                && !field.isAnnotationPresent(OneToMany.class)
+                && !field.isAnnotationPresent(ElementCollection.class);
+    }
+
+    private static String columnName(Field field) {
+        JoinColumn joinColumn = field.getAnnotation(JoinColumn.class);
+        if (joinColumn != null && !joinColumn.name().isEmpty()) {
+            return joinColumn.name();
+        }
+        Column column = field.getAnnotation(Column.class);
+        if (column != null && !column.name().isEmpty()) {
+            return column.name();
+        }
+        return field.getName().replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase();
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.trainingservice.repository.plan;
+
+import jakarta.persistence.EntityManager;
+import org.example.trainingservice.entity.plan.Training;
+import org.example.trainingservice.enums.TrainingStatusEnum;
+import org.example.trainingservice.repository.PostgresRepositoryTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Plan d'exécution du filtre participant des requêtes de planning et d'historique ("user_group_ids @> ARRAY[...]")
+ * sur 20 000 groupes d'une même entreprise, chaque participant étant inscrit dans 4 groupes.
+ */
+class TrainingGroupeUserGroupIdsIndexTest extends PostgresRepositoryTest {
+    private static final long COMPANY_ID = 1L;
+    private static final long USER_ID = 42L;
+    private static final int GROUP_COUNT = 20_000;
+    private static final int USER_COUNT = 5_000;
+    private static final String PARTICIPANT_FILTER = "SELECT * FROM training_groupe " +
+            "WHERE company_id = " + COMPANY_ID + " AND user_group_ids @> ARRAY[CAST(" + USER_ID + " AS bigint)]";
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private TrainingRepository trainingRepository;
+    @Autowired
+    private TrainingGroupeRepository trainingGroupeRepository;
+
+    @Test
+    void participantFilterUsesTheGinIndex() {
+        seedGroupes();
+
+        assertThat(explain()).contains("Seq Scan on training_groupe")
+                .doesNotContain("idx_training_groupe_user_group_ids");
+
+        // Index créé au démarrage par TrainingGroupeIndexMigration
+        trainingGroupeRepository.createUserGroupIdsGinIndex();
+        entityManager.createNativeQuery("ANALYZE training_groupe").executeUpdate();
+
+        assertThat(explain())
+                .contains("Bitmap Index Scan on idx_training_groupe_user_group_ids")
+                .doesNotContain("Seq Scan on training_groupe");
+    }
+
+    @Test
+    void planningQueryMatchesTheParticipantGroupes() {
+        seedGroupes();
+        trainingGroupeRepository.createUserGroupIdsGinIndex();
+
+        // array_contains de la requête JPQL : une ligne par groupe sans séance
+        assertThat(trainingGroupeRepository.findUserPlanningRows(COMPANY_ID, USER_ID)).hasSize(GROUP_COUNT / USER_COUNT);
+    }
+
+    private void seedGroupes() {
+        Training training = trainingRepository.saveAndFlush(Training.builder()
+                .companyId(COMPANY_ID)
+                .theme("Sécurité")
+                .status(TrainingStatusEnum.PLANNED)
+                .build());
+        entityManager.createNativeQuery("INSERT INTO training_groupe (training_id, company_id, name, status, " +
+                        "user_group_ids, is_all_fields_filled) " +
+                        "SELECT CAST(:trainingId AS uuid), :companyId, 'Groupe ' || i, 'PLANNED', " +
+                        "       ARRAY[CAST(i % :userCount AS bigint), CAST((i * 7) % :userCount + :userCount AS bigint)], false " +
+                        "FROM generate_series(1, :groupCount) AS i")
+                .setParameter("trainingId", training.getId().toString())
+                .setParameter("companyId", COMPANY_ID)
+                .setParameter("userCount", USER_COUNT)
+                .setParameter("groupCount", GROUP_COUNT)
+                .executeUpdate();
+        entityManager.createNativeQuery("ANALYZE training_groupe").executeUpdate();
+    }
+
+    private String explain() {
+        @SuppressWarnings("unchecked")
+        List<Object> plan = entityManager.createNativeQuery("EXPLAIN " + PARTICIPANT_FILTER).getResultList();
+        return plan.stream().map(String::valueOf).collect(Collectors.joining("\n"));
+    }
+}
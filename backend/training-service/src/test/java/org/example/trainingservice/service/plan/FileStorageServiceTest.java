@@ -0,0 +1,63 @@
+package org.example.trainingservice.service.plan;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileStorageServiceTest {
+    private static final String ETAG = "\"abc123\"";
+    private static final long SIZE = 1000;
+
+    @Test
+    void resolveRangeWithoutHeaderReturnsNull() {
+        assertThat(FileStorageService.resolveRange(new HttpHeaders(), ETAG)).isNull();
+    }
+
+    @Test
+    void resolveRangeParsesSingleRange() {
+        HttpRange range = FileStorageService.resolveRange(headers("bytes=100-199", null), ETAG);
+
+        assertThat(range).isNotNull();
+        assertThat(range.getRangeStart(SIZE)).isEqualTo(100);
+        assertThat(range.getRangeEnd(SIZE)).isEqualTo(199);
+    }
+
+    @Test
+    void resolveRangeParsesOpenAndSuffixRanges() {
+        HttpRange open = FileStorageService.resolveRange(headers("bytes=900-", null), ETAG);
+        HttpRange suffix = FileStorageService.resolveRange(headers("bytes=-50", null), ETAG);
+
+        assertThat(open.getRangeStart(SIZE)).isEqualTo(900);
+        assertThat(open.getRangeEnd(SIZE)).isEqualTo(SIZE - 1);
+        assertThat(suffix.getRangeStart(SIZE)).isEqualTo(950);
+        assertThat(suffix.getRangeEnd(SIZE)).isEqualTo(SIZE - 1);
+    }
+
+    @Test
+    void resolveRangeIgnoresMultipleRanges() {
+        assertThat(FileStorageService.resolveRange(headers("bytes=0-9,20-29", null), ETAG)).isNull();
+    }
+
+    @Test
+    void resolveRangeIgnoresInvalidHeader() {
+        assertThat(FileStorageService.resolveRange(headers("items=0-9", null), ETAG)).isNull();
+        assertThat(FileStorageService.resolveRange(headers("bytes=50-10", null), ETAG)).isNull();
+    }
+
+    @Test
+    void resolveRangeHonoursIfRange() {
+        assertThat(FileStorageService.resolveRange(headers("bytes=0-9", ETAG), ETAG)).isNotNull();
+        assertThat(FileStorageService.resolveRange(headers("bytes=0-9", "\"stale\""), ETAG)).isNull();
+    }
+
+    private static HttpHeaders headers(String range, String ifRange) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RANGE, range);
+        if (ifRange != null) {
+            headers.set(HttpHeaders.IF_RANGE, ifRange);
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,114 @@
+package org.example.trainingservice.service.plan.attendance;
+
+import org.example.trainingservice.enums.AttendanceStatus;
+import org.example.trainingservice.repository.plan.attendance.AttendanceRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class AttendanceCheckInBufferTest {
+    private static final String TOKEN = "token";
+    private static final Long MARKED_BY = 7L;
+
+    private AttendanceRecordRepository attendanceRecordRepository;
+    private AttendanceCheckInBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        attendanceRecordRepository = mock(AttendanceRecordRepository.class);
+        when(attendanceRecordRepository.updateAttendanceStatusBatch(anyList(), any(), any(), anyLong()))
+                .thenAnswer(invocation -> invocation.<List<UUID>>getArgument(0).size());
+        buffer = new AttendanceCheckInBuffer(attendanceRecordRepository, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void lastCheckInForARecordWins() {
+        UUID recordId = UUID.randomUUID();
+
+        CompletableFuture<Void> first = buffer.enqueue(TOKEN, 1L, recordId, AttendanceStatus.PRESENT, MARKED_BY);
+        CompletableFuture<Void> second = buffer.enqueue(TOKEN, 1L, recordId, AttendanceStatus.ABSENT, MARKED_BY);
+        CompletableFuture<Void> last = buffer.enqueue(TOKEN, 1L, recordId, AttendanceStatus.PRESENT, MARKED_BY);
+        buffer.flush();
+
+        verify(attendanceRecordRepository, times(1)).updateAttendanceStatusBatch(
+                eq(List.of(recordId)), eq(AttendanceStatus.PRESENT), any(LocalDateTime.class), eq(MARKED_BY));
+        verify(attendanceRecordRepository, never()).updateAttendanceStatusBatch(
+                anyList(), eq(AttendanceStatus.ABSENT), any(), anyLong());
+        // Les pointages remplacés sont acquittés avec celui qui les remplace
+        assertThat(first).isCompleted();
+        assertThat(second).isCompleted();
+        assertThat(last).isCompleted();
+    }
+
+    @Test
+    void checkInsWithTheSameStatusAreWrittenTogether() {
+        UUID firstRecord = UUID.randomUUID();
+        UUID secondRecord = UUID.randomUUID();
+
+        buffer.enqueue(TOKEN, 1L, firstRecord, AttendanceStatus.PRESENT, MARKED_BY);
+        buffer.enqueue(TOKEN, 2L, secondRecord, AttendanceStatus.PRESENT, MARKED_BY);
+        buffer.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<UUID>> recordIds = ArgumentCaptor.forClass(List.class);
+        verify(attendanceRecordRepository, atLeastOnce()).updateAttendanceStatusBatch(
+                recordIds.capture(), eq(AttendanceStatus.PRESENT), any(), eq(MARKED_BY));
+        assertThat(recordIds.getAllValues().stream().flatMap(List::stream))
+                .containsExactlyInAnyOrder(firstRecord, secondRecord);
+    }
+
+    @Test
+    void failedWriteIsReportedToEveryMergedCheckIn() {
+        UUID recordId = UUID.randomUUID();
+        when(attendanceRecordRepository.updateAttendanceStatusBatch(anyList(), any(), any(), anyLong()))
+                .thenThrow(new IllegalStateException("database down"));
+
+        CompletableFuture<Void> first = buffer.enqueue(TOKEN, 1L, recordId, AttendanceStatus.ABSENT, MARKED_BY);
+        CompletableFuture<Void> last = buffer.enqueue(TOKEN, 1L, recordId, AttendanceStatus.PRESENT, MARKED_BY);
+        buffer.flush();
+
+        assertThat(first).isCompletedExceptionally();
+        assertThat(last).isCompletedExceptionally();
+    }
+
+    @Test
+    void withdrawnCheckInIsNeverWritten() {
+        UUID recordId = UUID.randomUUID();
+
+        CompletableFuture<Void> superseded = buffer.enqueue(TOKEN, 1L, recordId, AttendanceStatus.ABSENT, MARKED_BY);
+        CompletableFuture<Void> written = buffer.enqueue(TOKEN, 1L, recordId, AttendanceStatus.PRESENT, MARKED_BY);
+
+        assertThat(buffer.withdraw(recordId, written)).isTrue();
+        buffer.flush();
+
+        verify(attendanceRecordRepository, never()).updateAttendanceStatusBatch(anyList(), any(), any(), anyLong());
+        assertThat(written).isCompletedExceptionally();
+        assertThat(superseded).isCompletedExceptionally();
+    }
+
+    @Test
+    void writtenOrSupersededCheckInCannotBeWithdrawn() {
+        UUID recordId = UUID.randomUUID();
+
+        CompletableFuture<Void> superseded = buffer.enqueue(TOKEN, 1L, recordId, AttendanceStatus.ABSENT, MARKED_BY);
+        buffer.enqueue(TOKEN, 1L, recordId, AttendanceStatus.PRESENT, MARKED_BY);
+        assertThat(buffer.withdraw(recordId, superseded)).isFalse();
+
+        buffer.flush();
+        assertThat(superseded).isCompleted();
+        assertThat(buffer.withdraw(recordId, superseded)).isFalse();
+    }
+}
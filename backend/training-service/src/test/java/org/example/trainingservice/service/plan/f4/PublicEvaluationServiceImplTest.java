@@ -0,0 +1,148 @@
+package org.example.trainingservice.service.plan.f4;
+
+import org.example.trainingservice.cacheService.EvaluationFormCacheService;
+import org.example.trainingservice.cacheService.EvaluationSyntheseCacheService;
+import org.example.trainingservice.cacheService.QuestionnaireDefinitionCacheService;
+import org.example.trainingservice.client.users.AuthServiceClient;
+import org.example.trainingservice.dto.plan.f4.QREvaluationScanResponseDto;
+import org.example.trainingservice.entity.campaign.Question;
+import org.example.trainingservice.entity.campaign.Questionnaire;
+import org.example.trainingservice.entity.plan.f4.EvaluationQRToken;
+import org.example.trainingservice.enums.GroupeEvaluationStatusEnums;
+import org.example.trainingservice.repository.evaluation.QuestionnaireRepository;
+import org.example.trainingservice.repository.evaluation.UserResponseRepository;
+import org.example.trainingservice.repository.plan.evaluation.GroupeEvaluationRepo;
+import org.example.trainingservice.repository.plan.f4.EvaluationQRTokenRepository;
+import org.example.trainingservice.service.evaluations.EvaluationProgressService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Scan d'un QR code F4 par toute une classe : seul le token est relu à chaque scan,
+ * l'en-tête et le questionnaire sont chargés une fois par évaluation.
+ */
+class PublicEvaluationServiceImplTest {
+    private static final UUID EVALUATION_ID = UUID.randomUUID();
+    private static final UUID QUESTIONNAIRE_ID = UUID.randomUUID();
+    private static final int SCANS = 200;
+
+    private GroupeEvaluationRepo groupeEvaluationRepo;
+    private EvaluationQRTokenRepository qrTokenRepository;
+    private QuestionnaireRepository questionnaireRepository;
+    private CacheManager cacheManager;
+    private PublicEvaluationServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        groupeEvaluationRepo = mock(GroupeEvaluationRepo.class);
+        qrTokenRepository = mock(EvaluationQRTokenRepository.class);
+        questionnaireRepository = mock(QuestionnaireRepository.class);
+        cacheManager = new CaffeineCacheManager();
+
+        when(groupeEvaluationRepo.findFormHeaderById(EVALUATION_ID))
+                .thenReturn(List.<Object[]>of(header(GroupeEvaluationStatusEnums.PUBLISHED)));
+        when(questionnaireRepository.findDefinitionVersionById(QUESTIONNAIRE_ID)).thenReturn(Optional.of(0L));
+        when(questionnaireRepository.findByIdWithQuestions(QUESTIONNAIRE_ID)).thenReturn(Optional.of(questionnaire()));
+        when(qrTokenRepository.findByToken(anyString()))
+                .thenAnswer(invocation -> Optional.of(token(invocation.getArgument(0))));
+
+        QuestionnaireDefinitionCacheService questionnaireDefinitionCacheService =
+                new QuestionnaireDefinitionCacheService(questionnaireRepository, cacheManager);
+        EvaluationFormCacheService evaluationFormCacheService =
+                new EvaluationFormCacheService(groupeEvaluationRepo, questionnaireDefinitionCacheService, cacheManager);
+        service = new PublicEvaluationServiceImpl(groupeEvaluationRepo, qrTokenRepository, mock(AuthServiceClient.class),
+                mock(UserResponseRepository.class), mock(EvaluationProgressService.class), questionnaireDefinitionCacheService,
+                evaluationFormCacheService, new EvaluationSyntheseCacheService(cacheManager), mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void concurrentScansLoadTheFormOnce() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<QREvaluationScanResponseDto>> scans = new ArrayList<>();
+        try {
+            for (int i = 0; i < SCANS; i++) {
+                String token = "token-" + i;
+                scans.add(executor.submit(() -> {
+                    start.await();
+                    return service.scanEvaluationQR(token).getBody();
+                }));
+            }
+            start.countDown();
+
+            for (int i = 0; i < SCANS; i++) {
+                QREvaluationScanResponseDto response = scans.get(i).get(10, TimeUnit.SECONDS);
+                assertThat(response.getValid()).isTrue();
+                // Le formulaire partagé est complété par le token et le participant de chaque scan
+                assertThat(response.getEvaluationForm().getToken()).isEqualTo("token-" + i);
+                assertThat(response.getEvaluationForm().getParticipant().getParticipantId()).isEqualTo((long) i);
+                assertThat(response.getEvaluationForm().getQuestionnaire().getQuestions()).hasSize(3);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(qrTokenRepository, times(SCANS)).findByToken(anyString());
+        verify(groupeEvaluationRepo, times(1)).findFormHeaderById(EVALUATION_ID);
+        verify(questionnaireRepository, times(1)).findDefinitionVersionById(QUESTIONNAIRE_ID);
+        verify(questionnaireRepository, times(1)).findByIdWithQuestions(QUESTIONNAIRE_ID);
+    }
+
+    @Test
+    void evictedFormIsReloaded() {
+        assertThat(service.scanEvaluationQR("token-1").getBody().getValid()).isTrue();
+
+        // Clôture de l'évaluation : GroupeEvaluationServiceImpl.updateStatus retire le formulaire par identifiant
+        when(groupeEvaluationRepo.findFormHeaderById(EVALUATION_ID))
+                .thenReturn(List.<Object[]>of(header(GroupeEvaluationStatusEnums.CLOSED)));
+        cacheManager.getCache(EvaluationFormCacheService.TEMPLATE_CACHE_NAME).evict(EVALUATION_ID);
+
+        QREvaluationScanResponseDto response = service.scanEvaluationQR("token-2").getBody();
+        assertThat(response.getValid()).isFalse();
+        assertThat(response.getErrorCode()).isEqualTo("NOT_PUBLISHED");
+        verify(groupeEvaluationRepo, times(2)).findFormHeaderById(EVALUATION_ID);
+    }
+
+    private static Object[] header(GroupeEvaluationStatusEnums status) {
+        return new Object[]{status, "Évaluation à chaud", "Formulaire F4", QUESTIONNAIRE_ID,
+                "Groupe 1", "Sécurité", "Salle A", "Casablanca"};
+    }
+
+    private static Questionnaire questionnaire() {
+        List<Question> questions = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            questions.add(Question.builder().id(UUID.randomUUID()).type("Score").text("Question " + i).build());
+        }
+        return Questionnaire.builder().id(QUESTIONNAIRE_ID).title("F4").questions(questions).build();
+    }
+
+    private static EvaluationQRToken token(String token) {
+        return EvaluationQRToken.builder()
+                .token(token)
+                .participantId(Long.parseLong(token.substring("token-".length())))
+                .participantFullName("Participant " + token)
+                .groupeEvaluationId(EVALUATION_ID)
+                .companyId(1L)
+                .isUsed(false)
+                .expiryDate(LocalDateTime.now().plusDays(1))
+                .build();
+    }
+}